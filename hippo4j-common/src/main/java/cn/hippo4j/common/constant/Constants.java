@@ -60,10 +60,14 @@ public class Constants {
 
     public static final String CONFIG_CONTROLLER_PATH = BASE_PATH + "/configs";
 
+    public static final String CONFIG_BATCH_PATH = CONFIG_CONTROLLER_PATH + "/batch";
+
     public static final String LISTENER_PATH = CONFIG_CONTROLLER_PATH + "/listener";
 
     public static final String MONITOR_PATH = BASE_PATH + "/monitor";
 
+    public static final String MONITOR_BATCH_PATH = MONITOR_PATH + "/batch";
+
     public static final String REGISTER_ADAPTER_BASE_PATH = BASE_PATH + "/adapter/thread-pool";
 
     public static final String REGISTER_ADAPTER_PATH = REGISTER_ADAPTER_BASE_PATH + "/register";
@@ -84,6 +88,16 @@ public class Constants {
 
     public static final String WEIGHT_CONFIGS = "Weight-Configs";
 
+    public static final String LISTENING_PROTOCOL_VERSION = "Listening-Protocol-Version";
+
+    public static final String LISTENING_PROTOCOL_DELTA = "2";
+
+    public static final String LISTENING_SESSION_ID = "Listening-Session-Id";
+
+    public static final String LISTENING_FINGERPRINT = "Listening-Fingerprint";
+
+    public static final String LISTENING_FULL_SYNC = "Listening-Full-Sync";
+
     public static final String GROUP_KEY_DELIMITER = "+";
 
     public static final String GROUP_KEY_DELIMITER_TRANSLATION = "\\+";
@@ -25,7 +25,7 @@ import lombok.NoArgsConstructor;
  */
 @Data
 @NoArgsConstructor
-public class RuntimeMessage extends AbstractMessage {
+public class RuntimeMessage extends AbstractMessage<RuntimeMessage> {
 
     /**
      * currentLoad
@@ -81,4 +81,14 @@ public class RuntimeMessage extends AbstractMessage {
      * timestamp
      */
     private Long timestamp;
+
+    /**
+     * Max time between two reports of an unchanged thread pool in delta report mode, null if not in delta report mode. unit: ms
+     */
+    private Long keyframeInterval;
+
+    /**
+     * Time between two collections in delta report mode, null if not in delta report mode. unit: ms
+     */
+    private Long collectInterval;
 }
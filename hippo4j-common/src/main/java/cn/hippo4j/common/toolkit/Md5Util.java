@@ -24,6 +24,9 @@ import java.io.IOException;
 import java.net.URLEncoder;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -75,6 +78,22 @@ public class Md5Util {
         return Md5Util.md5Hex(ContentUtil.getPoolContent(config), "UTF-8");
     }
 
+    /**
+     * Aggregate fingerprint of a group of md5, independent of iteration order.
+     *
+     * @param md5s md5 of each listened thread pool
+     * @return
+     */
+    public static String getFingerprint(Collection<String> md5s) {
+        List<String> sortedMd5s = new ArrayList(md5s);
+        Collections.sort(sortedMd5s);
+        StringBuilder sb = new StringBuilder(sortedMd5s.size() * 33);
+        for (String md5 : sortedMd5s) {
+            sb.append(md5).append(Constants.LINE_SEPARATOR);
+        }
+        return md5Hex(sb.toString(), Constants.ENCODE);
+    }
+
     public static String compareMd5ResultString(List<String> changedGroupKeys) throws IOException {
         if (null == changedGroupKeys) {
             return "";
@@ -0,0 +1,265 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.common.toolkit;
+
+import cn.hippo4j.common.monitor.Message;
+import cn.hippo4j.common.monitor.MessageTypeEnum;
+import cn.hippo4j.common.monitor.RuntimeMessage;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runtime message binary codec.
+ *
+ * <p> Encodes a batch of {@link RuntimeMessage} with a fixed field schema, a presence bitmap per
+ * message and variable-length integers, replacing java serialization and json round-trips.
+ * Timestamps are written as deltas against the previous message of the same batch.
+ *
+ * <p> Decoding works on a single length-delimited frame. Every count and length read from the
+ * frame is checked against the bytes left in it, so a malformed frame is rejected before anything
+ * is allocated for it.
+ */
+public class RuntimeMessageCodec {
+
+    /**
+     * First byte of every binary frame, distinguishes it from java serialization streams.
+     */
+    public static final byte MAGIC = 'H';
+
+    /**
+     * Schema version.
+     */
+    public static final byte VERSION = 1;
+
+    /**
+     * Sent back by the server once it accepts binary frames on a connection: {@link #MAGIC} followed by {@link #VERSION}.
+     * A server without the binary codec never answers, which lets clients fall back to java serialization.
+     */
+    public static final byte[] ACKNOWLEDGE = {MAGIC, VERSION};
+
+    private static final int GROUP_KEY = 1;
+
+    private static final int CURRENT_LOAD = 1 << 1;
+
+    private static final int PEAK_LOAD = 1 << 2;
+
+    private static final int POOL_SIZE = 1 << 3;
+
+    private static final int LARGEST_POOL_SIZE = 1 << 4;
+
+    private static final int ACTIVE_SIZE = 1 << 5;
+
+    private static final int QUEUE_CAPACITY = 1 << 6;
+
+    private static final int QUEUE_SIZE = 1 << 7;
+
+    private static final int QUEUE_REMAINING_CAPACITY = 1 << 8;
+
+    private static final int COMPLETED_TASK_COUNT = 1 << 9;
+
+    private static final int REJECT_COUNT = 1 << 10;
+
+    private static final int TIMESTAMP = 1 << 11;
+
+    private static final int KEYFRAME_INTERVAL = 1 << 12;
+
+    private static final int COLLECT_INTERVAL = 1 << 13;
+
+    /**
+     * Encode runtime message batch.
+     *
+     * @param message runtime message batch
+     * @param out     output
+     * @throws IOException
+     */
+    public static void encode(Message message, DataOutput out) throws IOException {
+        List<?> messages = message.getMessages();
+        int size = messages == null ? 0 : messages.size();
+        out.writeByte(MAGIC);
+        out.writeByte(VERSION);
+        writeVarLong(out, size);
+        long previousTimestamp = 0L;
+        for (int i = 0; i < size; i++) {
+            RuntimeMessage each = (RuntimeMessage) messages.get(i);
+            writeVarLong(out, presence(each));
+            writeString(out, each.getGroupKey());
+            writeString(out, each.getCurrentLoad());
+            writeString(out, each.getPeakLoad());
+            writeNumber(out, each.getPoolSize());
+            writeNumber(out, each.getLargestPoolSize());
+            writeString(out, each.getActiveSize());
+            writeNumber(out, each.getQueueCapacity());
+            writeNumber(out, each.getQueueSize());
+            writeString(out, each.getQueueRemainingCapacity());
+            writeNumber(out, each.getCompletedTaskCount());
+            writeNumber(out, each.getRejectCount());
+            if (each.getTimestamp() != null) {
+                writeVarLong(out, zigZag(each.getTimestamp() - previousTimestamp));
+                previousTimestamp = each.getTimestamp();
+            }
+            writeNumber(out, each.getKeyframeInterval());
+            writeNumber(out, each.getCollectInterval());
+        }
+    }
+
+    /**
+     * Decode runtime message batch.
+     *
+     * @param frame one whole frame, read from its position to its limit
+     * @return runtime message batch
+     * @throws IOException if the frame is malformed
+     */
+    public static RuntimeMessage decode(ByteBuffer frame) throws IOException {
+        byte magic = readByte(frame);
+        byte version = readByte(frame);
+        if (magic != MAGIC || version != VERSION) {
+            throw new IOException(String.format("Unsupported runtime message frame, magic: %s, version: %s.", magic, version));
+        }
+        // Every message takes at least one byte for its presence bitmap.
+        int size = readLength(frame);
+        List<RuntimeMessage> messages = new ArrayList<>(size);
+        long previousTimestamp = 0L;
+        for (int i = 0; i < size; i++) {
+            int presence = (int) readVarLong(frame);
+            RuntimeMessage each = new RuntimeMessage();
+            each.setGroupKey(readString(frame, presence, GROUP_KEY));
+            each.setCurrentLoad(readString(frame, presence, CURRENT_LOAD));
+            each.setPeakLoad(readString(frame, presence, PEAK_LOAD));
+            each.setPoolSize(readInteger(frame, presence, POOL_SIZE));
+            each.setLargestPoolSize(readInteger(frame, presence, LARGEST_POOL_SIZE));
+            each.setActiveSize(readString(frame, presence, ACTIVE_SIZE));
+            each.setQueueCapacity(readInteger(frame, presence, QUEUE_CAPACITY));
+            each.setQueueSize(readInteger(frame, presence, QUEUE_SIZE));
+            each.setQueueRemainingCapacity(readString(frame, presence, QUEUE_REMAINING_CAPACITY));
+            each.setCompletedTaskCount((presence & COMPLETED_TASK_COUNT) != 0 ? unZigZag(readVarLong(frame)) : null);
+            each.setRejectCount(readInteger(frame, presence, REJECT_COUNT));
+            if ((presence & TIMESTAMP) != 0) {
+                previousTimestamp += unZigZag(readVarLong(frame));
+                each.setTimestamp(previousTimestamp);
+            }
+            each.setKeyframeInterval((presence & KEYFRAME_INTERVAL) != 0 ? unZigZag(readVarLong(frame)) : null);
+            each.setCollectInterval((presence & COLLECT_INTERVAL) != 0 ? unZigZag(readVarLong(frame)) : null);
+            messages.add(each);
+        }
+        if (frame.hasRemaining()) {
+            throw new IOException(String.format("Malformed runtime message frame, %s trailing bytes.", frame.remaining()));
+        }
+        RuntimeMessage message = new RuntimeMessage();
+        message.setMessageType(MessageTypeEnum.RUNTIME);
+        message.setMessages(messages);
+        return message;
+    }
+
+    private static int presence(RuntimeMessage message) {
+        int presence = 0;
+        presence |= message.getGroupKey() != null ? GROUP_KEY : 0;
+        presence |= message.getCurrentLoad() != null ? CURRENT_LOAD : 0;
+        presence |= message.getPeakLoad() != null ? PEAK_LOAD : 0;
+        presence |= message.getPoolSize() != null ? POOL_SIZE : 0;
+        presence |= message.getLargestPoolSize() != null ? LARGEST_POOL_SIZE : 0;
+        presence |= message.getActiveSize() != null ? ACTIVE_SIZE : 0;
+        presence |= message.getQueueCapacity() != null ? QUEUE_CAPACITY : 0;
+        presence |= message.getQueueSize() != null ? QUEUE_SIZE : 0;
+        presence |= message.getQueueRemainingCapacity() != null ? QUEUE_REMAINING_CAPACITY : 0;
+        presence |= message.getCompletedTaskCount() != null ? COMPLETED_TASK_COUNT : 0;
+        presence |= message.getRejectCount() != null ? REJECT_COUNT : 0;
+        presence |= message.getTimestamp() != null ? TIMESTAMP : 0;
+        presence |= message.getKeyframeInterval() != null ? KEYFRAME_INTERVAL : 0;
+        presence |= message.getCollectInterval() != null ? COLLECT_INTERVAL : 0;
+        return presence;
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer frame, int presence, int field) throws IOException {
+        if ((presence & field) == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[readLength(frame)];
+        frame.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Read a count or length, which can not exceed the bytes left in the frame.
+     */
+    private static int readLength(ByteBuffer frame) throws IOException {
+        long length = readVarLong(frame);
+        if (length < 0 || length > frame.remaining()) {
+            throw new IOException(String.format("Malformed runtime message frame, length %s exceeds %s remaining bytes.", length, frame.remaining()));
+        }
+        return (int) length;
+    }
+
+    private static byte readByte(ByteBuffer frame) throws IOException {
+        if (!frame.hasRemaining()) {
+            throw new IOException("Truncated runtime message frame.");
+        }
+        return frame.get();
+    }
+
+    private static void writeNumber(DataOutput out, Number value) throws IOException {
+        if (value != null) {
+            writeVarLong(out, zigZag(value.longValue()));
+        }
+    }
+
+    private static Integer readInteger(ByteBuffer frame, int presence, int field) throws IOException {
+        return (presence & field) != 0 ? (int) unZigZag(readVarLong(frame)) : null;
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer frame) throws IOException {
+        long value = 0L;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = readByte(frame);
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable-length integer.");
+    }
+}
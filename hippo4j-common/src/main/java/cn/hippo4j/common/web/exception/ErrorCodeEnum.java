@@ -100,5 +100,21 @@ public enum ErrorCodeEnum implements ErrorCode {
         public String getMessage() {
             return "登录时间过长, 请退出重新登录";
         }
+    },
+
+    /**
+     * LISTENER_RESYNC
+     */
+    LISTENER_RESYNC {
+
+        @Override
+        public String getCode() {
+            return "A000005";
+        }
+
+        @Override
+        public String getMessage() {
+            return "LISTENER_RESYNC";
+        }
     }
 }
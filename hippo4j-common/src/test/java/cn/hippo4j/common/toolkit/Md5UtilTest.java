@@ -17,5 +17,18 @@
 
 package cn.hippo4j.common.toolkit;
 
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import java.util.Objects;
+
 public class Md5UtilTest {
+
+    @Test
+    public void assertGetFingerprint() {
+        String fingerprint = Md5Util.getFingerprint(Lists.newArrayList("a", "b", "c"));
+        Assert.isTrue(Objects.equals(fingerprint, Md5Util.getFingerprint(Lists.newArrayList("c", "a", "b"))));
+        Assert.isTrue(!Objects.equals(fingerprint, Md5Util.getFingerprint(Lists.newArrayList("a", "b"))));
+        Assert.isTrue(!Objects.equals(fingerprint, Md5Util.getFingerprint(Lists.newArrayList("a", "b", "d"))));
+    }
 }
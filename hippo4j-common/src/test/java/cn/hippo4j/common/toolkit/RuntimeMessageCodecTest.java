@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.common.toolkit;
+
+import cn.hippo4j.common.monitor.MessageTypeEnum;
+import cn.hippo4j.common.monitor.RuntimeMessage;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+public class RuntimeMessageCodecTest {
+
+    @Test
+    public void assertEncodeAndDecode() throws Exception {
+        RuntimeMessage message = buildMessage(20);
+        byte[] bytes = encode(message);
+        RuntimeMessage decoded = RuntimeMessageCodec.decode(ByteBuffer.wrap(bytes));
+        Assert.isTrue(Objects.equals(decoded.getMessageType(), MessageTypeEnum.RUNTIME));
+        Assert.isTrue(Objects.equals(decoded.getMessages(), message.getMessages()));
+    }
+
+    @Test
+    public void assertEncodeSmallerThanJson() throws Exception {
+        RuntimeMessage message = buildMessage(20);
+        byte[] bytes = encode(message);
+        byte[] jsonBytes = JSONUtil.toJSONString(MessageConvert.convert(message)).getBytes(StandardCharsets.UTF_8);
+        Assert.isTrue(bytes.length * 3 < jsonBytes.length);
+    }
+
+    @Test
+    public void assertRejectTruncatedFrame() throws Exception {
+        byte[] bytes = encode(buildMessage(3));
+        for (int length = 0; length < bytes.length; length++) {
+            assertMalformed(Arrays.copyOf(bytes, length));
+        }
+    }
+
+    @Test
+    public void assertRejectLengthBeyondFrame() throws Exception {
+        // Message count larger than the bytes left in the frame.
+        assertMalformed(new byte[]{RuntimeMessageCodec.MAGIC, RuntimeMessageCodec.VERSION, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x7F});
+        // Group key length larger than the bytes left in the frame.
+        assertMalformed(new byte[]{RuntimeMessageCodec.MAGIC, RuntimeMessageCodec.VERSION, 1, 1, (byte) 0xFF, (byte) 0xFF, 0x03, 'a'});
+        // Negative length.
+        assertMalformed(new byte[]{RuntimeMessageCodec.MAGIC, RuntimeMessageCodec.VERSION, 1, 1,
+                (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x01});
+    }
+
+    @Test
+    public void assertRejectTrailingBytes() throws Exception {
+        byte[] bytes = encode(buildMessage(3));
+        assertMalformed(Arrays.copyOf(bytes, bytes.length + 1));
+    }
+
+    /**
+     * Compares the cpu time of the binary codec with the java serialization of message wrappers used by the legacy protocol.
+     */
+    @Test
+    public void assertCpuTimeLowerThanJavaSerialization() throws Exception {
+        RuntimeMessage message = buildMessage(20);
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        int iterations = 2000;
+        for (int i = 0; i < iterations; i++) {
+            RuntimeMessageCodec.decode(ByteBuffer.wrap(encode(message)));
+            deserialize(serialize(MessageConvert.convert(message)));
+        }
+        long start = threadMXBean.getCurrentThreadCpuTime();
+        for (int i = 0; i < iterations; i++) {
+            RuntimeMessageCodec.decode(ByteBuffer.wrap(encode(message)));
+        }
+        long binaryCpuTime = threadMXBean.getCurrentThreadCpuTime() - start;
+        start = threadMXBean.getCurrentThreadCpuTime();
+        for (int i = 0; i < iterations; i++) {
+            deserialize(serialize(MessageConvert.convert(message)));
+        }
+        long serializationCpuTime = threadMXBean.getCurrentThreadCpuTime() - start;
+        System.out.printf("Runtime message round trip cpu time, binary: %d us, java serialization: %d us.%n",
+                binaryCpuTime / 1000 / iterations, serializationCpuTime / 1000 / iterations);
+        Assert.isTrue(binaryCpuTime < serializationCpuTime,
+                String.format("binary: %d ns, java serialization: %d ns", binaryCpuTime, serializationCpuTime));
+    }
+
+    private void assertMalformed(byte[] bytes) {
+        try {
+            RuntimeMessageCodec.decode(ByteBuffer.wrap(bytes));
+        } catch (IOException ex) {
+            return;
+        }
+        throw new AssertionError("Malformed frame accepted: " + Arrays.toString(bytes));
+    }
+
+    private byte[] serialize(Object object) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream)) {
+            objectOutputStream.writeObject(object);
+        }
+        return outputStream.toByteArray();
+    }
+
+    private Object deserialize(byte[] bytes) throws Exception {
+        try (ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return objectInputStream.readObject();
+        }
+    }
+
+    private byte[] encode(RuntimeMessage message) throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        RuntimeMessageCodec.encode(message, new DataOutputStream(outputStream));
+        return outputStream.toByteArray();
+    }
+
+    private RuntimeMessage buildMessage(int size) {
+        List<RuntimeMessage> messages = new ArrayList<>();
+        long timestamp = System.currentTimeMillis();
+        for (int i = 0; i < size; i++) {
+            RuntimeMessage each = new RuntimeMessage();
+            each.setGroupKey("message-consume-" + i + "+dynamic-threadpool-example+prescription+127.0.0.1:8088_a1b2c3");
+            each.setCurrentLoad("12");
+            each.setPeakLoad("80");
+            each.setPoolSize(10);
+            each.setLargestPoolSize(20);
+            each.setActiveSize("3");
+            each.setQueueCapacity(1024);
+            each.setQueueSize(i);
+            each.setQueueRemainingCapacity(String.valueOf(1024 - i));
+            each.setCompletedTaskCount(123456789L + i);
+            each.setRejectCount(i % 2 == 0 ? null : -i);
+            each.setTimestamp(timestamp + i);
+            each.setKeyframeInterval(i % 3 == 0 ? 60000L : null);
+            each.setCollectInterval(i % 3 == 0 ? 5000L : null);
+            messages.add(each);
+        }
+        RuntimeMessage message = new RuntimeMessage();
+        message.setMessageType(MessageTypeEnum.RUNTIME);
+        message.setMessages(messages);
+        return message;
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.config.config;
+
+import cn.hippo4j.config.mapper.HisRunDataMapper;
+import cn.hippo4j.config.mapper.HisRunDataRollupMapper;
+import cn.hippo4j.config.monitor.storage.DatabaseHisRunDataStorage;
+import cn.hippo4j.config.monitor.storage.HisRunDataStorage;
+import cn.hippo4j.config.monitor.storage.LocalHisRunDataStorage;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Monitor storage config.
+ */
+@Configuration
+public class MonitorStorageConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = ServerBootstrapProperties.PREFIX, name = "monitor-storage-type", havingValue = "local")
+    public HisRunDataStorage localHisRunDataStorage(ServerBootstrapProperties properties) {
+        return new LocalHisRunDataStorage(properties.getMonitorStoragePath());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public HisRunDataStorage databaseHisRunDataStorage(ServerBootstrapProperties properties,
+                                                       HisRunDataMapper hisRunDataMapper,
+                                                       HisRunDataRollupMapper hisRunDataRollupMapper) {
+        return new DatabaseHisRunDataStorage(properties, hisRunDataMapper, hisRunDataRollupMapper);
+    }
+}
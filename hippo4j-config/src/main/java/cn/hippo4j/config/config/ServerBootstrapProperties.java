@@ -45,6 +45,52 @@ public class ServerBootstrapProperties {
      */
     private Integer cleanHistoryDataPeriod = 30;
 
+    /**
+     * How the database storage removes expired history data, delete or partition.
+     * Partition mode drops hourly range partitions of a partitioned his_run_data table.
+     */
+    private String cleanHistoryDataMode = "delete";
+
+    /**
+     * Maximum number of rows removed by one delete statement.
+     */
+    private Integer cleanHistoryDataBatchSize = 1000;
+
+    /**
+     * Pause between two delete statements. unit: ms.
+     */
+    private Long cleanHistoryDataBatchInterval = 100L;
+
+    /**
+     * Storage of thread pool runtime data, db or local.
+     */
+    private String monitorStorageType = "db";
+
+    /**
+     * Directory of local runtime data storage.
+     */
+    private String monitorStoragePath = System.getProperty("user.home") + "/hippo4j/monitor";
+
+    /**
+     * Maximum number of runtime data rows waiting to be written, rows beyond it are dropped.
+     */
+    private Integer monitorWriteBufferCapacity = 65536;
+
+    /**
+     * Maximum number of runtime data rows written by one insert statement.
+     */
+    private Integer monitorWriteBatchSize = 500;
+
+    /**
+     * Interval for writing buffered runtime data. unit: ms.
+     */
+    private Long monitorWriteInterval = 1000L;
+
+    /**
+     * Maximum size of a batched runtime data report after decompression, larger reports are rejected. unit: byte.
+     */
+    private Integer monitorReportMaxBodySize = 8 * 1024 * 1024;
+
     /**
      * Netty server port.
      */
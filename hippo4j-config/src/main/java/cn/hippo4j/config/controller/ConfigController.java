@@ -25,6 +25,7 @@ import cn.hippo4j.config.model.ConfigAllInfo;
 import cn.hippo4j.config.model.ConfigInfoBase;
 import cn.hippo4j.config.service.ConfigCacheService;
 import cn.hippo4j.config.service.ConfigServletInner;
+import cn.hippo4j.config.service.ListenerSessionService;
 import cn.hippo4j.config.service.biz.ConfigService;
 import cn.hippo4j.config.toolkit.Md5ConfigUtil;
 import cn.hutool.core.util.StrUtil;
@@ -36,6 +37,9 @@ import org.springframework.web.bind.annotation.*;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.net.URLDecoder;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -50,6 +54,8 @@ public class ConfigController {
 
     private final ConfigServletInner configServletInner;
 
+    private final ListenerSessionService listenerSessionService;
+
     @GetMapping
     public Result<ConfigInfoBase> detailConfigInfo(@RequestParam("tpId") String tpId,
                                                    @RequestParam("itemId") String itemId,
@@ -59,6 +65,16 @@ public class ConfigController {
         return Results.success(configAllInfo);
     }
 
+    @GetMapping("/batch")
+    public Result<Map<String, ConfigAllInfo>> batchConfigInfo(@RequestParam(value = "tpIds", required = false) String tpIds,
+                                                              @RequestParam("itemId") String itemId,
+                                                              @RequestParam("namespace") String namespace,
+                                                              @RequestParam(value = "instanceId", required = false) String instanceId) {
+        List<String> tpIdList = StrUtil.isBlank(tpIds) ? Collections.emptyList() : Arrays.asList(tpIds.split(Constants.GENERAL_SPLIT_SYMBOL));
+        Map<String, ConfigAllInfo> configAllInfoMap = configService.findConfigRecentInfos(tpIdList, itemId, namespace, instanceId);
+        return Results.success(configAllInfoMap);
+    }
+
     @PostMapping
     public Result<Boolean> publishConfig(@RequestParam(value = "identify", required = false) String identify,
                                          @RequestBody ConfigAllInfo config) {
@@ -71,16 +87,26 @@ public class ConfigController {
     public void listener(HttpServletRequest request, HttpServletResponse response) {
         request.setAttribute("org.apache.catalina.ASYNC_SUPPORTED", true);
         String probeModify = request.getParameter(Constants.LISTENING_CONFIGS);
+        boolean isDeltaProtocol = ListenerSessionService.isDeltaProtocol(request);
         if (StringUtils.isEmpty(probeModify)) {
-            throw new IllegalArgumentException("invalid probeModify");
+            if (!isDeltaProtocol) {
+                throw new IllegalArgumentException("invalid probeModify");
+            }
+            probeModify = Constants.NULL;
         }
         probeModify = URLDecoder.decode(probeModify, Constants.ENCODE);
         Map<String, String> clientMd5Map;
         try {
-            clientMd5Map = Md5ConfigUtil.getClientMd5Map(probeModify);
+            clientMd5Map = isDeltaProtocol
+                    ? listenerSessionService.resolveClientMd5Map(request, probeModify)
+                    : Md5ConfigUtil.getClientMd5Map(probeModify);
         } catch (Throwable e) {
             throw new IllegalArgumentException("invalid probeModify");
         }
+        if (clientMd5Map == null) {
+            listenerSessionService.responseResync(response);
+            return;
+        }
         configServletInner.doPollingConfig(request, response, clientMd5Map, probeModify.length());
     }
 
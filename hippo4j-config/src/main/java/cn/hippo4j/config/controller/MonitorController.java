@@ -20,20 +20,31 @@ package cn.hippo4j.config.controller;
 import cn.hippo4j.common.constant.Constants;
 import cn.hippo4j.common.monitor.Message;
 import cn.hippo4j.common.monitor.MessageWrapper;
+import cn.hippo4j.common.toolkit.JSONUtil;
 import cn.hippo4j.common.toolkit.MessageConvert;
 import cn.hippo4j.common.web.base.Result;
 import cn.hippo4j.common.web.base.Results;
+import cn.hippo4j.common.web.exception.ErrorCodeEnum;
+import cn.hippo4j.config.config.ServerBootstrapProperties;
 import cn.hippo4j.config.model.biz.monitor.MonitorActiveRespDTO;
 import cn.hippo4j.config.model.biz.monitor.MonitorQueryReqDTO;
 import cn.hippo4j.config.model.biz.monitor.MonitorRespDTO;
 import cn.hippo4j.config.monitor.QueryMonitorExecuteChoose;
 import cn.hippo4j.config.service.biz.HisRunDataService;
+import com.fasterxml.jackson.core.type.TypeReference;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 /**
  * Monitor controller.
@@ -44,12 +55,16 @@ import java.util.List;
 @RequestMapping(Constants.BASE_PATH + "/monitor")
 public class MonitorController {
 
+    private static final String GZIP = "gzip";
+
     private final HisRunDataService hisRunDataService;
 
     private final QueryMonitorExecuteChoose queryMonitorExecuteChoose;
 
     private final ThreadPoolTaskExecutor monitorThreadPoolTaskExecutor;
 
+    private final ServerBootstrapProperties serverBootstrapProperties;
+
     @GetMapping
     public Result<List<MonitorRespDTO>> queryMonitor(MonitorQueryReqDTO reqDTO) {
         List<MonitorRespDTO> monitorRespList = hisRunDataService.query(reqDTO);
@@ -72,4 +87,48 @@ public class MonitorController {
     public Result<Void> dataCollect(@RequestBody MessageWrapper messageWrapper) {
         return hisRunDataService.dataCollect(messageWrapper);
     }
+
+    @PostMapping("/batch")
+    public Result<Void> dataCollectBatch(@RequestBody byte[] body,
+                                         @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding) {
+        int maxBodySize = serverBootstrapProperties.getMonitorReportMaxBodySize();
+        byte[] jsonBody;
+        try {
+            jsonBody = GZIP.equalsIgnoreCase(contentEncoding) ? unGzip(body, maxBodySize) : body;
+        } catch (IOException ex) {
+            log.warn("Failed to decompress runtime data report.", ex);
+            return Results.failure(ErrorCodeEnum.VALIDATION_ERROR.getCode(), "Invalid gzip body.");
+        }
+        if (jsonBody == null || jsonBody.length > maxBodySize) {
+            return Results.failure(ErrorCodeEnum.VALIDATION_ERROR.getCode(), "Report body exceeds the limit of " + maxBodySize + " bytes.");
+        }
+        List<MessageWrapper> messageWrappers = JSONUtil.parseObject(new String(jsonBody, StandardCharsets.UTF_8), new TypeReference<List<MessageWrapper>>() {
+        });
+        if (messageWrappers != null) {
+            messageWrappers.forEach(hisRunDataService::dataCollect);
+        }
+        return Results.success();
+    }
+
+    /**
+     * Decompress at most the given number of bytes.
+     *
+     * @return decompressed bytes, or null if the body decompresses to more than max size
+     */
+    private static byte[] unGzip(byte[] body, int maxSize) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+            byte[] buffer = new byte[8192];
+            int total = 0;
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                total += read;
+                if (total > maxSize) {
+                    return null;
+                }
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
 }
@@ -19,11 +19,37 @@ package cn.hippo4j.config.mapper;
 
 import cn.hippo4j.config.model.ConfigAllInfo;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import lombok.Data;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
 
 /**
  * Config info mapper.
  */
 @Mapper
 public interface ConfigInfoMapper extends BaseMapper<ConfigAllInfo> {
+
+    /**
+     * Query thread pool count of every item.
+     *
+     * @return
+     */
+    @Select("SELECT item_id, count(*) as thread_pool_count FROM config WHERE del_flag = 0 GROUP BY item_id")
+    List<ItemThreadPoolCount> queryItemThreadPoolCount();
+
+    @Data
+    class ItemThreadPoolCount {
+
+        /**
+         * itemId
+         */
+        private String itemId;
+
+        /**
+         * threadPoolCount
+         */
+        private Integer threadPoolCount;
+    }
 }
@@ -20,9 +20,12 @@ package cn.hippo4j.config.mapper;
 import cn.hippo4j.config.model.HisRunDataInfo;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import lombok.Data;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
 
 import java.util.List;
 
@@ -33,23 +36,63 @@ import java.util.List;
 public interface HisRunDataMapper extends BaseMapper<HisRunDataInfo> {
 
     /**
-     * Query thread pool task sum ranking.
+     * Insert rows with a single multi-row insert statement.
      *
-     * @param startTime
-     * @param endTime
+     * @param hisRunDataInfos
      * @return
      */
-    @Select("SELECT " +
-            "tenant_id, item_id, tp_id, max(completed_task_count) as max_completed_task_count " +
-            "FROM his_run_data " +
-            "where timestamp between #{startTime} and #{endTime} " +
-            "group by tenant_id, item_id, tp_id " +
-            "order by max_completed_task_count desc " +
-            "limit 8")
-    List<ThreadPoolTaskRanking> queryThreadPoolTaskSumRanking(@Param("startTime") Long startTime, @Param("endTime") Long endTime);
+    @Insert("<script>" +
+            "INSERT INTO his_run_data (tenant_id, item_id, tp_id, instance_id, current_load, peak_load, pool_size, active_size, " +
+            "queue_capacity, queue_size, queue_remaining_capacity, completed_task_count, reject_count, keyframe_interval, collect_interval, timestamp, gmt_create, gmt_modified) VALUES " +
+            "<foreach collection='list' item='item' separator=','>" +
+            "(#{item.tenantId}, #{item.itemId}, #{item.tpId}, #{item.instanceId}, #{item.currentLoad}, #{item.peakLoad}, #{item.poolSize}, #{item.activeSize}, " +
+            "#{item.queueCapacity}, #{item.queueSize}, #{item.queueRemainingCapacity}, #{item.completedTaskCount}, #{item.rejectCount}, #{item.keyframeInterval}, #{item.collectInterval}, #{item.timestamp}, "
+            +
+            "#{item.gmtCreate}, #{item.gmtModified})" +
+            "</foreach>" +
+            "</script>")
+    int insertBatch(@Param("list") List<HisRunDataInfo> hisRunDataInfos);
+
+    /**
+     * Delete at most limit rows not after the given time.
+     *
+     * @param beforeTime
+     * @param limit
+     * @return
+     */
+    @Delete("DELETE FROM his_run_data WHERE timestamp <= #{beforeTime} LIMIT #{limit}")
+    int deleteBefore(@Param("beforeTime") Long beforeTime, @Param("limit") Integer limit);
+
+    /**
+     * List range partitions of his_run_data.
+     *
+     * @return
+     */
+    @Select("SELECT partition_name, partition_description " +
+            "FROM information_schema.partitions " +
+            "WHERE table_schema = DATABASE() AND table_name = 'his_run_data' AND partition_name IS NOT NULL")
+    List<TablePartition> listPartitions();
+
+    /**
+     * Split a partition before the catch-all partition.
+     *
+     * @param partitionName
+     * @param lessThan
+     */
+    @Update("ALTER TABLE his_run_data REORGANIZE PARTITION p_max INTO " +
+            "(PARTITION ${partitionName} VALUES LESS THAN (${lessThan}), PARTITION p_max VALUES LESS THAN MAXVALUE)")
+    void addPartition(@Param("partitionName") String partitionName, @Param("lessThan") Long lessThan);
+
+    /**
+     * Drop a partition.
+     *
+     * @param partitionName
+     */
+    @Update("ALTER TABLE his_run_data DROP PARTITION ${partitionName}")
+    void dropPartition(@Param("partitionName") String partitionName);
 
     /**
-     * Query thread pool task sum ranking.
+     * Query max completed task count, queue size and reject count of every thread pool.
      *
      * @param startTime
      * @param endTime
@@ -59,10 +102,22 @@ public interface HisRunDataMapper extends BaseMapper<HisRunDataInfo> {
             "tenant_id, item_id, tp_id, max(queue_size) as max_queue_size, max(reject_count) as max_reject_count,  max(completed_task_count) as max_completed_task_count " +
             "FROM his_run_data " +
             "where timestamp between #{startTime} and #{endTime} " +
-            "group by tenant_id, item_id, tp_id " +
-            "order by max_completed_task_count desc " +
-            "limit 4")
-    List<ThreadPoolTaskRanking> queryThreadPoolMaxRanking(@Param("startTime") Long startTime, @Param("endTime") Long endTime);
+            "group by tenant_id, item_id, tp_id")
+    List<ThreadPoolTaskRanking> queryThreadPoolRanking(@Param("startTime") Long startTime, @Param("endTime") Long endTime);
+
+    @Data
+    class TablePartition {
+
+        /**
+         * Partition name
+         */
+        private String partitionName;
+
+        /**
+         * Partition upper bound, exclusive
+         */
+        private String partitionDescription;
+    }
 
     @Data
     class ThreadPoolTaskRanking {
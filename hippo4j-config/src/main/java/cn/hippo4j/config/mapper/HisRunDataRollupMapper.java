@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.config.mapper;
+
+import cn.hippo4j.config.model.HisRunDataRollupInfo;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * His run data rollup mapper.
+ */
+@Mapper
+public interface HisRunDataRollupMapper extends BaseMapper<HisRunDataRollupInfo> {
+
+    /**
+     * Insert rows with a single multi-row insert statement.
+     *
+     * @param rollupInfos
+     * @return
+     */
+    @Insert("<script>" +
+            "INSERT INTO his_run_data_rollup (tenant_id, item_id, tp_id, instance_id, resolution, statistic, current_load, peak_load, pool_size, active_size, " +
+            "queue_capacity, queue_size, queue_remaining_capacity, completed_task_count, reject_count, timestamp, gmt_create, gmt_modified) VALUES " +
+            "<foreach collection='list' item='item' separator=','>" +
+            "(#{item.tenantId}, #{item.itemId}, #{item.tpId}, #{item.instanceId}, #{item.resolution}, #{item.statistic}, #{item.currentLoad}, #{item.peakLoad}, " +
+            "#{item.poolSize}, #{item.activeSize}, #{item.queueCapacity}, #{item.queueSize}, #{item.queueRemainingCapacity}, #{item.completedTaskCount}, " +
+            "#{item.rejectCount}, #{item.timestamp}, #{item.gmtCreate}, #{item.gmtModified})" +
+            "</foreach>" +
+            "</script>")
+    int insertBatch(@Param("list") List<HisRunDataRollupInfo> rollupInfos);
+
+    /**
+     * Delete at most limit rows of a resolution not after the given time.
+     *
+     * @param resolution
+     * @param beforeTime
+     * @param limit
+     * @return
+     */
+    @Delete("DELETE FROM his_run_data_rollup WHERE resolution = #{resolution} AND timestamp <= #{beforeTime} LIMIT #{limit}")
+    int deleteBefore(@Param("resolution") Long resolution, @Param("beforeTime") Long beforeTime, @Param("limit") Integer limit);
+}
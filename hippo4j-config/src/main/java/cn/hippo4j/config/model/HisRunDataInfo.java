@@ -100,6 +100,16 @@ public class HisRunDataInfo {
      */
     private Long rejectCount;
 
+    /**
+     * 增量上报关键帧间隔（毫秒），全量上报为空
+     */
+    private Long keyframeInterval;
+
+    /**
+     * 增量上报采集间隔（毫秒），全量上报为空
+     */
+    private Long collectInterval;
+
     /**
      * 时间戳
      */
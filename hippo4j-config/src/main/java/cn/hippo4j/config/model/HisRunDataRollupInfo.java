@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.config.model;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+/**
+ * His run data rollup info, one row per thread pool instance, resolution bucket and statistic.
+ */
+@Data
+@TableName("his_run_data_rollup")
+public class HisRunDataRollupInfo extends HisRunDataInfo {
+
+    public static final String STATISTIC_MIN = "min";
+
+    public static final String STATISTIC_MAX = "max";
+
+    public static final String STATISTIC_AVG = "avg";
+
+    public static final String STATISTIC_LAST = "last";
+
+    /**
+     * Bucket length, unit: ms
+     */
+    private Long resolution;
+
+    /**
+     * Statistic of the bucket, min max avg or last
+     */
+    private String statistic;
+}
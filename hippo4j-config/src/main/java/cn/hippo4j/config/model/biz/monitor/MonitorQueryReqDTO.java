@@ -44,4 +44,14 @@ public class MonitorQueryReqDTO {
      * Instance id
      */
     private String instanceId;
+
+    /**
+     * Start time, defaults to the retention of raw runtime data before end time
+     */
+    private Long startTime;
+
+    /**
+     * End time, defaults to now
+     */
+    private Long endTime;
 }
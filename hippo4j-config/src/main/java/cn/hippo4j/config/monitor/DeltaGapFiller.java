@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.config.monitor;
+
+import cn.hippo4j.config.model.HisRunDataInfo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Delta gap filler.
+ *
+ * <p> Clients in delta report mode skip unchanged thread pools, the previous row is carried forward
+ * once per collect interval so that charts, rollups and rankings see a regular series. The keyframe
+ * and collect interval are read from the stored rows, only gaps up to the keyframe interval are
+ * filled, longer gaps mean the client did not report.
+ */
+public final class DeltaGapFiller {
+
+    private DeltaGapFiller() {
+    }
+
+    /**
+     * Fill the gaps of one series.
+     *
+     * @param hisRunDataInfos his run data of one series ordered by timestamp
+     * @return his run data without gaps
+     */
+    public static List<HisRunDataInfo> fill(List<HisRunDataInfo> hisRunDataInfos) {
+        List<HisRunDataInfo> result = null;
+        for (int i = 1; i < hisRunDataInfos.size(); i++) {
+            HisRunDataInfo previous = hisRunDataInfos.get(i - 1);
+            if (result == null && !fillable(previous, hisRunDataInfos.get(i))) {
+                continue;
+            }
+            if (result == null) {
+                result = new ArrayList<>(hisRunDataInfos.subList(0, i));
+            }
+            fillBetween(previous, hisRunDataInfos.get(i), result);
+            result.add(hisRunDataInfos.get(i));
+        }
+        return result == null ? hisRunDataInfos : result;
+    }
+
+    /**
+     * Append the rows carried forward between two consecutive rows of one series.
+     *
+     * @param previous previous row
+     * @param next     next row
+     * @param result   output
+     */
+    public static void fillBetween(HisRunDataInfo previous, HisRunDataInfo next, List<HisRunDataInfo> result) {
+        if (!fillable(previous, next)) {
+            return;
+        }
+        long interval = previous.getCollectInterval();
+        for (long timestamp = previous.getTimestamp() + interval; next.getTimestamp() - timestamp > interval / 2; timestamp += interval) {
+            result.add(copyWithTimestamp(previous, next, timestamp));
+        }
+    }
+
+    private static boolean fillable(HisRunDataInfo previous, HisRunDataInfo next) {
+        Long keyframeInterval = previous.getKeyframeInterval();
+        Long interval = previous.getCollectInterval();
+        if (keyframeInterval == null || interval == null || interval <= 0 || previous.getTimestamp() == null || next.getTimestamp() == null) {
+            return false;
+        }
+        long gap = next.getTimestamp() - previous.getTimestamp();
+        return gap - interval > interval / 2 && gap <= keyframeInterval + interval / 2;
+    }
+
+    /**
+     * Copy the metrics of the previous row, the series identity of the next row since rows read
+     * back from storage may come without it.
+     */
+    private static HisRunDataInfo copyWithTimestamp(HisRunDataInfo previous, HisRunDataInfo next, long timestamp) {
+        HisRunDataInfo target = new HisRunDataInfo();
+        target.setTenantId(next.getTenantId());
+        target.setItemId(next.getItemId());
+        target.setInstanceId(next.getInstanceId());
+        target.setTpId(next.getTpId());
+        target.setCurrentLoad(previous.getCurrentLoad());
+        target.setPeakLoad(previous.getPeakLoad());
+        target.setPoolSize(previous.getPoolSize());
+        target.setActiveSize(previous.getActiveSize());
+        target.setQueueCapacity(previous.getQueueCapacity());
+        target.setQueueSize(previous.getQueueSize());
+        target.setQueueRemainingCapacity(previous.getQueueRemainingCapacity());
+        target.setCompletedTaskCount(previous.getCompletedTaskCount());
+        target.setRejectCount(previous.getRejectCount());
+        target.setKeyframeInterval(previous.getKeyframeInterval());
+        target.setCollectInterval(previous.getCollectInterval());
+        target.setTimestamp(timestamp);
+        return target;
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.config.monitor;
+
+import cn.hippo4j.config.model.HisRunDataInfo;
+import cn.hippo4j.config.model.HisRunDataRollupInfo;
+import cn.hippo4j.config.monitor.storage.HisRunDataColumns;
+import cn.hippo4j.config.monitor.storage.HisRunDataStorage;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static cn.hippo4j.common.constant.Constants.GROUP_KEY_DELIMITER;
+import static cn.hippo4j.config.model.HisRunDataRollupInfo.STATISTIC_AVG;
+import static cn.hippo4j.config.model.HisRunDataRollupInfo.STATISTIC_LAST;
+import static cn.hippo4j.config.model.HisRunDataRollupInfo.STATISTIC_MAX;
+import static cn.hippo4j.config.model.HisRunDataRollupInfo.STATISTIC_MIN;
+
+/**
+ * His run data rollup.
+ *
+ * <p> Keeps one open bucket per thread pool instance and {@link RollupResolution}, updated with every
+ * ingested row. A bucket is written as min, max, avg and last rows once a newer bucket starts or
+ * the bucket end has passed for {@link #CLOSE_DELAY_MILLIS}, samples arriving later are ignored.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HisRunDataRollup {
+
+    private static final long CLOSE_DELAY_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private static final int COLUMN_SIZE = HisRunDataColumns.GETTERS.size();
+
+    @NonNull
+    private final HisRunDataStorage hisRunDataStorage;
+
+    private final Map<String, RollupBucket> buckets = new HashMap<>();
+
+    /**
+     * Add ingested rows to the open buckets.
+     *
+     * @param hisRunDataInfos his run data
+     */
+    public synchronized void accept(List<HisRunDataInfo> hisRunDataInfos) {
+        List<HisRunDataRollupInfo> closed = new ArrayList<>();
+        for (HisRunDataInfo each : hisRunDataInfos) {
+            if (each.getTimestamp() == null) {
+                continue;
+            }
+            for (RollupResolution resolution : RollupResolution.values()) {
+                long bucketStart = each.getTimestamp() - Math.floorMod(each.getTimestamp(), resolution.getMillis());
+                String bucketKey = String.join(GROUP_KEY_DELIMITER, each.getTpId(), each.getItemId(), each.getTenantId(), each.getInstanceId(), resolution.name());
+                RollupBucket bucket = buckets.get(bucketKey);
+                if (bucket != null && bucketStart < bucket.start) {
+                    continue;
+                }
+                if (bucket != null && bucketStart > bucket.start) {
+                    if (!bucket.closed) {
+                        closed.addAll(bucket.toRollupInfos());
+                    }
+                    bucket = null;
+                }
+                if (bucket == null) {
+                    bucket = new RollupBucket(each, resolution.getMillis(), bucketStart);
+                    buckets.put(bucketKey, bucket);
+                }
+                if (!bucket.closed) {
+                    bucket.add(each);
+                }
+            }
+        }
+        write(closed);
+    }
+
+    /**
+     * Close buckets whose end has passed.
+     *
+     * @param currentTime current time
+     */
+    public synchronized void closeExpired(long currentTime) {
+        List<HisRunDataRollupInfo> closed = new ArrayList<>();
+        buckets.values().removeIf(each -> {
+            if (each.start + each.resolution + CLOSE_DELAY_MILLIS > currentTime) {
+                return false;
+            }
+            if (!each.closed) {
+                closed.addAll(each.toRollupInfos());
+            }
+            // Keep closed buckets until the next one starts, so that late samples are ignored.
+            each.closed = true;
+            return each.start + each.resolution * 2 + CLOSE_DELAY_MILLIS <= currentTime;
+        });
+        write(closed);
+    }
+
+    private void write(List<HisRunDataRollupInfo> rollupInfos) {
+        if (rollupInfos.isEmpty()) {
+            return;
+        }
+        try {
+            hisRunDataStorage.writeRollup(rollupInfos);
+        } catch (Exception ex) {
+            log.error("Failed to write thread pool runtime data rollup, rows: {}", rollupInfos.size(), ex);
+        }
+    }
+
+    private static class RollupBucket {
+
+        private final String tenantId;
+
+        private final String itemId;
+
+        private final String tpId;
+
+        private final String instanceId;
+
+        private final long resolution;
+
+        private final long start;
+
+        private final long[] min = new long[COLUMN_SIZE];
+
+        private final long[] max = new long[COLUMN_SIZE];
+
+        private final long[] sum = new long[COLUMN_SIZE];
+
+        private final long[] count = new long[COLUMN_SIZE];
+
+        private final Long[] last = new Long[COLUMN_SIZE];
+
+        private long lastTimestamp = Long.MIN_VALUE;
+
+        private boolean closed;
+
+        RollupBucket(HisRunDataInfo hisRunDataInfo, long resolution, long start) {
+            this.tenantId = hisRunDataInfo.getTenantId();
+            this.itemId = hisRunDataInfo.getItemId();
+            this.tpId = hisRunDataInfo.getTpId();
+            this.instanceId = hisRunDataInfo.getInstanceId();
+            this.resolution = resolution;
+            this.start = start;
+        }
+
+        void add(HisRunDataInfo hisRunDataInfo) {
+            boolean latest = hisRunDataInfo.getTimestamp() >= lastTimestamp;
+            if (latest) {
+                lastTimestamp = hisRunDataInfo.getTimestamp();
+            }
+            for (int i = 0; i < COLUMN_SIZE; i++) {
+                Long value = HisRunDataColumns.GETTERS.get(i).apply(hisRunDataInfo);
+                if (value == null) {
+                    continue;
+                }
+                min[i] = count[i] == 0 ? value : Math.min(min[i], value);
+                max[i] = count[i] == 0 ? value : Math.max(max[i], value);
+                sum[i] += value;
+                count[i]++;
+                if (latest || last[i] == null) {
+                    last[i] = value;
+                }
+            }
+        }
+
+        List<HisRunDataRollupInfo> toRollupInfos() {
+            HisRunDataRollupInfo minInfo = newRollupInfo(STATISTIC_MIN);
+            HisRunDataRollupInfo maxInfo = newRollupInfo(STATISTIC_MAX);
+            HisRunDataRollupInfo avgInfo = newRollupInfo(STATISTIC_AVG);
+            HisRunDataRollupInfo lastInfo = newRollupInfo(STATISTIC_LAST);
+            for (int i = 0; i < COLUMN_SIZE; i++) {
+                if (count[i] == 0) {
+                    continue;
+                }
+                HisRunDataColumns.SETTERS.get(i).accept(minInfo, min[i]);
+                HisRunDataColumns.SETTERS.get(i).accept(maxInfo, max[i]);
+                HisRunDataColumns.SETTERS.get(i).accept(avgInfo, sum[i] / count[i]);
+                HisRunDataColumns.SETTERS.get(i).accept(lastInfo, last[i]);
+            }
+            List<HisRunDataRollupInfo> result = new ArrayList<>(4);
+            result.add(minInfo);
+            result.add(maxInfo);
+            result.add(avgInfo);
+            result.add(lastInfo);
+            return result;
+        }
+
+        private HisRunDataRollupInfo newRollupInfo(String statistic) {
+            HisRunDataRollupInfo rollupInfo = new HisRunDataRollupInfo();
+            rollupInfo.setTenantId(tenantId);
+            rollupInfo.setItemId(itemId);
+            rollupInfo.setTpId(tpId);
+            rollupInfo.setInstanceId(instanceId);
+            rollupInfo.setResolution(resolution);
+            rollupInfo.setStatistic(statistic);
+            rollupInfo.setTimestamp(start);
+            Date now = new Date();
+            rollupInfo.setGmtCreate(now);
+            rollupInfo.setGmtModified(now);
+            return rollupInfo;
+        }
+    }
+}
@@ -0,0 +1,280 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.config.monitor;
+
+import cn.hippo4j.common.executor.ExecutorFactory;
+import cn.hippo4j.config.config.ServerBootstrapProperties;
+import cn.hippo4j.config.model.HisRunDataInfo;
+import cn.hippo4j.config.monitor.storage.HisRunDataStorage;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static cn.hippo4j.common.constant.Constants.DEFAULT_GROUP;
+import static cn.hippo4j.common.constant.Constants.GROUP_KEY_DELIMITER;
+
+/**
+ * His run data writer.
+ *
+ * <p> Runtime data from all instances is appended to a bounded lock-free buffer and written by a
+ * single writer thread in batches, rows beyond the buffer capacity are dropped and counted.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HisRunDataWriter implements Runnable, InitializingBean, DisposableBean {
+
+    private static final long DESTROY_TIMEOUT_SECONDS = 10L;
+
+    @NonNull
+    private final ServerBootstrapProperties properties;
+
+    @NonNull
+    private final HisRunDataStorage hisRunDataStorage;
+
+    @NonNull
+    private final HisRunDataRollup hisRunDataRollup;
+
+    @NonNull
+    private final ThreadPoolRankingAggregator threadPoolRankingAggregator;
+
+    private final Queue<HisRunDataInfo> buffer = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger bufferSize = new AtomicInteger();
+
+    private final LongAdder receivedCount = new LongAdder();
+
+    private final LongAdder writtenCount = new LongAdder();
+
+    private final LongAdder droppedCount = new LongAdder();
+
+    private final LongAdder transactionCount = new LongAdder();
+
+    /**
+     * Counts at the last statistics log, only touched by the writer thread.
+     */
+    private final long[] loggedCounts = new long[4];
+
+    /**
+     * Latest row of every series reported in delta report mode, only touched by the writer thread.
+     */
+    private final Map<String, HisRunDataInfo> lastDeltaRows = new HashMap<>();
+
+    private ScheduledExecutorService writeExecutor;
+
+    /**
+     * Append rows to the write buffer.
+     *
+     * @param hisRunDataInfos his run data
+     * @return whether the rows are accepted
+     */
+    public boolean offer(List<HisRunDataInfo> hisRunDataInfos) {
+        int size = hisRunDataInfos.size();
+        receivedCount.add(size);
+        if (bufferSize.addAndGet(size) > properties.getMonitorWriteBufferCapacity()) {
+            bufferSize.addAndGet(-size);
+            droppedCount.add(size);
+            return false;
+        }
+        buffer.addAll(hisRunDataInfos);
+        return true;
+    }
+
+    @Override
+    public void run() {
+        int batchSize = properties.getMonitorWriteBatchSize();
+        List<HisRunDataInfo> batch = new ArrayList<>(batchSize);
+        HisRunDataInfo each;
+        while ((each = buffer.poll()) != null) {
+            batch.add(each);
+            if (batch.size() >= batchSize) {
+                write(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+        long currentTime = System.currentTimeMillis();
+        lastDeltaRows.values().removeIf(last -> last.getTimestamp() + last.getKeyframeInterval() + last.getCollectInterval() < currentTime);
+        hisRunDataRollup.closeExpired(currentTime);
+    }
+
+    private void write(List<HisRunDataInfo> batch) {
+        bufferSize.addAndGet(-batch.size());
+        Date now = new Date();
+        batch.forEach(each -> {
+            each.setGmtCreate(now);
+            each.setGmtModified(now);
+        });
+        try {
+            hisRunDataStorage.write(batch);
+            writtenCount.add(batch.size());
+            transactionCount.increment();
+        } catch (Exception ex) {
+            droppedCount.add(batch.size());
+            log.error("Failed to write thread pool runtime data, rows: {}", batch.size(), ex);
+            return;
+        }
+        List<HisRunDataInfo> filled = fillDeltaGaps(batch);
+        hisRunDataRollup.accept(filled);
+        threadPoolRankingAggregator.accept(filled);
+    }
+
+    /**
+     * Carry rows of delta report mode forward, so that rollups and rankings see the same series as
+     * the charts. The previous row of a series is loaded from storage after a restart.
+     *
+     * @param batch written rows
+     * @return written rows and the rows carried forward
+     */
+    private List<HisRunDataInfo> fillDeltaGaps(List<HisRunDataInfo> batch) {
+        List<HisRunDataInfo> sorted = new ArrayList<>(batch);
+        sorted.sort(Comparator.comparing(HisRunDataInfo::getTimestamp, Comparator.nullsFirst(Comparator.naturalOrder())));
+        List<HisRunDataInfo> result = new ArrayList<>(sorted.size());
+        for (HisRunDataInfo each : sorted) {
+            if (each.getTimestamp() == null) {
+                result.add(each);
+                continue;
+            }
+            String seriesKey = String.join(GROUP_KEY_DELIMITER, each.getTpId(), each.getItemId(), each.getTenantId(), each.getInstanceId());
+            HisRunDataInfo previous = lastDeltaRows.get(seriesKey);
+            if (previous == null && each.getKeyframeInterval() != null && each.getCollectInterval() != null) {
+                previous = queryPrevious(each);
+            }
+            if (previous != null && previous.getTimestamp() < each.getTimestamp()) {
+                DeltaGapFiller.fillBetween(previous, each, result);
+            }
+            result.add(each);
+            if (each.getKeyframeInterval() == null || each.getCollectInterval() == null) {
+                lastDeltaRows.remove(seriesKey);
+            } else if (previous == null || previous.getTimestamp() < each.getTimestamp()) {
+                lastDeltaRows.put(seriesKey, each);
+            }
+        }
+        return result;
+    }
+
+    private HisRunDataInfo queryPrevious(HisRunDataInfo hisRunDataInfo) {
+        long timestamp = hisRunDataInfo.getTimestamp();
+        try {
+            return hisRunDataStorage.queryLast(hisRunDataInfo.getTenantId(), hisRunDataInfo.getItemId(), hisRunDataInfo.getTpId(), hisRunDataInfo.getInstanceId(),
+                    timestamp - hisRunDataInfo.getKeyframeInterval() - hisRunDataInfo.getCollectInterval(), timestamp - 1);
+        } catch (Exception ex) {
+            log.warn("Failed to load the previous thread pool runtime data, tpId: {}", hisRunDataInfo.getTpId(), ex);
+            return null;
+        }
+    }
+
+    /**
+     * Rows received since startup, including dropped rows.
+     *
+     * @return received count
+     */
+    public long getReceivedCount() {
+        return receivedCount.sum();
+    }
+
+    /**
+     * Rows written to storage since startup.
+     *
+     * @return written count
+     */
+    public long getWrittenCount() {
+        return writtenCount.sum();
+    }
+
+    /**
+     * Rows dropped since startup, either because the buffer was full or the write failed.
+     *
+     * @return dropped count
+     */
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    /**
+     * Storage writes since startup.
+     *
+     * @return transaction count
+     */
+    public long getTransactionCount() {
+        return transactionCount.sum();
+    }
+
+    /**
+     * Rows waiting in the write buffer.
+     *
+     * @return buffered count
+     */
+    public int getBufferedCount() {
+        return bufferSize.get();
+    }
+
+    /**
+     * Log ingest statistics of the last period.
+     */
+    private void logStatistics() {
+        long[] counts = {getReceivedCount(), getWrittenCount(), getDroppedCount(), getTransactionCount()};
+        long received = counts[0] - loggedCounts[0];
+        long written = counts[1] - loggedCounts[1];
+        long dropped = counts[2] - loggedCounts[2];
+        long transactions = counts[3] - loggedCounts[3];
+        System.arraycopy(counts, 0, loggedCounts, 0, counts.length);
+        if (received > 0 || dropped > 0) {
+            log.info("Monitor data ingest per minute. received: {}, written: {}, dropped: {}, transactions: {}, buffered: {}",
+                    received, written, dropped, transactions, bufferSize.get());
+        }
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        writeExecutor = ExecutorFactory.Managed
+                .newSingleScheduledExecutorService(DEFAULT_GROUP, r -> new Thread(r, "his-run-data-writer"));
+        long interval = properties.getMonitorWriteInterval();
+        writeExecutor.scheduleWithFixedDelay(this, interval, interval, TimeUnit.MILLISECONDS);
+        writeExecutor.scheduleWithFixedDelay(this::logStatistics, 1, 1, TimeUnit.MINUTES);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        writeExecutor.shutdown();
+        // Let a running write finish before draining the rest on the caller thread.
+        if (!writeExecutor.awaitTermination(DESTROY_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            log.warn("His run data writer did not stop in {} seconds.", DESTROY_TIMEOUT_SECONDS);
+            return;
+        }
+        run();
+    }
+}
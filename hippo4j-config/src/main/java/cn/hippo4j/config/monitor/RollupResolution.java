@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.config.monitor;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rollup resolution of thread pool runtime data.
+ */
+@Getter
+@AllArgsConstructor
+public enum RollupResolution {
+
+    /**
+     * One minute buckets, kept for one day.
+     */
+    ONE_MINUTE(TimeUnit.MINUTES.toMillis(1), TimeUnit.DAYS.toMillis(1)),
+
+    /**
+     * Ten minutes buckets, kept for seven days.
+     */
+    TEN_MINUTES(TimeUnit.MINUTES.toMillis(10), TimeUnit.DAYS.toMillis(7)),
+
+    /**
+     * One hour buckets, kept for thirty days.
+     */
+    ONE_HOUR(TimeUnit.HOURS.toMillis(1), TimeUnit.DAYS.toMillis(30));
+
+    /**
+     * Maximum number of points returned for one query window.
+     */
+    private static final long MAX_POINTS = 1440L;
+
+    private final long millis;
+
+    private final long retentionMillis;
+
+    /**
+     * Choose the resolution of a query window.
+     *
+     * @param windowMillis       query window length
+     * @param rawRetentionMillis retention of raw runtime data
+     * @return resolution, or null if raw runtime data should be used
+     */
+    public static RollupResolution choose(long windowMillis, long rawRetentionMillis) {
+        if (windowMillis <= rawRetentionMillis) {
+            return null;
+        }
+        for (RollupResolution each : values()) {
+            if (windowMillis / each.millis <= MAX_POINTS) {
+                return each;
+            }
+        }
+        return ONE_HOUR;
+    }
+}
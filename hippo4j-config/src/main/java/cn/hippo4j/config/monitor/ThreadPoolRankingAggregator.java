@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.config.monitor;
+
+import cn.hippo4j.common.executor.ExecutorFactory;
+import cn.hippo4j.common.toolkit.GroupKey;
+import cn.hippo4j.config.mapper.HisRunDataMapper.ThreadPoolTaskRanking;
+import cn.hippo4j.config.model.HisRunDataInfo;
+import cn.hippo4j.config.monitor.storage.HisRunDataStorage;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static cn.hippo4j.common.constant.Constants.DEFAULT_GROUP;
+
+/**
+ * Thread pool ranking aggregator.
+ *
+ * <p> Keeps per-minute max completed task count, queue size and reject count of every thread pool
+ * for the last {@link #BUCKET_COUNT} minutes, updated at ingest, so that dashboard rankings are
+ * read from memory. The buckets are rebuilt from storage on startup, and the latest two minutes
+ * are merged from storage every minute, so that with a shared database every node also ranks the
+ * thread pools reported to other nodes. With local storage the rankings cover this node only.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ThreadPoolRankingAggregator implements InitializingBean, DisposableBean {
+
+    private static final long BUCKET_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    /**
+     * Dashboard rankings cover ten minutes, one more bucket for the current partial minute.
+     */
+    private static final int BUCKET_COUNT = 11;
+
+    @NonNull
+    private final HisRunDataStorage hisRunDataStorage;
+
+    private final Map<String, PoolRanking> poolRankings = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService rebuildExecutor;
+
+    /**
+     * Add ingested rows.
+     *
+     * @param hisRunDataInfos his run data
+     */
+    public void accept(List<HisRunDataInfo> hisRunDataInfos) {
+        for (HisRunDataInfo each : hisRunDataInfos) {
+            if (each.getTimestamp() == null) {
+                continue;
+            }
+            getPoolRanking(each.getTenantId(), each.getItemId(), each.getTpId())
+                    .update(each.getTimestamp() / BUCKET_MILLIS, each.getCompletedTaskCount(), each.getQueueSize(), each.getRejectCount());
+        }
+    }
+
+    /**
+     * Thread pools with the most completed tasks in the window.
+     *
+     * @param startTime start time
+     * @param endTime   end time
+     * @param limit     max size
+     * @return ranking
+     */
+    public List<ThreadPoolTaskRanking> topByCompletedTaskCount(long startTime, long endTime, int limit) {
+        long startMinute = startTime / BUCKET_MILLIS;
+        long endMinute = endTime / BUCKET_MILLIS;
+        List<ThreadPoolTaskRanking> rankings = new ArrayList<>();
+        poolRankings.values().removeIf(each -> each.expired(endMinute));
+        for (PoolRanking each : poolRankings.values()) {
+            ThreadPoolTaskRanking ranking = each.aggregate(startMinute, endMinute);
+            if (ranking != null) {
+                rankings.add(ranking);
+            }
+        }
+        return rankings.stream()
+                .sorted(Comparator.comparing(ThreadPoolTaskRanking::getMaxCompletedTaskCount, Comparator.nullsLast(Comparator.reverseOrder())))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        rebuild(BUCKET_COUNT);
+        rebuildExecutor = ExecutorFactory.Managed
+                .newSingleScheduledExecutorService(DEFAULT_GROUP, r -> new Thread(r, "thread-pool-ranking-rebuild"));
+        rebuildExecutor.scheduleWithFixedDelay(() -> rebuild(2), 1, 1, TimeUnit.MINUTES);
+    }
+
+    @Override
+    public void destroy() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    /**
+     * Merge the latest minutes from storage, buckets keep the max so merging twice is harmless.
+     *
+     * @param minuteCount minutes to merge, including the current one
+     */
+    void rebuild(int minuteCount) {
+        long currentMinute = System.currentTimeMillis() / BUCKET_MILLIS;
+        try {
+            for (long minute = currentMinute - minuteCount + 1; minute <= currentMinute; minute++) {
+                long startTime = minute * BUCKET_MILLIS;
+                for (ThreadPoolTaskRanking each : hisRunDataStorage.queryThreadPoolRanking(startTime, startTime + BUCKET_MILLIS - 1)) {
+                    getPoolRanking(each.getTenantId(), each.getItemId(), each.getTpId())
+                            .update(minute, each.getMaxCompletedTaskCount(), each.getMaxQueueSize(), each.getMaxRejectCount());
+                }
+            }
+        } catch (Exception ex) {
+            log.error("Failed to rebuild thread pool rankings from history data.", ex);
+        }
+    }
+
+    private PoolRanking getPoolRanking(String tenantId, String itemId, String tpId) {
+        return poolRankings.computeIfAbsent(GroupKey.getKeyTenant(tpId, itemId, tenantId), key -> new PoolRanking(tenantId, itemId, tpId));
+    }
+
+    @RequiredArgsConstructor
+    private static class PoolRanking {
+
+        private static final long ABSENT = Long.MIN_VALUE;
+
+        private final String tenantId;
+
+        private final String itemId;
+
+        private final String tpId;
+
+        private final long[] minutes = new long[BUCKET_COUNT];
+
+        private final long[] completedTaskCounts = new long[BUCKET_COUNT];
+
+        private final long[] queueSizes = new long[BUCKET_COUNT];
+
+        private final long[] rejectCounts = new long[BUCKET_COUNT];
+
+        private long lastMinute = ABSENT;
+
+        synchronized void update(long minute, Long completedTaskCount, Long queueSize, Long rejectCount) {
+            int index = (int) Math.floorMod(minute, (long) BUCKET_COUNT);
+            if (minutes[index] != minute || lastMinute == ABSENT) {
+                if (lastMinute != ABSENT && minutes[index] > minute) {
+                    return;
+                }
+                minutes[index] = minute;
+                completedTaskCounts[index] = ABSENT;
+                queueSizes[index] = ABSENT;
+                rejectCounts[index] = ABSENT;
+            }
+            completedTaskCounts[index] = max(completedTaskCounts[index], completedTaskCount);
+            queueSizes[index] = max(queueSizes[index], queueSize);
+            rejectCounts[index] = max(rejectCounts[index], rejectCount);
+            lastMinute = Math.max(lastMinute, minute);
+        }
+
+        synchronized boolean expired(long currentMinute) {
+            return lastMinute <= currentMinute - BUCKET_COUNT;
+        }
+
+        synchronized ThreadPoolTaskRanking aggregate(long startMinute, long endMinute) {
+            long completedTaskCount = ABSENT;
+            long queueSize = ABSENT;
+            long rejectCount = ABSENT;
+            boolean found = false;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                if (lastMinute == ABSENT || minutes[i] < startMinute || minutes[i] > endMinute) {
+                    continue;
+                }
+                found = true;
+                completedTaskCount = Math.max(completedTaskCount, completedTaskCounts[i]);
+                queueSize = Math.max(queueSize, queueSizes[i]);
+                rejectCount = Math.max(rejectCount, rejectCounts[i]);
+            }
+            if (!found) {
+                return null;
+            }
+            ThreadPoolTaskRanking ranking = new ThreadPoolTaskRanking();
+            ranking.setTenantId(tenantId);
+            ranking.setItemId(itemId);
+            ranking.setTpId(tpId);
+            ranking.setMaxCompletedTaskCount(completedTaskCount == ABSENT ? null : completedTaskCount);
+            ranking.setMaxQueueSize(queueSize == ABSENT ? null : queueSize);
+            ranking.setMaxRejectCount(rejectCount == ABSENT ? null : rejectCount);
+            return ranking;
+        }
+
+        private static long max(long current, Long value) {
+            return value == null ? current : Math.max(current, value);
+        }
+    }
+}
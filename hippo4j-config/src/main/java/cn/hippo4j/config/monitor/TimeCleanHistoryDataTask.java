@@ -19,12 +19,9 @@ package cn.hippo4j.config.monitor;
 
 import cn.hippo4j.common.executor.ExecutorFactory;
 import cn.hippo4j.config.config.ServerBootstrapProperties;
-import cn.hippo4j.config.model.HisRunDataInfo;
-import cn.hippo4j.config.service.biz.HisRunDataService;
+import cn.hippo4j.config.monitor.storage.HisRunDataStorage;
 import cn.hutool.core.date.DateTime;
 import cn.hutool.core.date.DateUtil;
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
-import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.InitializingBean;
@@ -47,7 +44,7 @@ public class TimeCleanHistoryDataTask implements Runnable, InitializingBean {
     private final ServerBootstrapProperties properties;
 
     @NonNull
-    private final HisRunDataService hisRunDataService;
+    private final HisRunDataStorage hisRunDataStorage;
 
     private ScheduledExecutorService cleanHistoryDataExecutor;
 
@@ -55,9 +52,10 @@ public class TimeCleanHistoryDataTask implements Runnable, InitializingBean {
     public void run() {
         Date currentDate = new Date();
         DateTime offsetMinuteDateTime = DateUtil.offsetMinute(currentDate, -properties.getCleanHistoryDataPeriod());
-        LambdaQueryWrapper<HisRunDataInfo> queryWrapper = Wrappers.lambdaQuery(HisRunDataInfo.class)
-                .le(HisRunDataInfo::getTimestamp, offsetMinuteDateTime.getTime());
-        hisRunDataService.remove(queryWrapper);
+        hisRunDataStorage.clean(offsetMinuteDateTime.getTime());
+        for (RollupResolution each : RollupResolution.values()) {
+            hisRunDataStorage.cleanRollup(each.getMillis(), currentDate.getTime() - each.getRetentionMillis());
+        }
     }
 
     @Override
@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.config.monitor.storage;
+
+import cn.hippo4j.config.config.ServerBootstrapProperties;
+import cn.hippo4j.config.mapper.HisRunDataMapper;
+import cn.hippo4j.config.mapper.HisRunDataMapper.TablePartition;
+import cn.hippo4j.config.mapper.HisRunDataMapper.ThreadPoolTaskRanking;
+import cn.hippo4j.config.mapper.HisRunDataRollupMapper;
+import cn.hippo4j.config.model.HisRunDataInfo;
+import cn.hippo4j.config.model.HisRunDataRollupInfo;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Database his run data storage, rows are kept in the his_run_data table.
+ *
+ * <p> Expired rows are deleted in bounded chunks with a pause in between, or, in partition mode,
+ * removed by dropping hourly range partitions which the storage creates ahead of time.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class DatabaseHisRunDataStorage implements HisRunDataStorage {
+
+    private static final String PARTITION_MODE = "partition";
+
+    private static final String MAX_PARTITION = "p_max";
+
+    private static final String PARTITION_PREFIX = "p";
+
+    private static final long PARTITION_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private static final int PARTITIONS_AHEAD = 2;
+
+    private final ServerBootstrapProperties properties;
+
+    private final HisRunDataMapper hisRunDataMapper;
+
+    private final HisRunDataRollupMapper hisRunDataRollupMapper;
+
+    private boolean partitionWarned;
+
+    @Override
+    public void write(List<HisRunDataInfo> hisRunDataInfos) {
+        hisRunDataMapper.insertBatch(hisRunDataInfos);
+    }
+
+    @Override
+    public List<HisRunDataInfo> query(String tenantId, String itemId, String tpId, String instanceId, long startTime, long endTime) {
+        LambdaQueryWrapper<HisRunDataInfo> queryWrapper = buildQueryWrapper(tenantId, itemId, tpId, instanceId, startTime, endTime)
+                .orderByAsc(HisRunDataInfo::getTimestamp);
+        return hisRunDataMapper.selectList(queryWrapper);
+    }
+
+    @Override
+    public HisRunDataInfo queryLast(String tenantId, String itemId, String tpId, String instanceId, long startTime, long endTime) {
+        LambdaQueryWrapper<HisRunDataInfo> queryWrapper = buildQueryWrapper(tenantId, itemId, tpId, instanceId, startTime, endTime)
+                .orderByDesc(HisRunDataInfo::getTimestamp)
+                .last("LIMIT 1");
+        return hisRunDataMapper.selectOne(queryWrapper);
+    }
+
+    @Override
+    public List<ThreadPoolTaskRanking> queryThreadPoolRanking(long startTime, long endTime) {
+        return hisRunDataMapper.queryThreadPoolRanking(startTime, endTime);
+    }
+
+    @Override
+    public void clean(long beforeTime) {
+        if (PARTITION_MODE.equals(properties.getCleanHistoryDataMode()) && rotatePartitions(beforeTime)) {
+            return;
+        }
+        deleteInChunks(limit -> hisRunDataMapper.deleteBefore(beforeTime, limit));
+    }
+
+    /**
+     * Drop expired partitions and create the partitions of the next hours.
+     *
+     * @param beforeTime expire time
+     * @return false if his_run_data is not range partitioned by timestamp
+     */
+    private boolean rotatePartitions(long beforeTime) {
+        List<TablePartition> partitions = hisRunDataMapper.listPartitions();
+        if (partitions.stream().noneMatch(each -> MAX_PARTITION.equals(each.getPartitionName()))) {
+            if (!partitionWarned) {
+                partitionWarned = true;
+                log.warn("Table his_run_data has no {} partition, fall back to deleting expired history data in chunks.", MAX_PARTITION);
+            }
+            return false;
+        }
+        long maxBound = Long.MIN_VALUE;
+        for (TablePartition each : partitions) {
+            if (MAX_PARTITION.equals(each.getPartitionName())) {
+                continue;
+            }
+            long bound = Long.parseLong(each.getPartitionDescription());
+            maxBound = Math.max(maxBound, bound);
+            // Rows of a partition are all before its bound, drop it once the bound has expired.
+            if (bound <= beforeTime + 1) {
+                hisRunDataMapper.dropPartition(each.getPartitionName());
+            }
+        }
+        long currentTime = System.currentTimeMillis();
+        long nextBound = maxBound == Long.MIN_VALUE ? currentTime - currentTime % PARTITION_MILLIS + PARTITION_MILLIS : maxBound + PARTITION_MILLIS;
+        while (nextBound <= currentTime + PARTITIONS_AHEAD * PARTITION_MILLIS) {
+            hisRunDataMapper.addPartition(PARTITION_PREFIX + nextBound, nextBound);
+            nextBound += PARTITION_MILLIS;
+        }
+        return true;
+    }
+
+    /**
+     * Delete in bounded chunks, pausing between chunks so that inserts and queries are not blocked.
+     *
+     * @param chunkDelete delete at most the given number of rows, returns the deleted count
+     */
+    @SneakyThrows
+    private void deleteInChunks(Function<Integer, Integer> chunkDelete) {
+        int batchSize = properties.getCleanHistoryDataBatchSize();
+        int deleted;
+        do {
+            deleted = chunkDelete.apply(batchSize);
+            if (deleted >= batchSize) {
+                Thread.sleep(properties.getCleanHistoryDataBatchInterval());
+            }
+        } while (deleted >= batchSize);
+    }
+
+    @Override
+    public void writeRollup(List<HisRunDataRollupInfo> rollupInfos) {
+        hisRunDataRollupMapper.insertBatch(rollupInfos);
+    }
+
+    @Override
+    public List<HisRunDataRollupInfo> queryRollup(String tenantId, String itemId, String tpId, String instanceId,
+                                                  long resolution, String statistic, long startTime, long endTime) {
+        LambdaQueryWrapper<HisRunDataRollupInfo> queryWrapper = Wrappers.lambdaQuery(HisRunDataRollupInfo.class)
+                .eq(HisRunDataRollupInfo::getTenantId, tenantId)
+                .eq(HisRunDataRollupInfo::getItemId, itemId)
+                .eq(HisRunDataRollupInfo::getTpId, tpId)
+                .eq(HisRunDataRollupInfo::getInstanceId, instanceId)
+                .eq(HisRunDataRollupInfo::getResolution, resolution)
+                .eq(HisRunDataRollupInfo::getStatistic, statistic)
+                .between(HisRunDataRollupInfo::getTimestamp, startTime, endTime)
+                .orderByAsc(HisRunDataRollupInfo::getTimestamp);
+        return hisRunDataRollupMapper.selectList(queryWrapper);
+    }
+
+    @Override
+    public void cleanRollup(long resolution, long beforeTime) {
+        deleteInChunks(limit -> hisRunDataRollupMapper.deleteBefore(resolution, beforeTime, limit));
+    }
+
+    private LambdaQueryWrapper<HisRunDataInfo> buildQueryWrapper(String tenantId, String itemId, String tpId, String instanceId, long startTime, long endTime) {
+        return Wrappers.lambdaQuery(HisRunDataInfo.class)
+                .eq(HisRunDataInfo::getTenantId, tenantId)
+                .eq(HisRunDataInfo::getItemId, itemId)
+                .eq(HisRunDataInfo::getTpId, tpId)
+                .eq(HisRunDataInfo::getInstanceId, instanceId)
+                .between(HisRunDataInfo::getTimestamp, startTime, endTime);
+    }
+}
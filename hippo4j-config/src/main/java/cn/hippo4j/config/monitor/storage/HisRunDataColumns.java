@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.config.monitor.storage;
+
+import cn.hippo4j.config.model.HisRunDataInfo;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Metric columns of his run data, getters and setters are in the same order.
+ */
+public final class HisRunDataColumns {
+
+    public static final List<Function<HisRunDataInfo, Long>> GETTERS = Arrays.asList(
+            HisRunDataInfo::getCurrentLoad,
+            HisRunDataInfo::getPeakLoad,
+            HisRunDataInfo::getPoolSize,
+            HisRunDataInfo::getActiveSize,
+            HisRunDataInfo::getQueueCapacity,
+            HisRunDataInfo::getQueueSize,
+            HisRunDataInfo::getQueueRemainingCapacity,
+            HisRunDataInfo::getCompletedTaskCount,
+            HisRunDataInfo::getRejectCount);
+
+    public static final List<BiConsumer<HisRunDataInfo, Long>> SETTERS = Arrays.asList(
+            HisRunDataInfo::setCurrentLoad,
+            HisRunDataInfo::setPeakLoad,
+            HisRunDataInfo::setPoolSize,
+            HisRunDataInfo::setActiveSize,
+            HisRunDataInfo::setQueueCapacity,
+            HisRunDataInfo::setQueueSize,
+            HisRunDataInfo::setQueueRemainingCapacity,
+            HisRunDataInfo::setCompletedTaskCount,
+            HisRunDataInfo::setRejectCount);
+
+    /**
+     * Delta report intervals stored along with the metrics, so gaps can be filled from the data itself.
+     */
+    public static final List<Function<HisRunDataInfo, Long>> INTERVAL_GETTERS = Arrays.asList(
+            HisRunDataInfo::getKeyframeInterval,
+            HisRunDataInfo::getCollectInterval);
+
+    public static final List<BiConsumer<HisRunDataInfo, Long>> INTERVAL_SETTERS = Arrays.asList(
+            HisRunDataInfo::setKeyframeInterval,
+            HisRunDataInfo::setCollectInterval);
+
+    private HisRunDataColumns() {
+    }
+}
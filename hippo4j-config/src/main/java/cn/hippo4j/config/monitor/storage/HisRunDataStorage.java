@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.config.monitor.storage;
+
+import cn.hippo4j.config.mapper.HisRunDataMapper.ThreadPoolTaskRanking;
+import cn.hippo4j.config.model.HisRunDataInfo;
+import cn.hippo4j.config.model.HisRunDataRollupInfo;
+
+import java.util.List;
+
+/**
+ * Storage of thread pool runtime data.
+ */
+public interface HisRunDataStorage {
+
+    /**
+     * Write rows.
+     *
+     * @param hisRunDataInfos his run data
+     */
+    void write(List<HisRunDataInfo> hisRunDataInfos);
+
+    /**
+     * Query rows of one thread pool instance, ordered by timestamp.
+     *
+     * @param tenantId   tenant id
+     * @param itemId     item id
+     * @param tpId       thread pool id
+     * @param instanceId instance id
+     * @param startTime  start time, inclusive
+     * @param endTime    end time, inclusive
+     * @return his run data
+     */
+    List<HisRunDataInfo> query(String tenantId, String itemId, String tpId, String instanceId, long startTime, long endTime);
+
+    /**
+     * Query the latest row of one thread pool instance.
+     *
+     * @param tenantId   tenant id
+     * @param itemId     item id
+     * @param tpId       thread pool id
+     * @param instanceId instance id
+     * @param startTime  start time, inclusive
+     * @param endTime    end time, inclusive
+     * @return latest his run data, or null
+     */
+    HisRunDataInfo queryLast(String tenantId, String itemId, String tpId, String instanceId, long startTime, long endTime);
+
+    /**
+     * Query max completed task count, queue size and reject count of every thread pool.
+     *
+     * @param startTime start time
+     * @param endTime   end time
+     * @return ranking of every thread pool, unordered
+     */
+    List<ThreadPoolTaskRanking> queryThreadPoolRanking(long startTime, long endTime);
+
+    /**
+     * Remove rows with timestamp not after the given time.
+     *
+     * @param beforeTime expire time
+     */
+    void clean(long beforeTime);
+
+    /**
+     * Write rollup rows.
+     *
+     * @param rollupInfos rollup rows
+     */
+    void writeRollup(List<HisRunDataRollupInfo> rollupInfos);
+
+    /**
+     * Query rollup rows of one thread pool instance, ordered by timestamp.
+     *
+     * @param tenantId   tenant id
+     * @param itemId     item id
+     * @param tpId       thread pool id
+     * @param instanceId instance id
+     * @param resolution bucket length
+     * @param statistic  statistic
+     * @param startTime  start time, inclusive
+     * @param endTime    end time, inclusive
+     * @return rollup rows
+     */
+    List<HisRunDataRollupInfo> queryRollup(String tenantId, String itemId, String tpId, String instanceId,
+                                           long resolution, String statistic, long startTime, long endTime);
+
+    /**
+     * Remove rollup rows of a resolution with timestamp not after the given time.
+     *
+     * @param resolution bucket length
+     * @param beforeTime expire time
+     */
+    void cleanRollup(long resolution, long beforeTime);
+}
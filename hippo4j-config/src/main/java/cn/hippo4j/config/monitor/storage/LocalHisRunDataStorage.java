@@ -0,0 +1,523 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.config.monitor.storage;
+
+import cn.hippo4j.common.toolkit.GroupKey;
+import cn.hippo4j.config.mapper.HisRunDataMapper.ThreadPoolTaskRanking;
+import cn.hippo4j.config.model.HisRunDataInfo;
+import cn.hippo4j.config.model.HisRunDataRollupInfo;
+import cn.hippo4j.config.toolkit.BeanUtil;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+import static cn.hippo4j.common.constant.Constants.GROUP_KEY_DELIMITER;
+import static cn.hippo4j.config.model.HisRunDataRollupInfo.STATISTIC_AVG;
+import static cn.hippo4j.config.model.HisRunDataRollupInfo.STATISTIC_LAST;
+import static cn.hippo4j.config.model.HisRunDataRollupInfo.STATISTIC_MAX;
+import static cn.hippo4j.config.model.HisRunDataRollupInfo.STATISTIC_MIN;
+
+/**
+ * Local his run data storage.
+ *
+ * <p> Samples are grouped into time segments, one file per segment. Each
+ * series keeps an in-memory head block per segment which is encoded by {@link TimeSeriesBlockCodec}
+ * and appended to the segment file when it is full or the series has moved two segments ahead, so
+ * samples arriving up to one segment late still join their head instead of sealing tiny blocks.
+ * Segment files are memory-mapped for reading and expired by deleting the whole file.
+ *
+ * <p> Head blocks are only kept in memory and sealed on graceful shutdown. After a crash each
+ * series loses its heads, at most {@value #BLOCK_SIZE} samples of the current and the previous segment.
+ *
+ * <p> Ingest holds the write lock only while appending samples or sealing blocks, queries take
+ * the read lock to collect block references and a copy of the head, then decode without a lock.
+ */
+@Slf4j
+public class LocalHisRunDataStorage implements HisRunDataStorage, DisposableBean {
+
+    private static final long DEFAULT_SEGMENT_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private static final String ROLLUP_DIRECTORY = "rollup";
+
+    private static final int BLOCK_SIZE = 120;
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    /**
+     * Record header: record length, key length, min timestamp, max timestamp.
+     */
+    private static final int RECORD_HEADER_LENGTH = 4 + 2 + 8 + 8;
+
+    private static final List<String> ROLLUP_STATISTICS = Arrays.asList(STATISTIC_MIN, STATISTIC_MAX, STATISTIC_AVG, STATISTIC_LAST);
+
+    private final File directory;
+
+    private final long segmentMillis;
+
+    /**
+     * Rollup storages by resolution and statistic, each in its own directory.
+     */
+    private final Map<String, LocalHisRunDataStorage> rollupStorages = new ConcurrentHashMap<>();
+
+    private final NavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+
+    /**
+     * Open head blocks of every series by segment start.
+     */
+    private final Map<String, NavigableMap<Long, List<HisRunDataInfo>>> heads = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public LocalHisRunDataStorage(String path) {
+        this(path, DEFAULT_SEGMENT_MILLIS);
+    }
+
+    public LocalHisRunDataStorage(String path, long segmentMillis) {
+        this.directory = new File(path);
+        this.segmentMillis = segmentMillis;
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IllegalStateException("Failed to create monitor storage directory: " + path);
+        }
+        load();
+    }
+
+    @Override
+    public void write(List<HisRunDataInfo> hisRunDataInfos) {
+        lock.writeLock().lock();
+        try {
+            Set<String> writtenSeriesKeys = new HashSet<>();
+            for (HisRunDataInfo each : hisRunDataInfos) {
+                if (each.getTimestamp() == null) {
+                    continue;
+                }
+                String seriesKey = seriesKey(each.getTenantId(), each.getItemId(), each.getTpId(), each.getInstanceId());
+                long segmentStart = segmentStart(each.getTimestamp());
+                NavigableMap<Long, List<HisRunDataInfo>> seriesHeads = heads.computeIfAbsent(seriesKey, key -> new TreeMap<>());
+                List<HisRunDataInfo> head = seriesHeads.get(segmentStart);
+                if (head != null && head.size() >= BLOCK_SIZE) {
+                    seal(seriesKey, segmentStart, head);
+                    head = null;
+                }
+                if (head == null) {
+                    head = new ArrayList<>();
+                    seriesHeads.put(segmentStart, head);
+                }
+                head.add(each);
+                writtenSeriesKeys.add(seriesKey);
+            }
+            // Late samples of a batch are buffered in their own head and sealed together afterwards.
+            for (String seriesKey : writtenSeriesKeys) {
+                NavigableMap<Long, List<HisRunDataInfo>> seriesHeads = heads.get(seriesKey);
+                NavigableMap<Long, List<HisRunDataInfo>> sealable = seriesHeads.headMap(seriesHeads.lastKey() - segmentMillis, false);
+                sealable.forEach((segmentStart, head) -> seal(seriesKey, segmentStart, head));
+                sealable.clear();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<HisRunDataInfo> query(String tenantId, String itemId, String tpId, String instanceId, long startTime, long endTime) {
+        String seriesKey = seriesKey(tenantId, itemId, tpId, instanceId);
+        Map<Segment, List<BlockRef>> blockRefs = new HashMap<>();
+        List<HisRunDataInfo> headSamples = null;
+        lock.readLock().lock();
+        try {
+            for (Segment segment : segments.subMap(segmentStart(startTime), true, segmentStart(endTime), true).values()) {
+                List<BlockRef> segmentBlockRefs = segment.index.get(seriesKey);
+                if (segmentBlockRefs == null) {
+                    continue;
+                }
+                for (BlockRef blockRef : segmentBlockRefs) {
+                    if (blockRef.maxTimestamp >= startTime && blockRef.minTimestamp <= endTime) {
+                        blockRefs.computeIfAbsent(segment, key -> new ArrayList<>()).add(blockRef);
+                    }
+                }
+            }
+            NavigableMap<Long, List<HisRunDataInfo>> seriesHeads = heads.get(seriesKey);
+            if (seriesHeads != null) {
+                headSamples = new ArrayList<>();
+                for (List<HisRunDataInfo> head : seriesHeads.subMap(segmentStart(startTime), true, segmentStart(endTime), true).values()) {
+                    headSamples.addAll(head);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<HisRunDataInfo> result = new ArrayList<>();
+        blockRefs.forEach((segment, segmentBlockRefs) -> {
+            for (BlockRef blockRef : segmentBlockRefs) {
+                ByteBuffer block = segment.read(blockRef);
+                if (block != null) {
+                    collect(TimeSeriesBlockCodec.decode(block), startTime, endTime, result);
+                }
+            }
+        });
+        if (headSamples != null) {
+            collect(headSamples, startTime, endTime, result);
+        }
+        result.sort(Comparator.comparing(HisRunDataInfo::getTimestamp));
+        String[] dimensions = {tpId, itemId, tenantId, instanceId};
+        result.forEach(each -> fillDimensions(each, dimensions));
+        return result;
+    }
+
+    @Override
+    public HisRunDataInfo queryLast(String tenantId, String itemId, String tpId, String instanceId, long startTime, long endTime) {
+        List<HisRunDataInfo> result = query(tenantId, itemId, tpId, instanceId, startTime, endTime);
+        return result.isEmpty() ? null : result.get(result.size() - 1);
+    }
+
+    @Override
+    public void clean(long beforeTime) {
+        lock.writeLock().lock();
+        try {
+            Iterator<Map.Entry<Long, Segment>> iterator = segments.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Segment segment = iterator.next().getValue();
+                if (segment.start + segmentMillis > beforeTime) {
+                    break;
+                }
+                segment.delete();
+                iterator.remove();
+            }
+            heads.values().removeIf(seriesHeads -> {
+                seriesHeads.headMap(beforeTime - segmentMillis, true).clear();
+                return seriesHeads.isEmpty();
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void writeRollup(List<HisRunDataRollupInfo> rollupInfos) {
+        rollupInfos.stream()
+                .collect(Collectors.groupingBy(each -> rollupStorageKey(each.getResolution(), each.getStatistic())))
+                .forEach((key, value) -> getRollupStorage(value.get(0).getResolution(), value.get(0).getStatistic()).write(new ArrayList<>(value)));
+    }
+
+    @Override
+    public List<HisRunDataRollupInfo> queryRollup(String tenantId, String itemId, String tpId, String instanceId,
+                                                  long resolution, String statistic, long startTime, long endTime) {
+        List<HisRunDataInfo> samples = getRollupStorage(resolution, statistic).query(tenantId, itemId, tpId, instanceId, startTime, endTime);
+        List<HisRunDataRollupInfo> result = new ArrayList<>(samples.size());
+        for (HisRunDataInfo each : samples) {
+            HisRunDataRollupInfo rollupInfo = BeanUtil.convert(each, HisRunDataRollupInfo.class);
+            rollupInfo.setResolution(resolution);
+            rollupInfo.setStatistic(statistic);
+            result.add(rollupInfo);
+        }
+        return result;
+    }
+
+    @Override
+    public void cleanRollup(long resolution, long beforeTime) {
+        for (String statistic : ROLLUP_STATISTICS) {
+            getRollupStorage(resolution, statistic).clean(beforeTime);
+        }
+    }
+
+    private LocalHisRunDataStorage getRollupStorage(long resolution, String statistic) {
+        return rollupStorages.computeIfAbsent(rollupStorageKey(resolution, statistic),
+                key -> new LocalHisRunDataStorage(new File(new File(directory, ROLLUP_DIRECTORY), key).getPath(), resolution * BLOCK_SIZE));
+    }
+
+    private static String rollupStorageKey(long resolution, String statistic) {
+        return resolution + File.separator + statistic;
+    }
+
+    @Override
+    public void destroy() {
+        lock.writeLock().lock();
+        try {
+            heads.forEach((seriesKey, seriesHeads) -> seriesHeads.forEach((segmentStart, head) -> seal(seriesKey, segmentStart, head)));
+            heads.clear();
+            segments.values().forEach(Segment::close);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        rollupStorages.values().forEach(LocalHisRunDataStorage::destroy);
+    }
+
+    @Override
+    public List<ThreadPoolTaskRanking> queryThreadPoolRanking(long startTime, long endTime) {
+        Set<String> seriesKeys;
+        lock.readLock().lock();
+        try {
+            seriesKeys = new HashSet<>(heads.keySet());
+            segments.subMap(segmentStart(startTime), true, segmentStart(endTime), true).values()
+                    .forEach(each -> seriesKeys.addAll(each.index.keySet()));
+        } finally {
+            lock.readLock().unlock();
+        }
+        Map<String, ThreadPoolTaskRanking> rankingMap = new HashMap<>();
+        for (String seriesKey : seriesKeys) {
+            String[] dimensions = parseSeriesKey(seriesKey);
+            List<HisRunDataInfo> samples = query(dimensions[2], dimensions[1], dimensions[0], dimensions[3], startTime, endTime);
+            if (samples.isEmpty()) {
+                continue;
+            }
+            ThreadPoolTaskRanking ranking = rankingMap.computeIfAbsent(GroupKey.getKeyTenant(dimensions[0], dimensions[1], dimensions[2]), key -> {
+                ThreadPoolTaskRanking value = new ThreadPoolTaskRanking();
+                value.setTpId(dimensions[0]);
+                value.setItemId(dimensions[1]);
+                value.setTenantId(dimensions[2]);
+                return value;
+            });
+            for (HisRunDataInfo each : samples) {
+                ranking.setMaxCompletedTaskCount(max(ranking.getMaxCompletedTaskCount(), each.getCompletedTaskCount()));
+                ranking.setMaxQueueSize(max(ranking.getMaxQueueSize(), each.getQueueSize()));
+                ranking.setMaxRejectCount(max(ranking.getMaxRejectCount(), each.getRejectCount()));
+            }
+        }
+        return new ArrayList<>(rankingMap.values());
+    }
+
+    private static Long max(Long one, Long two) {
+        if (one == null) {
+            return two;
+        }
+        return two == null ? one : Math.max(one, two);
+    }
+
+    private void collect(List<HisRunDataInfo> samples, long startTime, long endTime, List<HisRunDataInfo> result) {
+        for (HisRunDataInfo each : samples) {
+            if (each.getTimestamp() >= startTime && each.getTimestamp() <= endTime) {
+                result.add(each);
+            }
+        }
+    }
+
+    private void seal(String seriesKey, long segmentStart, List<HisRunDataInfo> head) {
+        if (head.isEmpty()) {
+            return;
+        }
+        head.sort(Comparator.comparing(HisRunDataInfo::getTimestamp));
+        long minTimestamp = head.get(0).getTimestamp();
+        long maxTimestamp = head.get(head.size() - 1).getTimestamp();
+        try {
+            Segment segment = segments.get(segmentStart);
+            if (segment == null) {
+                segment = Segment.open(new File(directory, segmentStart + SEGMENT_SUFFIX), segmentStart);
+                segments.put(segmentStart, segment);
+            }
+            segment.append(seriesKey, TimeSeriesBlockCodec.encode(head), minTimestamp, maxTimestamp);
+        } catch (IOException ex) {
+            log.error("Failed to write monitor storage block, series: {}, samples: {}", seriesKey, head.size(), ex);
+        }
+    }
+
+    private void load() {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(SEGMENT_SUFFIX));
+        if (files == null) {
+            return;
+        }
+        for (File each : files) {
+            try {
+                long start = Long.parseLong(each.getName().substring(0, each.getName().length() - SEGMENT_SUFFIX.length()));
+                segments.put(start, Segment.open(each, start));
+            } catch (Exception ex) {
+                log.error("Failed to load monitor storage segment: {}", each, ex);
+            }
+        }
+    }
+
+    private long segmentStart(long timestamp) {
+        return timestamp - Math.floorMod(timestamp, segmentMillis);
+    }
+
+    private static String seriesKey(String tenantId, String itemId, String tpId, String instanceId) {
+        StringBuilder seriesKey = new StringBuilder();
+        for (String each : new String[]{tpId, itemId, tenantId, instanceId}) {
+            if (seriesKey.length() > 0) {
+                seriesKey.append(GROUP_KEY_DELIMITER);
+            }
+            GroupKey.urlEncode(String.valueOf(each), seriesKey);
+        }
+        return seriesKey.toString();
+    }
+
+    private static String[] parseSeriesKey(String seriesKey) {
+        String[] dimensions = GroupKey.parseKey(seriesKey);
+        for (int i = 0; i < dimensions.length; i++) {
+            dimensions[i] = dimensions[i].replace("%2B", GROUP_KEY_DELIMITER).replace("%25", "%");
+        }
+        return dimensions;
+    }
+
+    private static void fillDimensions(HisRunDataInfo hisRunDataInfo, String[] dimensions) {
+        hisRunDataInfo.setTpId(dimensions[0]);
+        hisRunDataInfo.setItemId(dimensions[1]);
+        hisRunDataInfo.setTenantId(dimensions[2]);
+        hisRunDataInfo.setInstanceId(dimensions[3]);
+    }
+
+    @AllArgsConstructor
+    private static class BlockRef {
+
+        private final int offset;
+
+        private final int length;
+
+        private final long minTimestamp;
+
+        private final long maxTimestamp;
+    }
+
+    /**
+     * Segment file, a sequence of records: header, series key, block.
+     */
+    private static class Segment {
+
+        private final long start;
+
+        private final File file;
+
+        private final FileChannel channel;
+
+        private final Map<String, List<BlockRef>> index = new HashMap<>();
+
+        private volatile long size;
+
+        /**
+         * Mapping of the sealed prefix, blocks appended later are mapped on their first read.
+         */
+        private volatile MappedByteBuffer mapped;
+
+        private Segment(File file, long start) throws IOException {
+            this.start = start;
+            this.file = file;
+            this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+
+        static Segment open(File file, long start) throws IOException {
+            Segment segment = new Segment(file, start);
+            segment.rebuildIndex();
+            return segment;
+        }
+
+        private void rebuildIndex() throws IOException {
+            long fileSize = channel.size();
+            if (fileSize == 0) {
+                return;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            int position = 0;
+            while (fileSize - position >= RECORD_HEADER_LENGTH) {
+                buffer.position(position);
+                int recordLength = buffer.getInt();
+                int keyLength = buffer.getShort();
+                if (recordLength < RECORD_HEADER_LENGTH + keyLength || position + recordLength > fileSize) {
+                    break;
+                }
+                long minTimestamp = buffer.getLong();
+                long maxTimestamp = buffer.getLong();
+                byte[] keyBytes = new byte[keyLength];
+                buffer.get(keyBytes);
+                int blockOffset = position + RECORD_HEADER_LENGTH + keyLength;
+                addIndex(new String(keyBytes, StandardCharsets.UTF_8), new BlockRef(blockOffset, position + recordLength - blockOffset, minTimestamp, maxTimestamp));
+                position += recordLength;
+            }
+            if (position < fileSize) {
+                // Drop the incomplete record left by an unexpected shutdown.
+                log.warn("Truncate incomplete monitor storage segment: {}, from {} to {} bytes.", file, fileSize, position);
+                channel.truncate(position);
+            }
+            size = position;
+        }
+
+        void append(String seriesKey, byte[] block, long minTimestamp, long maxTimestamp) throws IOException {
+            byte[] keyBytes = seriesKey.getBytes(StandardCharsets.UTF_8);
+            int recordLength = RECORD_HEADER_LENGTH + keyBytes.length + block.length;
+            ByteBuffer record = ByteBuffer.allocate(recordLength);
+            record.putInt(recordLength).putShort((short) keyBytes.length).putLong(minTimestamp).putLong(maxTimestamp).put(keyBytes).put(block);
+            record.flip();
+            long position = size;
+            while (record.hasRemaining()) {
+                position += channel.write(record, position);
+            }
+            addIndex(seriesKey, new BlockRef((int) size + RECORD_HEADER_LENGTH + keyBytes.length, block.length, minTimestamp, maxTimestamp));
+            size += recordLength;
+        }
+
+        ByteBuffer read(BlockRef blockRef) {
+            MappedByteBuffer current = mapped;
+            if (current == null || current.capacity() < blockRef.offset + blockRef.length) {
+                try {
+                    current = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.max(size, blockRef.offset + blockRef.length));
+                } catch (IOException ex) {
+                    // The segment expired and was closed while the block was being queried.
+                    log.debug("Failed to map monitor storage segment: {}", file, ex);
+                    return null;
+                }
+                mapped = current;
+            }
+            ByteBuffer buffer = current.duplicate();
+            buffer.position(blockRef.offset);
+            buffer.limit(blockRef.offset + blockRef.length);
+            return buffer.slice();
+        }
+
+        private void addIndex(String seriesKey, BlockRef blockRef) {
+            index.computeIfAbsent(seriesKey, key -> new ArrayList<>()).add(blockRef);
+        }
+
+        void close() {
+            mapped = null;
+            try {
+                channel.close();
+            } catch (IOException ex) {
+                log.warn("Failed to close monitor storage segment: {}", file, ex);
+            }
+        }
+
+        void delete() {
+            close();
+            if (!file.delete()) {
+                log.warn("Failed to delete monitor storage segment: {}", file);
+            }
+        }
+    }
+}
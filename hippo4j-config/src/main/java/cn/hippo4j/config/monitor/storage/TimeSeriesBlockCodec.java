@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.config.monitor.storage;
+
+import cn.hippo4j.config.model.HisRunDataInfo;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Time series block codec.
+ *
+ * <p> A block holds the samples of one thread pool instance column by column. Timestamps are
+ * stored as delta-of-delta and every metric column as the delta to the previous sample, all
+ * zigzag varints, so regular intervals and unchanged values take a single byte per sample.
+ */
+public class TimeSeriesBlockCodec {
+
+    private static final long NULL_VALUE = Long.MIN_VALUE;
+
+    /**
+     * Encode samples ordered by timestamp.
+     *
+     * @param samples samples of one series
+     * @return block
+     */
+    public static byte[] encode(List<HisRunDataInfo> samples) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(samples.size() * 12 + 16);
+        writeVarLong(out, samples.size());
+        long previousTimestamp = 0L;
+        long previousDelta = 0L;
+        for (HisRunDataInfo each : samples) {
+            long timestamp = each.getTimestamp() == null ? 0L : each.getTimestamp();
+            long delta = timestamp - previousTimestamp;
+            writeVarLong(out, zigZag(delta - previousDelta));
+            previousDelta = delta;
+            previousTimestamp = timestamp;
+        }
+        encodeColumns(out, samples, HisRunDataColumns.GETTERS);
+        encodeColumns(out, samples, HisRunDataColumns.INTERVAL_GETTERS);
+        return out.toByteArray();
+    }
+
+    private static void encodeColumns(ByteArrayOutputStream out, List<HisRunDataInfo> samples, List<Function<HisRunDataInfo, Long>> getters) {
+        for (Function<HisRunDataInfo, Long> getter : getters) {
+            long previous = 0L;
+            for (HisRunDataInfo each : samples) {
+                Long value = getter.apply(each);
+                long current = value == null ? NULL_VALUE : value;
+                writeVarLong(out, zigZag(current - previous));
+                previous = current;
+            }
+        }
+    }
+
+    /**
+     * Decode samples, series identity fields are left empty.
+     *
+     * @param block block
+     * @return samples
+     */
+    public static List<HisRunDataInfo> decode(ByteBuffer block) {
+        int size = (int) readVarLong(block);
+        List<HisRunDataInfo> samples = new ArrayList<>(size);
+        long previousTimestamp = 0L;
+        long previousDelta = 0L;
+        for (int i = 0; i < size; i++) {
+            long delta = previousDelta + unZigZag(readVarLong(block));
+            previousTimestamp += delta;
+            previousDelta = delta;
+            HisRunDataInfo each = new HisRunDataInfo();
+            each.setTimestamp(previousTimestamp);
+            samples.add(each);
+        }
+        decodeColumns(block, samples, HisRunDataColumns.SETTERS);
+        // Blocks written before the interval columns existed end here.
+        if (block.hasRemaining()) {
+            decodeColumns(block, samples, HisRunDataColumns.INTERVAL_SETTERS);
+        }
+        return samples;
+    }
+
+    private static void decodeColumns(ByteBuffer block, List<HisRunDataInfo> samples, List<BiConsumer<HisRunDataInfo, Long>> setters) {
+        for (BiConsumer<HisRunDataInfo, Long> setter : setters) {
+            long previous = 0L;
+            for (HisRunDataInfo each : samples) {
+                previous += unZigZag(readVarLong(block));
+                setter.accept(each, previous == NULL_VALUE ? null : previous);
+            }
+        }
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0L;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed variable-length integer.");
+    }
+}
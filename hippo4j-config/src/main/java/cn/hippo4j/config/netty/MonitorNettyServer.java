@@ -26,11 +26,9 @@ import io.netty.channel.ChannelPipeline;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
-import io.netty.handler.codec.serialization.ClassResolvers;
-import io.netty.handler.codec.serialization.ObjectDecoder;
-import io.netty.handler.codec.serialization.ObjectEncoder;
 import io.netty.handler.logging.LogLevel;
 import io.netty.handler.logging.LoggingHandler;
+import io.netty.handler.timeout.IdleStateHandler;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -44,6 +42,8 @@ import javax.annotation.PreDestroy;
 @AllArgsConstructor
 public class MonitorNettyServer {
 
+    private static final int READER_IDLE_SECONDS = 90;
+
     private ServerBootstrapProperties serverBootstrapProperties;
 
     private HisRunDataService hisRunDataService;
@@ -67,9 +67,9 @@ public class MonitorNettyServer {
                             @Override
                             protected void initChannel(SocketChannel ch) throws Exception {
                                 ChannelPipeline pipeline = ch.pipeline();
-                                pipeline.addLast(new ObjectEncoder());
-                                pipeline.addLast(new ObjectDecoder(Integer.MAX_VALUE,
-                                        ClassResolvers.cacheDisabled(null)));
+                                // Clients send a heartbeat every 30 seconds, idle channels are closed by ServerHandler.
+                                pipeline.addLast(new IdleStateHandler(READER_IDLE_SECONDS, 0, 0));
+                                pipeline.addLast(new MonitorProtocolSelector());
                                 pipeline.addLast(new ServerHandler(hisRunDataService));
                             }
                         });
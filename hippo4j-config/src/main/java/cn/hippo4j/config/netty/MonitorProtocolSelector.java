@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.config.netty;
+
+import cn.hippo4j.common.toolkit.RuntimeMessageCodec;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPipeline;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import io.netty.handler.codec.serialization.ClassResolvers;
+import io.netty.handler.codec.serialization.ObjectDecoder;
+import io.netty.handler.codec.serialization.ObjectEncoder;
+
+import java.util.List;
+
+/**
+ * Monitor protocol selector.
+ *
+ * <p> Both protocols prefix each frame with a 4-byte length. The first body byte of a binary
+ * frame is {@link RuntimeMessageCodec#MAGIC}, anything else is treated as a java serialization
+ * frame sent by clients that do not support the binary codec yet. The binary protocol is
+ * acknowledged with {@link RuntimeMessageCodec#ACKNOWLEDGE}, clients that get no acknowledge
+ * fall back to java serialization.
+ */
+public class MonitorProtocolSelector extends ByteToMessageDecoder {
+
+    /**
+     * Maximum frame length of binary runtime messages.
+     */
+    private static final int MAX_FRAME_LENGTH = 16 * 1024 * 1024;
+
+    private static final int LENGTH_FIELD_LENGTH = 4;
+
+    @Override
+    protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) {
+        if (in.readableBytes() <= LENGTH_FIELD_LENGTH) {
+            return;
+        }
+        ChannelPipeline pipeline = ctx.pipeline();
+        if (in.getByte(in.readerIndex() + LENGTH_FIELD_LENGTH) == RuntimeMessageCodec.MAGIC) {
+            pipeline.addAfter(ctx.name(), "runtimeMessageDecoder", new RuntimeMessageDecoder());
+            pipeline.addAfter(ctx.name(), "frameDecoder",
+                    new LengthFieldBasedFrameDecoder(MAX_FRAME_LENGTH, 0, LENGTH_FIELD_LENGTH, 0, LENGTH_FIELD_LENGTH));
+            ctx.writeAndFlush(Unpooled.wrappedBuffer(RuntimeMessageCodec.ACKNOWLEDGE));
+        } else {
+            pipeline.addAfter(ctx.name(), "objectDecoder", new ObjectDecoder(Integer.MAX_VALUE, ClassResolvers.cacheDisabled(null)));
+            pipeline.addAfter(ctx.name(), "objectEncoder", new ObjectEncoder());
+        }
+        pipeline.remove(this);
+    }
+}
@@ -17,10 +17,14 @@
 
 package cn.hippo4j.config.netty;
 
+import cn.hippo4j.common.monitor.Message;
 import cn.hippo4j.common.monitor.MessageWrapper;
+import cn.hippo4j.common.toolkit.CollectionUtil;
 import cn.hippo4j.config.service.biz.HisRunDataService;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.handler.timeout.IdleState;
+import io.netty.handler.timeout.IdleStateEvent;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -29,12 +33,29 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 @AllArgsConstructor
-public class ServerHandler extends SimpleChannelInboundHandler<MessageWrapper> {
+public class ServerHandler extends SimpleChannelInboundHandler<Object> {
 
     private HisRunDataService hisRunDataService;
 
     @Override
-    protected void channelRead0(ChannelHandlerContext ctx, MessageWrapper msg) throws Exception {
-        hisRunDataService.dataCollect(msg);
+    protected void channelRead0(ChannelHandlerContext ctx, Object msg) throws Exception {
+        if (msg instanceof Message) {
+            Message message = (Message) msg;
+            // Empty runtime messages are client heartbeats.
+            if (CollectionUtil.isNotEmpty(message.getMessages())) {
+                hisRunDataService.dataCollect(message);
+            }
+        } else if (msg instanceof MessageWrapper) {
+            hisRunDataService.dataCollect((MessageWrapper) msg);
+        }
+    }
+
+    @Override
+    public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
+        if (evt instanceof IdleStateEvent && ((IdleStateEvent) evt).state() == IdleState.READER_IDLE) {
+            ctx.close();
+            return;
+        }
+        super.userEventTriggered(ctx, evt);
     }
 }
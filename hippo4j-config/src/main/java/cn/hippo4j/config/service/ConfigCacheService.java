@@ -66,6 +66,18 @@ public class ConfigCacheService {
      */
     private static final ConcurrentHashMap<String, Map<String, CacheItem>> CLIENT_CONFIG_CACHE = new ConcurrentHashMap();
 
+    /**
+     * key: client identify, the last part of the {@link #CLIENT_CONFIG_CACHE} key
+     * val: keys of {@link #CLIENT_CONFIG_CACHE}, guarded by the class lock
+     */
+    private static final Map<String, Set<String>> IDENTIFY_GROUP_KEY_INDEX = new HashMap();
+
+    /**
+     * key: thread pool group key, tpId + itemId + tenantId, the first parts of the {@link #CLIENT_CONFIG_CACHE} key
+     * val: keys of {@link #CLIENT_CONFIG_CACHE}, guarded by the class lock
+     */
+    private static final Map<String, Set<String>> THREAD_POOL_GROUP_KEY_INDEX = new HashMap();
+
     public static boolean isUpdateData(String groupKey, String md5, String clientIdentify) {
         String contentMd5 = ConfigCacheService.getContentMd5IsNullPut(groupKey, clientIdentify);
         return Objects.equals(contentMd5, md5);
@@ -93,6 +105,7 @@ public class ConfigCacheService {
             cacheItem = new CacheItem(groupKey, config);
             cacheItemMap.put(clientIdentify, cacheItem);
             CLIENT_CONFIG_CACHE.put(groupKey, cacheItemMap);
+            indexGroupKey(groupKey);
         }
         return (cacheItem != null) ? cacheItem.md5 : Constants.NULL;
     }
@@ -131,7 +144,9 @@ public class ConfigCacheService {
         CacheItem tmp = new CacheItem(groupKey);
         Map<String, CacheItem> cacheItemMap = Maps.newHashMap();
         cacheItemMap.put(ip, tmp);
-        CLIENT_CONFIG_CACHE.putIfAbsent(groupKey, cacheItemMap);
+        if (CLIENT_CONFIG_CACHE.putIfAbsent(groupKey, cacheItemMap) == null) {
+            indexGroupKey(groupKey);
+        }
         return tmp;
     }
 
@@ -142,6 +157,25 @@ public class ConfigCacheService {
         return returnStrCacheItemMap;
     }
 
+    /**
+     * Get the number of client instances of a thread pool.
+     *
+     * @param groupKey tpId + itemId + tenantId
+     * @return instance count
+     */
+    public synchronized static int getContentCount(String groupKey) {
+        Set<String> groupKeys = THREAD_POOL_GROUP_KEY_INDEX.get(groupKey);
+        if (groupKeys == null) {
+            return 0;
+        }
+        int count = 0;
+        for (String each : groupKeys) {
+            Map<String, CacheItem> cacheItemMap = CLIENT_CONFIG_CACHE.get(each);
+            count += cacheItemMap == null ? 0 : cacheItemMap.size();
+        }
+        return count;
+    }
+
     public static synchronized Integer getTotal() {
         AtomicInteger total = new AtomicInteger();
         CLIENT_CONFIG_CACHE.forEach((key, val) -> total.addAndGet(val.values().size()));
@@ -177,20 +211,65 @@ public class ConfigCacheService {
         // fuzzy search
         List<String> identificationList = MapUtil.parseMapForFilter(CLIENT_CONFIG_CACHE, coarse);
         for (String cacheMapKey : identificationList) {
-            Map<String, CacheItem> removeCacheItem = CLIENT_CONFIG_CACHE.remove(cacheMapKey);
-            log.info("Remove invalidated config cache. config info: {}", JSONUtil.toJSONString(removeCacheItem));
+            removeGroupKey(cacheMapKey);
         }
     }
 
+    /**
+     * Remove the config cache of the clients, looked up by the identify index instead of a fuzzy scan.
+     *
+     * @param identifies client identifies
+     */
+    public synchronized static void removeConfigCacheByIdentify(Collection<String> identifies) {
+        for (String identify : identifies) {
+            Set<String> groupKeys = IDENTIFY_GROUP_KEY_INDEX.get(identify);
+            if (groupKeys != null) {
+                new ArrayList<>(groupKeys).forEach(ConfigCacheService::removeGroupKey);
+            }
+        }
+    }
+
+    private static void removeGroupKey(String groupKey) {
+        Map<String, CacheItem> removeCacheItem = CLIENT_CONFIG_CACHE.remove(groupKey);
+        String[] keyArray = groupKey.split(GROUP_KEY_DELIMITER_TRANSLATION);
+        if (keyArray.length > 3) {
+            unindexGroupKey(IDENTIFY_GROUP_KEY_INDEX, keyArray[3], groupKey);
+            unindexGroupKey(THREAD_POOL_GROUP_KEY_INDEX, threadPoolGroupKey(keyArray), groupKey);
+        }
+        log.info("Remove invalidated config cache. config info: {}", JSONUtil.toJSONString(removeCacheItem));
+    }
+
+    private static void indexGroupKey(String groupKey) {
+        String[] keyArray = groupKey.split(GROUP_KEY_DELIMITER_TRANSLATION);
+        if (keyArray.length > 3) {
+            IDENTIFY_GROUP_KEY_INDEX.computeIfAbsent(keyArray[3], key -> new HashSet<>()).add(groupKey);
+            THREAD_POOL_GROUP_KEY_INDEX.computeIfAbsent(threadPoolGroupKey(keyArray), key -> new HashSet<>()).add(groupKey);
+        }
+    }
+
+    private static void unindexGroupKey(Map<String, Set<String>> index, String indexKey, String groupKey) {
+        Set<String> groupKeys = index.get(indexKey);
+        if (groupKeys != null) {
+            groupKeys.remove(groupKey);
+            if (groupKeys.isEmpty()) {
+                index.remove(indexKey);
+            }
+        }
+    }
+
+    private static String threadPoolGroupKey(String[] keyArray) {
+        return Joiner.on(GROUP_KEY_DELIMITER).join(keyArray[0], keyArray[1], keyArray[2]);
+    }
+
     /**
      * This is an observer, clear config cache.
      */
-    static class ClearConfigCache implements Observer<String> {
+    static class ClearConfigCache implements Observer<List<String>> {
 
         @Override
-        public void accept(ObserverMessage<String> observerMessage) {
-            log.info("Clean up the configuration cache. Key: {}", observerMessage.message());
-            coarseRemove(observerMessage.message());
+        public void accept(ObserverMessage<List<String>> observerMessage) {
+            log.info("Clean up the configuration cache. Keys: {}", observerMessage.message());
+            removeConfigCacheByIdentify(observerMessage.message());
         }
     }
 }
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.config.service;
+
+import cn.hippo4j.common.toolkit.JSONUtil;
+import cn.hippo4j.common.toolkit.Md5Util;
+import cn.hippo4j.common.web.base.Results;
+import cn.hippo4j.common.web.exception.ErrorCodeEnum;
+import cn.hippo4j.config.toolkit.Md5ConfigUtil;
+import cn.hutool.core.util.StrUtil;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static cn.hippo4j.common.constant.Constants.LISTENING_FINGERPRINT;
+import static cn.hippo4j.common.constant.Constants.LISTENING_FULL_SYNC;
+import static cn.hippo4j.common.constant.Constants.LISTENING_PROTOCOL_DELTA;
+import static cn.hippo4j.common.constant.Constants.LISTENING_PROTOCOL_VERSION;
+import static cn.hippo4j.common.constant.Constants.LISTENING_SESSION_ID;
+
+/**
+ * Listener session service.
+ * <p>
+ * Keeps the subscription state of delta protocol clients, so that each poll only carries
+ * an aggregate fingerprint and the thread pools whose md5 changed since the previous poll.
+ * <p>
+ * Sessions are kept in memory of the node that served the full sync. When a load balancer routes
+ * a delta poll to another node, or the node restarts, the session is missing there and the client
+ * is told to resync, so it sends the full probe once and the new node owns the session from then
+ * on. Sticky routing of the listener endpoint avoids these extra full probes in a cluster.
+ */
+@Slf4j
+@Service
+public class ListenerSessionService {
+
+    private static final String TRUE_STR = "true";
+
+    private static final long SESSION_EXPIRE_MINUTES = 10L;
+
+    /**
+     * key: session id
+     * val: group key -> client md5
+     */
+    private final Cache<String, Map<String, String>> sessionCache;
+
+    public ListenerSessionService() {
+        this(Ticker.systemTicker());
+    }
+
+    ListenerSessionService(Ticker ticker) {
+        this.sessionCache = CacheBuilder.newBuilder()
+                .expireAfterAccess(SESSION_EXPIRE_MINUTES, TimeUnit.MINUTES)
+                .maximumSize(100000)
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * Is the client polling with the delta protocol.
+     *
+     * @param request
+     * @return
+     */
+    public static boolean isDeltaProtocol(HttpServletRequest request) {
+        return Objects.equals(LISTENING_PROTOCOL_DELTA, request.getHeader(LISTENING_PROTOCOL_VERSION));
+    }
+
+    /**
+     * Resolve the full client md5 map of the session.
+     *
+     * @param request
+     * @param probeModify full or delta probe string
+     * @return client md5 map, or null when the client must resend the full probe
+     */
+    public Map<String, String> resolveClientMd5Map(HttpServletRequest request, String probeModify) {
+        String sessionId = request.getHeader(LISTENING_SESSION_ID);
+        if (StrUtil.isBlank(sessionId)) {
+            throw new IllegalArgumentException("invalid sessionId");
+        }
+        Map<String, String> probeMd5Map = Md5ConfigUtil.getClientMd5Map(probeModify);
+        Map<String, String> clientMd5Map;
+        if (TRUE_STR.equalsIgnoreCase(request.getHeader(LISTENING_FULL_SYNC))) {
+            clientMd5Map = new ConcurrentHashMap(probeMd5Map);
+            sessionCache.put(sessionId, clientMd5Map);
+        } else {
+            clientMd5Map = sessionCache.getIfPresent(sessionId);
+            if (clientMd5Map == null) {
+                return null;
+            }
+            clientMd5Map.putAll(probeMd5Map);
+        }
+        String fingerprint = Md5Util.getFingerprint(clientMd5Map.values());
+        if (!Objects.equals(fingerprint, request.getParameter(LISTENING_FINGERPRINT))) {
+            log.warn("Listener session fingerprint mismatch, request full resync. sessionId: {}", sessionId);
+            sessionCache.invalidate(sessionId);
+            return null;
+        }
+        return clientMd5Map;
+    }
+
+    /**
+     * Tell the client to resend the full probe.
+     *
+     * @param response
+     */
+    @SneakyThrows
+    public void responseResync(HttpServletResponse response) {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.getWriter().println(JSONUtil.toJSONString(Results.failure(ErrorCodeEnum.LISTENER_RESYNC)));
+    }
+}
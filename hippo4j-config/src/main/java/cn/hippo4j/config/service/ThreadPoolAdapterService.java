@@ -130,27 +130,23 @@ public class ThreadPoolAdapterService {
     }
 
     public static void remove(String identify) {
+        remove(Collections.singleton(identify));
+    }
+
+    public static void remove(Collection<String> identifies) {
         synchronized (ThreadPoolAdapterService.class) {
             THREAD_POOL_ADAPTER_MAP.values().forEach(each -> each.forEach((key, val) -> {
-                val.forEach((threadPoolKey, states) -> {
-                    Iterator<ThreadPoolAdapterState> iterator = states.iterator();
-                    while (iterator.hasNext()) {
-                        ThreadPoolAdapterState adapterState = iterator.next();
-                        if (Objects.equals(adapterState.getIdentify(), identify)) {
-                            iterator.remove();
-                        }
-                    }
-                });
+                val.forEach((threadPoolKey, states) -> states.removeIf(adapterState -> identifies.contains(adapterState.getIdentify())));
             }));
         }
     }
 
-    static class ClearThreadPoolAdapterCache implements Observer<String> {
+    static class ClearThreadPoolAdapterCache implements Observer<List<String>> {
 
         @Override
-        public void accept(ObserverMessage<String> observerMessage) {
-            log.info("Clean up the thread-pool adapter cache. Key: {}", observerMessage.message());
-            remove(observerMessage.message());
+        public void accept(ObserverMessage<List<String>> observerMessage) {
+            log.info("Clean up the thread-pool adapter cache. Keys: {}", observerMessage.message());
+            remove(new HashSet<>(observerMessage.message()));
         }
     }
 }
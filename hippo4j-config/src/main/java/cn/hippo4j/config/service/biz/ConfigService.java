@@ -20,6 +20,9 @@ package cn.hippo4j.config.service.biz;
 import cn.hippo4j.common.model.register.DynamicThreadPoolRegisterWrapper;
 import cn.hippo4j.config.model.ConfigAllInfo;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * Config service.
  */
@@ -43,6 +46,17 @@ public interface ConfigService {
      */
     ConfigAllInfo findConfigRecentInfo(String... params);
 
+    /**
+     * Find config recent info in batch.
+     *
+     * @param tpIds      tpIds, all thread pools of the item if empty
+     * @param itemId     itemId
+     * @param tenantId   tenantId
+     * @param instanceId instanceId
+     * @return key: tpId, val: recent config. undefined thread pools are absent
+     */
+    Map<String, ConfigAllInfo> findConfigRecentInfos(List<String> tpIds, String itemId, String tenantId, String instanceId);
+
     /**
      * Insert or update.
      *
@@ -70,4 +70,11 @@ public interface HisRunDataService extends IService<HisRunDataInfo> {
      * @param messageWrapper
      */
     Result<Void> dataCollect(MessageWrapper messageWrapper);
+
+    /**
+     * Data collect already decoded message.
+     *
+     * @param message
+     */
+    Result<Void> dataCollect(Message message);
 }
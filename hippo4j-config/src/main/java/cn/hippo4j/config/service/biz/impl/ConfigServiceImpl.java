@@ -79,7 +79,6 @@ public class ConfigServiceImpl implements ConfigService {
 
     @Override
     public ConfigAllInfo findConfigRecentInfo(String... params) {
-        ConfigAllInfo resultConfig;
         ConfigAllInfo configInstance = null;
         String instanceId = params[3];
         if (StrUtil.isNotBlank(instanceId)) {
@@ -92,28 +91,58 @@ public class ConfigServiceImpl implements ConfigService {
                     .last("LIMIT 1");
             ConfigInstanceInfo instanceInfo = configInstanceMapper.selectOne(instanceQueryWrapper);
             if (instanceInfo != null) {
-                String content = instanceInfo.getContent();
-                configInstance = JSONUtil.parseObject(content, ConfigAllInfo.class);
-                configInstance.setContent(content);
-                configInstance.setGmtCreate(instanceInfo.getGmtCreate());
-                configInstance.setMd5(Md5Util.getTpContentMd5(configInstance));
+                configInstance = parseConfigInstance(instanceInfo);
             }
         }
         ConfigAllInfo configAllInfo = findConfigAllInfo(params[0], params[1], params[2]);
         if (configAllInfo == null && configInstance == null) {
             throw new ServiceException("Thread pool configuration is not defined");
-        } else if (configAllInfo != null && configInstance == null) {
-            resultConfig = configAllInfo;
-        } else if (configAllInfo == null && configInstance != null) {
-            resultConfig = configInstance;
-        } else {
-            if (configAllInfo.getGmtModified().before(configInstance.getGmtCreate())) {
-                resultConfig = configInstance;
-            } else {
-                resultConfig = configAllInfo;
+        }
+        return chooseRecentConfig(configAllInfo, configInstance);
+    }
+
+    @Override
+    public Map<String, ConfigAllInfo> findConfigRecentInfos(List<String> tpIds, String itemId, String tenantId, String instanceId) {
+        LambdaQueryWrapper<ConfigAllInfo> queryWrapper = Wrappers.lambdaQuery(ConfigAllInfo.class)
+                .eq(ConfigAllInfo::getItemId, itemId)
+                .eq(ConfigAllInfo::getTenantId, tenantId)
+                .in(CollectionUtil.isNotEmpty(tpIds), ConfigAllInfo::getTpId, tpIds);
+        Map<String, ConfigAllInfo> resultMap = new HashMap();
+        configInfoMapper.selectList(queryWrapper).forEach(each -> resultMap.put(each.getTpId(), each));
+        if (StrUtil.isNotBlank(instanceId)) {
+            LambdaQueryWrapper<ConfigInstanceInfo> instanceQueryWrapper = Wrappers.lambdaQuery(ConfigInstanceInfo.class)
+                    .eq(ConfigInstanceInfo::getItemId, itemId)
+                    .eq(ConfigInstanceInfo::getTenantId, tenantId)
+                    .eq(ConfigInstanceInfo::getInstanceId, instanceId)
+                    .in(CollectionUtil.isNotEmpty(tpIds), ConfigInstanceInfo::getTpId, tpIds)
+                    .orderByDesc(ConfigInstanceInfo::getGmtCreate);
+            Set<String> resolvedTpIds = new HashSet();
+            for (ConfigInstanceInfo each : configInstanceMapper.selectList(instanceQueryWrapper)) {
+                // Only the latest instance config of each thread pool takes effect.
+                if (resolvedTpIds.add(each.getTpId())) {
+                    resultMap.put(each.getTpId(), chooseRecentConfig(resultMap.get(each.getTpId()), parseConfigInstance(each)));
+                }
             }
         }
-        return resultConfig;
+        return resultMap;
+    }
+
+    private ConfigAllInfo parseConfigInstance(ConfigInstanceInfo instanceInfo) {
+        String content = instanceInfo.getContent();
+        ConfigAllInfo configInstance = JSONUtil.parseObject(content, ConfigAllInfo.class);
+        configInstance.setContent(content);
+        configInstance.setGmtCreate(instanceInfo.getGmtCreate());
+        configInstance.setMd5(Md5Util.getTpContentMd5(configInstance));
+        return configInstance;
+    }
+
+    private ConfigAllInfo chooseRecentConfig(ConfigAllInfo configAllInfo, ConfigAllInfo configInstance) {
+        if (configInstance == null) {
+            return configAllInfo;
+        } else if (configAllInfo == null) {
+            return configInstance;
+        }
+        return configAllInfo.getGmtModified().before(configInstance.getGmtCreate()) ? configInstance : configAllInfo;
     }
 
     @Override
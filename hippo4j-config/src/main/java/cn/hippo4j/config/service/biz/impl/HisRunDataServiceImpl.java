@@ -27,10 +27,15 @@ import cn.hippo4j.common.web.base.Results;
 import cn.hippo4j.config.config.ServerBootstrapProperties;
 import cn.hippo4j.config.mapper.HisRunDataMapper;
 import cn.hippo4j.config.model.HisRunDataInfo;
+import cn.hippo4j.config.model.HisRunDataRollupInfo;
 import cn.hippo4j.config.model.biz.monitor.MonitorActiveRespDTO;
 import cn.hippo4j.config.model.biz.monitor.MonitorQueryReqDTO;
 import cn.hippo4j.config.model.biz.monitor.MonitorRespDTO;
+import cn.hippo4j.config.monitor.DeltaGapFiller;
+import cn.hippo4j.config.monitor.HisRunDataWriter;
 import cn.hippo4j.config.monitor.QueryMonitorExecuteChoose;
+import cn.hippo4j.config.monitor.RollupResolution;
+import cn.hippo4j.config.monitor.storage.HisRunDataStorage;
 import cn.hippo4j.config.service.biz.HisRunDataService;
 import cn.hippo4j.config.toolkit.BeanUtil;
 import cn.hutool.core.date.DateTime;
@@ -38,14 +43,19 @@ import cn.hutool.core.date.DateUtil;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.google.common.collect.Lists;
 import lombok.AllArgsConstructor;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import static cn.hippo4j.config.model.HisRunDataRollupInfo.STATISTIC_AVG;
+import static cn.hippo4j.config.model.HisRunDataRollupInfo.STATISTIC_LAST;
+import static cn.hutool.core.date.DatePattern.NORM_DATETIME_MINUTE_PATTERN;
 import static cn.hutool.core.date.DatePattern.NORM_TIME_PATTERN;
 
 /**
@@ -59,37 +69,37 @@ public class HisRunDataServiceImpl extends ServiceImpl<HisRunDataMapper, HisRunD
 
     private final QueryMonitorExecuteChoose queryMonitorExecuteChoose;
 
-    private final ThreadPoolTaskExecutor monitorThreadPoolTaskExecutor;
+    private final HisRunDataWriter hisRunDataWriter;
+
+    private final HisRunDataStorage hisRunDataStorage;
 
     @Override
     public List<MonitorRespDTO> query(MonitorQueryReqDTO reqDTO) {
         Date currentDate = new Date();
         DateTime dateTime = DateUtil.offsetMinute(currentDate, -properties.getCleanHistoryDataPeriod());
         long startTime = dateTime.getTime();
-        List<HisRunDataInfo> hisRunDataInfos = this.lambdaQuery()
-                .eq(HisRunDataInfo::getTenantId, reqDTO.getTenantId())
-                .eq(HisRunDataInfo::getItemId, reqDTO.getItemId())
-                .eq(HisRunDataInfo::getTpId, reqDTO.getTpId())
-                .eq(HisRunDataInfo::getInstanceId, reqDTO.getInstanceId())
-                .between(HisRunDataInfo::getTimestamp, startTime, currentDate.getTime())
-                .orderByAsc(HisRunDataInfo::getTimestamp)
-                .list();
+        List<HisRunDataInfo> hisRunDataInfos = hisRunDataStorage.query(reqDTO.getTenantId(), reqDTO.getItemId(), reqDTO.getTpId(), reqDTO.getInstanceId(),
+                startTime, currentDate.getTime());
+        hisRunDataInfos = DeltaGapFiller.fill(hisRunDataInfos);
         return BeanUtil.convert(hisRunDataInfos, MonitorRespDTO.class);
     }
 
     @Override
     public MonitorActiveRespDTO queryInfoThreadPoolMonitor(MonitorQueryReqDTO reqDTO) {
-        Date currentDate = new Date();
-        DateTime dateTime = DateUtil.offsetMinute(currentDate, -properties.getCleanHistoryDataPeriod());
-        long startTime = dateTime.getTime();
-        List<HisRunDataInfo> hisRunDataInfos = this.lambdaQuery()
-                .eq(HisRunDataInfo::getTenantId, reqDTO.getTenantId())
-                .eq(HisRunDataInfo::getItemId, reqDTO.getItemId())
-                .eq(HisRunDataInfo::getTpId, reqDTO.getTpId())
-                .eq(HisRunDataInfo::getInstanceId, reqDTO.getInstanceId())
-                .between(HisRunDataInfo::getTimestamp, startTime, currentDate.getTime())
-                .orderByAsc(HisRunDataInfo::getTimestamp)
-                .list();
+        long endTime = reqDTO.getEndTime() != null ? reqDTO.getEndTime() : System.currentTimeMillis();
+        long rawRetentionMillis = TimeUnit.MINUTES.toMillis(properties.getCleanHistoryDataPeriod());
+        long startTime = reqDTO.getStartTime() != null ? reqDTO.getStartTime() : endTime - rawRetentionMillis;
+        RollupResolution resolution = RollupResolution.choose(endTime - startTime, rawRetentionMillis);
+        List<HisRunDataInfo> hisRunDataInfos;
+        String timePattern;
+        if (resolution == null) {
+            hisRunDataInfos = DeltaGapFiller.fill(hisRunDataStorage.query(reqDTO.getTenantId(), reqDTO.getItemId(), reqDTO.getTpId(), reqDTO.getInstanceId(),
+                    startTime, endTime));
+            timePattern = NORM_TIME_PATTERN;
+        } else {
+            hisRunDataInfos = queryRollup(reqDTO, resolution, startTime, endTime);
+            timePattern = NORM_DATETIME_MINUTE_PATTERN;
+        }
         List<String> times = Lists.newArrayList();
         List<Long> poolSizeList = Lists.newArrayList();
         List<Long> activeSizeList = Lists.newArrayList();
@@ -102,7 +112,7 @@ public class HisRunDataServiceImpl extends ServiceImpl<HisRunDataMapper, HisRunD
         long countTemp = 0L;
         AtomicBoolean firstFlag = new AtomicBoolean(Boolean.TRUE);
         for (HisRunDataInfo each : hisRunDataInfos) {
-            String time = DateUtil.format(new Date(each.getTimestamp()), NORM_TIME_PATTERN);
+            String time = DateUtil.format(new Date(each.getTimestamp()), timePattern);
             times.add(time);
             poolSizeList.add(each.getPoolSize());
             activeSizeList.add(each.getActiveSize());
@@ -130,20 +140,40 @@ public class HisRunDataServiceImpl extends ServiceImpl<HisRunDataMapper, HisRunD
         Date currentDate = new Date();
         DateTime dateTime = DateUtil.offsetMinute(currentDate, -properties.getCleanHistoryDataPeriod());
         long startTime = dateTime.getTime();
-        HisRunDataInfo hisRunDataInfo = this.lambdaQuery()
-                .eq(HisRunDataInfo::getTenantId, reqDTO.getTenantId())
-                .eq(HisRunDataInfo::getItemId, reqDTO.getItemId())
-                .eq(HisRunDataInfo::getTpId, reqDTO.getTpId())
-                .eq(HisRunDataInfo::getInstanceId, reqDTO.getInstanceId())
-                .orderByDesc(HisRunDataInfo::getTimestamp)
-                .between(HisRunDataInfo::getTimestamp, startTime, currentDate.getTime())
-                .last("LIMIT 1")
-                .one();
+        HisRunDataInfo hisRunDataInfo = hisRunDataStorage.queryLast(reqDTO.getTenantId(), reqDTO.getItemId(), reqDTO.getTpId(), reqDTO.getInstanceId(),
+                startTime, currentDate.getTime());
         return BeanUtil.convert(hisRunDataInfo, MonitorRespDTO.class);
     }
 
+    /**
+     * Query rollup data, gauges use the average of each bucket and counters the last value.
+     *
+     * @param reqDTO     query request
+     * @param resolution rollup resolution
+     * @param startTime  start time
+     * @param endTime    end time
+     * @return his run data
+     */
+    private List<HisRunDataInfo> queryRollup(MonitorQueryReqDTO reqDTO, RollupResolution resolution, long startTime, long endTime) {
+        List<HisRunDataRollupInfo> avgInfos = hisRunDataStorage.queryRollup(reqDTO.getTenantId(), reqDTO.getItemId(), reqDTO.getTpId(), reqDTO.getInstanceId(),
+                resolution.getMillis(), STATISTIC_AVG, startTime, endTime);
+        List<HisRunDataRollupInfo> lastInfos = hisRunDataStorage.queryRollup(reqDTO.getTenantId(), reqDTO.getItemId(), reqDTO.getTpId(), reqDTO.getInstanceId(),
+                resolution.getMillis(), STATISTIC_LAST, startTime, endTime);
+        Map<Long, HisRunDataRollupInfo> lastInfoMap = lastInfos.stream()
+                .collect(Collectors.toMap(HisRunDataInfo::getTimestamp, Function.identity(), (one, two) -> two));
+        List<HisRunDataInfo> result = Lists.newArrayListWithCapacity(avgInfos.size());
+        for (HisRunDataRollupInfo each : avgInfos) {
+            HisRunDataRollupInfo lastInfo = lastInfoMap.get(each.getTimestamp());
+            if (lastInfo != null) {
+                each.setCompletedTaskCount(lastInfo.getCompletedTaskCount());
+                each.setRejectCount(lastInfo.getRejectCount());
+            }
+            result.add(each);
+        }
+        return result;
+    }
+
     @Override
-    @Transactional(rollbackFor = Exception.class)
     public void save(Message message) {
         List<RuntimeMessage> runtimeMessages = message.getMessages();
         List<HisRunDataInfo> hisRunDataInfos = Lists.newArrayList();
@@ -156,7 +186,9 @@ public class HisRunDataServiceImpl extends ServiceImpl<HisRunDataMapper, HisRunD
             hisRunDataInfo.setInstanceId(parseKey[3]);
             hisRunDataInfos.add(hisRunDataInfo);
         });
-        this.saveBatch(hisRunDataInfos);
+        if (!hisRunDataWriter.offer(hisRunDataInfos)) {
+            log.warn("Monitoring data write buffer is full, discard rows: " + hisRunDataInfos.size());
+        }
     }
 
     @Override
@@ -165,10 +197,23 @@ public class HisRunDataServiceImpl extends ServiceImpl<HisRunDataMapper, HisRunD
             Message message = MessageConvert.convert(messageWrapper);
             queryMonitorExecuteChoose.chooseAndExecute(message);
         };
+        return executeCollectTask(task);
+    }
+
+    @Override
+    public Result<Void> dataCollect(Message message) {
+        return executeCollectTask(() -> queryMonitorExecuteChoose.chooseAndExecute(message));
+    }
+
+    /**
+     * Run on the caller thread, saving only appends to the write buffer of {@link HisRunDataWriter},
+     * which counts the rows it drops.
+     */
+    private Result<Void> executeCollectTask(Runnable task) {
         try {
-            monitorThreadPoolTaskExecutor.execute(task);
+            task.run();
         } catch (Exception ex) {
-            log.error("Monitoring data insertion database task overflow.", ex);
+            log.error("Monitoring data collect failed.", ex);
         }
         return Results.success();
     }
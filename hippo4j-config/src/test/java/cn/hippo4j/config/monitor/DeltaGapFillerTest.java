@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.config.monitor;
+
+import cn.hippo4j.common.toolkit.Assert;
+import cn.hippo4j.config.model.HisRunDataInfo;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class DeltaGapFillerTest {
+
+    @Test
+    public void assertFillWithStoredIntervals() {
+        List<HisRunDataInfo> filled = DeltaGapFiller.fill(Arrays.asList(
+                row(0L, 1L, 60000L, 5000L),
+                row(20000L, 2L, 60000L, 5000L),
+                row(25000L, 3L, 60000L, 5000L)));
+        Assert.isTrue(filled.size() == 6);
+        for (int i = 0; i < filled.size(); i++) {
+            Assert.isTrue(filled.get(i).getTimestamp() == i * 5000L);
+        }
+        Assert.isTrue(filled.get(3).getCompletedTaskCount() == 1L);
+        Assert.isTrue("tp".equals(filled.get(3).getTpId()));
+    }
+
+    @Test
+    public void assertNotFillBeyondKeyframe() {
+        List<HisRunDataInfo> rows = Arrays.asList(row(0L, 1L, 60000L, 5000L), row(120000L, 1L, 60000L, 5000L));
+        Assert.isTrue(DeltaGapFiller.fill(rows) == rows);
+    }
+
+    @Test
+    public void assertNotFillFullReport() {
+        List<HisRunDataInfo> rows = Arrays.asList(row(0L, 1L, null, null), row(20000L, 1L, null, null));
+        Assert.isTrue(DeltaGapFiller.fill(rows) == rows);
+    }
+
+    static HisRunDataInfo row(Long timestamp, Long completedTaskCount, Long keyframeInterval, Long collectInterval) {
+        HisRunDataInfo row = new HisRunDataInfo();
+        row.setTenantId("tenant");
+        row.setItemId("item");
+        row.setTpId("tp");
+        row.setInstanceId("instance");
+        row.setTimestamp(timestamp);
+        row.setCompletedTaskCount(completedTaskCount);
+        row.setKeyframeInterval(keyframeInterval);
+        row.setCollectInterval(collectInterval);
+        return row;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.config.monitor;
+
+import cn.hippo4j.common.toolkit.Assert;
+import cn.hippo4j.config.config.ServerBootstrapProperties;
+import cn.hippo4j.config.model.HisRunDataInfo;
+import cn.hippo4j.config.monitor.storage.HisRunDataStorage;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static cn.hippo4j.config.monitor.DeltaGapFillerTest.row;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class HisRunDataWriterTest {
+
+    private final HisRunDataStorage storage = mock(HisRunDataStorage.class);
+
+    private final HisRunDataRollup rollup = mock(HisRunDataRollup.class);
+
+    private final ThreadPoolRankingAggregator ranking = mock(ThreadPoolRankingAggregator.class);
+
+    private final HisRunDataWriter writer = new HisRunDataWriter(new ServerBootstrapProperties(), storage, rollup, ranking);
+
+    @Test
+    public void assertRollupFilledSeries() {
+        long now = System.currentTimeMillis();
+        writer.offer(Arrays.asList(row(now - 20000L, 2L, 60000L, 5000L), row(now - 40000L, 1L, 60000L, 5000L)));
+        writer.run();
+        List<HisRunDataInfo> accepted = captureAccepted(1);
+        Assert.isTrue(accepted.size() == 5);
+        Assert.isTrue(accepted.get(0).getTimestamp() == now - 40000L);
+        Assert.isTrue(accepted.get(3).getCompletedTaskCount() == 1L);
+        Assert.isTrue(accepted.get(4).getCompletedTaskCount() == 2L);
+    }
+
+    @Test
+    public void assertLoadPreviousRowAfterRestart() {
+        long now = System.currentTimeMillis();
+        HisRunDataInfo stored = row(now - 30000L, 1L, 60000L, 5000L);
+        stored.setTpId(null);
+        when(storage.queryLast(anyString(), anyString(), anyString(), anyString(), anyLong(), anyLong())).thenReturn(stored);
+        writer.offer(Collections.singletonList(row(now, 2L, 60000L, 5000L)));
+        writer.run();
+        List<HisRunDataInfo> accepted = captureAccepted(1);
+        Assert.isTrue(accepted.size() == 6);
+        Assert.isTrue(accepted.get(0).getTimestamp() == now - 25000L);
+        Assert.isTrue("tp".equals(accepted.get(0).getTpId()));
+        writer.offer(Collections.singletonList(row(now + 10000L, 2L, 60000L, 5000L)));
+        writer.run();
+        Assert.isTrue(captureAccepted(2).size() == 2);
+        verify(storage, times(1)).queryLast(anyString(), anyString(), anyString(), anyString(), anyLong(), anyLong());
+    }
+
+    @Test
+    public void assertFailedWriteNotRolledUp() {
+        doThrow(new IllegalStateException("storage down")).when(storage).write(anyList());
+        writer.offer(Collections.singletonList(row(System.currentTimeMillis(), 1L, null, null)));
+        writer.run();
+        verify(rollup, never()).accept(anyList());
+        verify(ranking, never()).accept(anyList());
+        Assert.isTrue(writer.getReceivedCount() == 1L);
+        Assert.isTrue(writer.getWrittenCount() == 0L);
+        Assert.isTrue(writer.getDroppedCount() == 1L);
+        Assert.isTrue(writer.getBufferedCount() == 0);
+    }
+
+    @Test
+    public void assertDestroyDrainsBuffer() throws Exception {
+        writer.afterPropertiesSet();
+        writer.offer(Arrays.asList(row(1000L, 1L, null, null), row(2000L, 1L, null, null)));
+        writer.destroy();
+        verify(storage, atLeastOnce()).write(anyList());
+        Assert.isTrue(writer.getWrittenCount() == 2L);
+        Assert.isTrue(writer.getTransactionCount() >= 1L);
+        Assert.isTrue(writer.getBufferedCount() == 0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<HisRunDataInfo> captureAccepted(int count) {
+        ArgumentCaptor<List<HisRunDataInfo>> rollupCaptor = ArgumentCaptor.forClass(List.class);
+        verify(rollup, times(count)).accept(rollupCaptor.capture());
+        verify(ranking, times(count)).accept(anyList());
+        return rollupCaptor.getValue();
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.config.monitor;
+
+import cn.hippo4j.common.toolkit.Assert;
+import cn.hippo4j.config.mapper.HisRunDataMapper.ThreadPoolTaskRanking;
+import cn.hippo4j.config.monitor.storage.HisRunDataStorage;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static cn.hippo4j.config.monitor.DeltaGapFillerTest.row;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ThreadPoolRankingAggregatorTest {
+
+    @Test
+    public void assertRebuildMergesOtherNodes() {
+        HisRunDataStorage storage = mock(HisRunDataStorage.class);
+        ThreadPoolTaskRanking otherNode = new ThreadPoolTaskRanking();
+        otherNode.setTenantId("tenant");
+        otherNode.setItemId("item");
+        otherNode.setTpId("other");
+        otherNode.setMaxCompletedTaskCount(100L);
+        when(storage.queryThreadPoolRanking(anyLong(), anyLong())).thenReturn(Collections.singletonList(otherNode));
+        ThreadPoolRankingAggregator aggregator = new ThreadPoolRankingAggregator(storage);
+        long now = System.currentTimeMillis();
+        aggregator.accept(Collections.singletonList(row(now, 10L, null, null)));
+        aggregator.rebuild(2);
+        aggregator.rebuild(2);
+        List<ThreadPoolTaskRanking> rankings = aggregator.topByCompletedTaskCount(now - 60000L, now, 8);
+        Assert.isTrue(rankings.size() == 2);
+        Assert.isTrue("other".equals(rankings.get(0).getTpId()) && rankings.get(0).getMaxCompletedTaskCount() == 100L);
+        Assert.isTrue("tp".equals(rankings.get(1).getTpId()) && rankings.get(1).getMaxCompletedTaskCount() == 10L);
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.config.monitor.storage;
+
+import cn.hippo4j.common.toolkit.Assert;
+import cn.hippo4j.config.model.HisRunDataInfo;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class LocalHisRunDataStorageTest {
+
+    private static final long SEGMENT_MILLIS = 100_000L;
+
+    private static final long INTERVAL = 1000L;
+
+    private File directory;
+
+    private LocalHisRunDataStorage storage;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("his-run-data").toFile();
+        storage = new LocalHisRunDataStorage(directory.getPath(), SEGMENT_MILLIS);
+    }
+
+    @After
+    public void tearDown() {
+        storage.destroy();
+        deleteRecursively(directory);
+    }
+
+    @Test
+    public void assertWriteAndQuery() {
+        storage.write(samples(0L, 300));
+        assertSamples(storage.query("tenant", "item", "tp", "instance", 0L, Long.MAX_VALUE), 0L, 300);
+        assertSamples(storage.query("tenant", "item", "tp", "instance", 50 * INTERVAL, 149 * INTERVAL), 50 * INTERVAL, 100);
+        Assert.isTrue(storage.queryLast("tenant", "item", "tp", "instance", 0L, Long.MAX_VALUE).getTimestamp() == 299 * INTERVAL);
+        Assert.isTrue(storage.query("tenant", "item", "other", "instance", 0L, Long.MAX_VALUE).isEmpty());
+        reopen();
+        List<HisRunDataInfo> reopened = storage.query("tenant", "item", "tp", "instance", 0L, Long.MAX_VALUE);
+        assertSamples(reopened, 0L, 300);
+        Assert.isTrue("tp".equals(reopened.get(0).getTpId()));
+    }
+
+    @Test
+    public void assertReopenAfterTornTail() throws Exception {
+        storage.write(samples(0L, 50));
+        storage.destroy();
+        File segment = new File(directory, "0.seg");
+        long sealedLength = segment.length();
+        try (FileOutputStream out = new FileOutputStream(segment, true)) {
+            // Record header of a block that was never completely written.
+            out.write(new byte[]{0, 0, 1, 0, 0, 20, 1, 2, 3});
+        }
+        storage = new LocalHisRunDataStorage(directory.getPath(), SEGMENT_MILLIS);
+        assertSamples(storage.query("tenant", "item", "tp", "instance", 0L, Long.MAX_VALUE), 0L, 50);
+        Assert.isTrue(segment.length() == sealedLength);
+        storage.write(samples(50 * INTERVAL, 10));
+        reopen();
+        assertSamples(storage.query("tenant", "item", "tp", "instance", 0L, Long.MAX_VALUE), 0L, 60);
+    }
+
+    @Test
+    public void assertCleanAcrossSegments() {
+        storage.write(samples(0L, 400));
+        storage.clean(2 * SEGMENT_MILLIS);
+        assertSamples(storage.query("tenant", "item", "tp", "instance", 0L, Long.MAX_VALUE), 2 * SEGMENT_MILLIS, 200);
+        Assert.isTrue(!new File(directory, "0.seg").exists());
+        Assert.isTrue(!new File(directory, SEGMENT_MILLIS + ".seg").exists());
+        storage.clean(4 * SEGMENT_MILLIS);
+        Assert.isTrue(storage.query("tenant", "item", "tp", "instance", 0L, Long.MAX_VALUE).isEmpty());
+    }
+
+    @Test
+    public void assertLateSamplesJoinTheirSegmentHead() throws Exception {
+        storage.write(samples(SEGMENT_MILLIS, 20));
+        for (int i = 0; i < 20; i++) {
+            storage.write(samples(i * INTERVAL, 1));
+            storage.write(samples(SEGMENT_MILLIS + (20 + i) * INTERVAL, 1));
+        }
+        reopen();
+        assertSamples(storage.query("tenant", "item", "tp", "instance", 0L, SEGMENT_MILLIS - 1), 0L, 20);
+        File segment = new File(directory, "0.seg");
+        try (DataInputStream in = new DataInputStream(new FileInputStream(segment))) {
+            Assert.isTrue(in.readInt() == segment.length(), "Late samples should be sealed as a single block.");
+        }
+    }
+
+    @Test
+    public void assertConcurrentReadWhileWriting() throws Exception {
+        int batches = 200;
+        int batchSize = 10;
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        CountDownLatch started = new CountDownLatch(3);
+        List<Future<?>> readers = new ArrayList<>();
+        try {
+            for (int i = 0; i < 3; i++) {
+                readers.add(executor.submit(() -> {
+                    started.countDown();
+                    int previousSize = 0;
+                    while (writing.get()) {
+                        List<HisRunDataInfo> result = storage.query("tenant", "item", "tp", "instance", 0L, Long.MAX_VALUE);
+                        Assert.isTrue(result.size() >= previousSize);
+                        assertSamples(result, 0L, result.size());
+                        previousSize = result.size();
+                    }
+                    return null;
+                }));
+            }
+            started.await();
+            for (int i = 0; i < batches; i++) {
+                storage.write(samples(i * batchSize * INTERVAL, batchSize));
+            }
+            writing.set(false);
+            for (Future<?> each : readers) {
+                each.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertSamples(storage.query("tenant", "item", "tp", "instance", 0L, Long.MAX_VALUE), 0L, batches * batchSize);
+    }
+
+    private void reopen() {
+        storage.destroy();
+        storage = new LocalHisRunDataStorage(directory.getPath(), SEGMENT_MILLIS);
+    }
+
+    private static List<HisRunDataInfo> samples(long startTime, int size) {
+        List<HisRunDataInfo> samples = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            HisRunDataInfo each = new HisRunDataInfo();
+            each.setTenantId("tenant");
+            each.setItemId("item");
+            each.setTpId("tp");
+            each.setInstanceId("instance");
+            each.setTimestamp(startTime + i * INTERVAL);
+            each.setCompletedTaskCount((startTime + i * INTERVAL) / INTERVAL);
+            each.setQueueSize(i % 2 == 0 ? null : (long) i);
+            samples.add(each);
+        }
+        return samples;
+    }
+
+    private static void assertSamples(List<HisRunDataInfo> result, long startTime, int size) {
+        Assert.isTrue(result.size() == size, "Expect " + size + " samples, but " + result.size());
+        for (int i = 0; i < size; i++) {
+            long timestamp = startTime + i * INTERVAL;
+            Assert.isTrue(result.get(i).getTimestamp() == timestamp);
+            Assert.isTrue(result.get(i).getCompletedTaskCount() == timestamp / INTERVAL);
+        }
+    }
+
+    private static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File each : children) {
+                deleteRecursively(each);
+            }
+        }
+        file.delete();
+    }
+}
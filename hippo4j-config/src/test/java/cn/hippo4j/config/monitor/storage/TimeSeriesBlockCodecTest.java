@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.config.monitor.storage;
+
+import cn.hippo4j.common.toolkit.Assert;
+import cn.hippo4j.config.model.HisRunDataInfo;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+public class TimeSeriesBlockCodecTest {
+
+    @Test
+    public void assertEncodeAndDecode() {
+        List<HisRunDataInfo> samples = new ArrayList<>();
+        long timestamp = System.currentTimeMillis();
+        for (int i = 0; i < 120; i++) {
+            HisRunDataInfo each = new HisRunDataInfo();
+            // Irregular intervals and negative deltas on every column.
+            timestamp += i % 7 == 0 ? 5003L : 5000L;
+            each.setTimestamp(timestamp);
+            each.setCurrentLoad((long) (i % 10));
+            each.setPeakLoad(i % 5 == 0 ? null : (long) i);
+            each.setPoolSize(i % 2 == 0 ? 10L : 1L);
+            each.setActiveSize((long) (100 - i));
+            each.setQueueCapacity(Integer.MAX_VALUE * 2L);
+            each.setQueueSize(i == 60 ? Long.MAX_VALUE : (long) i);
+            each.setQueueRemainingCapacity(i == 61 ? Long.MIN_VALUE + 1 : 1024L - i);
+            each.setCompletedTaskCount(i * 1000L);
+            each.setRejectCount(i == 0 ? null : 0L);
+            each.setKeyframeInterval(i < 60 ? null : 60000L);
+            each.setCollectInterval(i < 60 ? null : 5000L);
+            samples.add(each);
+        }
+        List<HisRunDataInfo> decoded = TimeSeriesBlockCodec.decode(ByteBuffer.wrap(TimeSeriesBlockCodec.encode(samples)));
+        Assert.isTrue(decoded.size() == samples.size());
+        for (int i = 0; i < samples.size(); i++) {
+            Assert.isTrue(Objects.equals(samples.get(i).getTimestamp(), decoded.get(i).getTimestamp()));
+            for (Function<HisRunDataInfo, Long> getter : HisRunDataColumns.GETTERS) {
+                Assert.isTrue(Objects.equals(getter.apply(samples.get(i)), getter.apply(decoded.get(i))));
+            }
+            for (Function<HisRunDataInfo, Long> getter : HisRunDataColumns.INTERVAL_GETTERS) {
+                Assert.isTrue(Objects.equals(getter.apply(samples.get(i)), getter.apply(decoded.get(i))));
+            }
+        }
+    }
+
+    @Test
+    public void assertEncodeAndDecodeEmpty() {
+        byte[] block = TimeSeriesBlockCodec.encode(new ArrayList<>());
+        Assert.isTrue(TimeSeriesBlockCodec.decode(ByteBuffer.wrap(block)).isEmpty());
+    }
+}
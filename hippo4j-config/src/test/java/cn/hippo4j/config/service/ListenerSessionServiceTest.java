@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.config.service;
+
+import cn.hippo4j.common.toolkit.Assert;
+import cn.hippo4j.common.toolkit.Md5Util;
+import com.google.common.base.Ticker;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static cn.hippo4j.common.constant.Constants.LINE_SEPARATOR;
+import static cn.hippo4j.common.constant.Constants.LISTENING_FINGERPRINT;
+import static cn.hippo4j.common.constant.Constants.LISTENING_FULL_SYNC;
+import static cn.hippo4j.common.constant.Constants.LISTENING_SESSION_ID;
+import static cn.hippo4j.common.constant.Constants.WORD_SEPARATOR;
+
+public class ListenerSessionServiceTest {
+
+    private static final String SESSION_ID = "session-1";
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private final ListenerSessionService listenerSessionService = new ListenerSessionService(new Ticker() {
+
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+    });
+
+    @Test
+    public void assertFullSync() {
+        String probe = probe("pool-1", "md5-1") + probe("pool-2", "md5-2");
+        Map<String, String> clientMd5Map = listenerSessionService.resolveClientMd5Map(request(true, fingerprint("md5-1", "md5-2")), probe);
+        Assert.isTrue(clientMd5Map.size() == 2);
+        Assert.isTrue("md5-1".equals(clientMd5Map.get(groupKey("pool-1"))));
+        Assert.isTrue("md5-2".equals(clientMd5Map.get(groupKey("pool-2"))));
+    }
+
+    @Test
+    public void assertDeltaMerge() {
+        fullSync();
+        Map<String, String> clientMd5Map = listenerSessionService.resolveClientMd5Map(request(false, fingerprint("md5-1", "md5-2-changed")), probe("pool-2", "md5-2-changed"));
+        Assert.isTrue(clientMd5Map.size() == 2);
+        Assert.isTrue("md5-1".equals(clientMd5Map.get(groupKey("pool-1"))));
+        Assert.isTrue("md5-2-changed".equals(clientMd5Map.get(groupKey("pool-2"))));
+        // An empty delta keeps the session as it is.
+        Assert.isTrue(listenerSessionService.resolveClientMd5Map(request(false, fingerprint("md5-1", "md5-2-changed")), "").size() == 2);
+    }
+
+    @Test
+    public void assertFingerprintMismatchResync() {
+        fullSync();
+        Assert.isTrue(listenerSessionService.resolveClientMd5Map(request(false, fingerprint("md5-1", "other")), probe("pool-2", "md5-2-changed")) == null);
+        // The session is dropped, later deltas also require a resync until the client sends the full probe.
+        Assert.isTrue(listenerSessionService.resolveClientMd5Map(request(false, fingerprint("md5-1", "md5-2")), "") == null);
+        fullSync();
+        Assert.isTrue(listenerSessionService.resolveClientMd5Map(request(false, fingerprint("md5-1", "md5-2")), "") != null);
+    }
+
+    @Test
+    public void assertExpiredSessionResync() {
+        fullSync();
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(9));
+        Assert.isTrue(listenerSessionService.resolveClientMd5Map(request(false, fingerprint("md5-1", "md5-2")), "") != null);
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(11));
+        Assert.isTrue(listenerSessionService.resolveClientMd5Map(request(false, fingerprint("md5-1", "md5-2")), "") == null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void assertMissingSessionId() {
+        MockHttpServletRequest request = request(true, fingerprint("md5-1"));
+        request.removeHeader(LISTENING_SESSION_ID);
+        listenerSessionService.resolveClientMd5Map(request, probe("pool-1", "md5-1"));
+    }
+
+    private void fullSync() {
+        String probe = probe("pool-1", "md5-1") + probe("pool-2", "md5-2");
+        Assert.isTrue(listenerSessionService.resolveClientMd5Map(request(true, fingerprint("md5-1", "md5-2")), probe) != null);
+    }
+
+    private MockHttpServletRequest request(boolean fullSync, String fingerprint) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(LISTENING_SESSION_ID, SESSION_ID);
+        if (fullSync) {
+            request.addHeader(LISTENING_FULL_SYNC, "true");
+        }
+        request.setParameter(LISTENING_FINGERPRINT, fingerprint);
+        return request;
+    }
+
+    private static String probe(String tpId, String md5) {
+        return String.join(WORD_SEPARATOR, tpId, "item", "tenant", "127.0.0.1:8088_abc", md5) + LINE_SEPARATOR;
+    }
+
+    private static String groupKey(String tpId) {
+        return String.join("+", tpId, "item", "tenant", "127.0.0.1:8088_abc");
+    }
+
+    private static String fingerprint(String... md5s) {
+        return Md5Util.getFingerprint(Arrays.asList(md5s));
+    }
+}
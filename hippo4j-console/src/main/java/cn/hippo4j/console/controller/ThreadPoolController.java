@@ -126,6 +126,36 @@ public class ThreadPoolController {
         return result;
     }
 
+    @GetMapping("/run/thread/sample/start/{tpId}")
+    public Result startThreadStackSample(@PathVariable("tpId") String tpId,
+                                         @RequestParam(value = "clientAddress") String clientAddress,
+                                         @RequestParam(value = "interval", defaultValue = "50") Long interval,
+                                         @RequestParam(value = "duration", defaultValue = "30") Long duration) {
+        String urlString = StrBuilder.create("http://", clientAddress, "/run/thread/sample/start/", tpId,
+                "?interval=", String.valueOf(interval), "&duration=", String.valueOf(duration)).toString();
+        String data = HttpUtil.get(urlString, HTTP_EXECUTE_TIMEOUT);
+        Result result = JSONUtil.parseObject(data, Result.class);
+        return result;
+    }
+
+    @GetMapping("/run/thread/sample/stop/{tpId}")
+    public Result stopThreadStackSample(@PathVariable("tpId") String tpId,
+                                        @RequestParam(value = "clientAddress") String clientAddress) {
+        String urlString = StrBuilder.create("http://", clientAddress, "/run/thread/sample/stop/", tpId).toString();
+        String data = HttpUtil.get(urlString, HTTP_EXECUTE_TIMEOUT);
+        Result result = JSONUtil.parseObject(data, Result.class);
+        return result;
+    }
+
+    @GetMapping("/run/thread/sample/{tpId}")
+    public Result drainThreadStackSample(@PathVariable("tpId") String tpId,
+                                         @RequestParam(value = "clientAddress") String clientAddress) {
+        String urlString = StrBuilder.create("http://", clientAddress, "/run/thread/sample/", tpId).toString();
+        String data = HttpUtil.get(urlString, HTTP_EXECUTE_TIMEOUT);
+        Result result = JSONUtil.parseObject(data, Result.class);
+        return result;
+    }
+
     @GetMapping("/list/client/instance/{itemId}")
     public Result listClientInstance(@PathVariable("itemId") String itemId) {
         List<Lease<InstanceInfo>> leases = baseInstanceRegistry.listInstance(itemId);
@@ -18,32 +18,33 @@
 package cn.hippo4j.console.service.impl;
 
 import cn.hippo4j.common.enums.DelEnum;
-import cn.hippo4j.common.model.InstanceInfo;
 import cn.hippo4j.common.toolkit.GroupKey;
 import cn.hippo4j.config.mapper.ConfigInfoMapper;
 import cn.hippo4j.config.mapper.HisRunDataMapper;
 import cn.hippo4j.config.mapper.ItemInfoMapper;
 import cn.hippo4j.config.mapper.TenantInfoMapper;
 import cn.hippo4j.config.model.*;
+import cn.hippo4j.config.monitor.ThreadPoolRankingAggregator;
 import cn.hippo4j.config.service.ConfigCacheService;
 import cn.hippo4j.console.model.*;
 import cn.hippo4j.console.service.DashboardService;
-import cn.hippo4j.discovery.core.BaseInstanceRegistry;
-import cn.hippo4j.discovery.core.Lease;
-import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.date.DateTime;
 import cn.hutool.core.date.DateUtil;
 import cn.hutool.core.lang.Dict;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.Lists;
-import lombok.AllArgsConstructor;
+import com.google.common.collect.Maps;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static cn.hippo4j.common.toolkit.ContentUtil.getGroupKey;
@@ -52,18 +53,22 @@ import static cn.hippo4j.common.toolkit.ContentUtil.getGroupKey;
  * Dashboard service impl.
  */
 @Service
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class DashboardServiceImpl implements DashboardService {
 
+    private static final long CHART_CACHE_SECONDS = 10L;
+
     private final TenantInfoMapper tenantInfoMapper;
 
     private final ItemInfoMapper itemInfoMapper;
 
     private final ConfigInfoMapper configInfoMapper;
 
-    private final HisRunDataMapper hisRunDataMapper;
+    private final ThreadPoolRankingAggregator threadPoolRankingAggregator;
+
+    private final Supplier<TenantChart> tenantChartSupplier = Suppliers.memoizeWithExpiration(this::loadTenantChart, CHART_CACHE_SECONDS, TimeUnit.SECONDS);
 
-    private final BaseInstanceRegistry baseInstanceRegistry;
+    private final Supplier<PieChartInfo> pieChartSupplier = Suppliers.memoizeWithExpiration(this::loadPieChart, CHART_CACHE_SECONDS, TimeUnit.SECONDS);
 
     @Override
     public ChartInfo getChartInfo() {
@@ -82,7 +87,7 @@ public class DashboardServiceImpl implements DashboardService {
     public LineChartInfo getLineChatInfo() {
         Date currentDate = new Date();
         DateTime startTime = DateUtil.offsetMinute(currentDate, -10);
-        List<HisRunDataMapper.ThreadPoolTaskRanking> threadPoolTaskRankings = hisRunDataMapper.queryThreadPoolMaxRanking(startTime.getTime(), currentDate.getTime());
+        List<HisRunDataMapper.ThreadPoolTaskRanking> threadPoolTaskRankings = threadPoolRankingAggregator.topByCompletedTaskCount(startTime.getTime(), currentDate.getTime(), 4);
         List<Object> oneList = Lists.newArrayList();
         List<Object> twoList = Lists.newArrayList();
         List<Object> threeList = Lists.newArrayList();
@@ -101,21 +106,25 @@ public class DashboardServiceImpl implements DashboardService {
 
     @Override
     public TenantChart getTenantChart() {
+        return tenantChartSupplier.get();
+    }
+
+    @Override
+    public PieChartInfo getPieChart() {
+        return pieChartSupplier.get();
+    }
+
+    private TenantChart loadTenantChart() {
+        Map<String, Integer> itemThreadPoolCount = queryItemThreadPoolCount();
+        Map<String, Integer> tenantThreadPoolCount = Maps.newHashMap();
+        List<ItemInfo> itemInfos = itemInfoMapper.selectList(
+                Wrappers.lambdaQuery(ItemInfo.class).eq(ItemInfo::getDelFlag, DelEnum.NORMAL).select(ItemInfo::getTenantId, ItemInfo::getItemId));
+        itemInfos.forEach(each -> tenantThreadPoolCount.merge(each.getTenantId(), itemThreadPoolCount.getOrDefault(each.getItemId(), 0), Integer::sum));
         List<Map<String, Object>> tenantChartList = Lists.newArrayList();
-        List<TenantInfo> tenantInfos = tenantInfoMapper.selectList(Wrappers.lambdaQuery(TenantInfo.class).eq(TenantInfo::getDelFlag, DelEnum.NORMAL));
+        List<TenantInfo> tenantInfos = tenantInfoMapper.selectList(
+                Wrappers.lambdaQuery(TenantInfo.class).eq(TenantInfo::getDelFlag, DelEnum.NORMAL).select(TenantInfo::getTenantId));
         for (TenantInfo tenant : tenantInfos) {
-            int tenantThreadPoolNum = 0;
-            LambdaQueryWrapper<ItemInfo> itemQueryWrapper =
-                    Wrappers.lambdaQuery(ItemInfo.class).eq(ItemInfo::getTenantId, tenant.getTenantId()).eq(ItemInfo::getDelFlag, DelEnum.NORMAL).select(ItemInfo::getItemId);
-            List<ItemInfo> itemInfos = itemInfoMapper.selectList(itemQueryWrapper);
-            for (ItemInfo item : itemInfos) {
-                LambdaQueryWrapper<ConfigAllInfo> threadPoolQueryWrapper = Wrappers.lambdaQuery(ConfigAllInfo.class)
-                        .eq(ConfigInfoBase::getItemId, item.getItemId())
-                        .eq(ConfigAllInfo::getDelFlag, DelEnum.NORMAL);
-                Integer threadPoolCount = configInfoMapper.selectCount(threadPoolQueryWrapper);
-                tenantThreadPoolNum += threadPoolCount;
-            }
-            Dict dict = Dict.create().set("name", tenant.getTenantId()).set("value", tenantThreadPoolNum);
+            Dict dict = Dict.create().set("name", tenant.getTenantId()).set("value", tenantThreadPoolCount.getOrDefault(tenant.getTenantId(), 0));
             tenantChartList.add(dict);
         }
         List resultTenantChartList = tenantChartList.stream()
@@ -125,20 +134,14 @@ public class DashboardServiceImpl implements DashboardService {
         return new TenantChart(resultTenantChartList);
     }
 
-    @Override
-    public PieChartInfo getPieChart() {
+    private PieChartInfo loadPieChart() {
+        Map<String, Integer> itemThreadPoolCount = queryItemThreadPoolCount();
         LambdaQueryWrapper<ItemInfo> itemQueryWrapper = Wrappers.lambdaQuery(ItemInfo.class).eq(ItemInfo::getDelFlag, DelEnum.NORMAL).select(ItemInfo::getItemId);
         List<Object> itemNameList = itemInfoMapper.selectObjs(itemQueryWrapper);
         List<Map<String, Object>> pieDataList = Lists.newArrayList();
         for (Object each : itemNameList) {
-            LambdaQueryWrapper<ConfigAllInfo> threadPoolQueryWrapper = Wrappers.lambdaQuery(ConfigAllInfo.class)
-                    .eq(ConfigInfoBase::getItemId, each)
-                    .eq(ConfigAllInfo::getDelFlag, DelEnum.NORMAL);
-            Integer threadPoolCount = configInfoMapper.selectCount(threadPoolQueryWrapper);
-            if (threadPoolCount != null) {
-                Dict dict = Dict.create().set("name", each).set("value", threadPoolCount);
-                pieDataList.add(dict);
-            }
+            Dict dict = Dict.create().set("name", each).set("value", itemThreadPoolCount.getOrDefault(String.valueOf(each), 0));
+            pieDataList.add(dict);
         }
         pieDataList.sort((one, two) -> (int) two.get("value") - (int) one.get("value"));
         List<String> resultItemIds = Lists.newArrayList();
@@ -152,26 +155,22 @@ public class DashboardServiceImpl implements DashboardService {
         return new PieChartInfo(resultItemIds, resultPieDataList);
     }
 
+    private Map<String, Integer> queryItemThreadPoolCount() {
+        return configInfoMapper.queryItemThreadPoolCount().stream()
+                .collect(Collectors.toMap(ConfigInfoMapper.ItemThreadPoolCount::getItemId, ConfigInfoMapper.ItemThreadPoolCount::getThreadPoolCount, Integer::sum));
+    }
+
     @Override
     public RankingChart getRankingChart() {
         Date currentDate = new Date();
         DateTime tenTime = DateUtil.offsetMinute(currentDate, -10);
         List<RankingChart.RankingChartInfo> resultList = Lists.newArrayList();
-        List<HisRunDataMapper.ThreadPoolTaskRanking> threadPoolTaskRankings = hisRunDataMapper.queryThreadPoolTaskSumRanking(tenTime.getTime(), currentDate.getTime());
+        List<HisRunDataMapper.ThreadPoolTaskRanking> threadPoolTaskRankings = threadPoolRankingAggregator.topByCompletedTaskCount(tenTime.getTime(), currentDate.getTime(), 8);
         threadPoolTaskRankings.forEach(each -> {
             RankingChart.RankingChartInfo rankingChartInfo = new RankingChart.RankingChartInfo();
             rankingChartInfo.setMaxCompletedTaskCount(each.getMaxCompletedTaskCount());
-            List<Lease<InstanceInfo>> leases = baseInstanceRegistry.listInstance(each.getItemId());
-            Lease<InstanceInfo> first = CollUtil.getFirst(leases);
-            if (first == null) {
-                rankingChartInfo.setInst(0);
-            } else {
-                InstanceInfo holder = first.getHolder();
-                String itemTenantKey = holder.getGroupKey();
-                String groupKey = getGroupKey(each.getTpId(), itemTenantKey);
-                Map<String, CacheItem> content = ConfigCacheService.getContent(groupKey);
-                rankingChartInfo.setInst(content.keySet().size());
-            }
+            String groupKey = getGroupKey(each.getTpId(), each.getItemId(), each.getTenantId());
+            rankingChartInfo.setInst(ConfigCacheService.getContentCount(groupKey));
             String keyTenant = GroupKey.getKeyTenant(each.getTenantId(), each.getItemId(), each.getTpId());
             rankingChartInfo.setGroupKey(keyTenant);
             resultList.add(rankingChartInfo);
@@ -19,15 +19,20 @@ package cn.hippo4j.core.executor;
 
 import cn.hippo4j.common.config.ApplicationContextHolder;
 import cn.hippo4j.core.executor.support.AbstractDynamicExecutorSupport;
+import cn.hippo4j.core.executor.support.CompositeTaskTimeRecorder;
+import cn.hippo4j.core.executor.support.TaskTimeRecorder;
 import cn.hippo4j.core.proxy.RejectedProxyUtil;
-import cn.hippo4j.core.toolkit.SystemClock;
+import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.Setter;
 import org.springframework.core.task.TaskDecorator;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Enhanced dynamic and monitored thread pool.
@@ -52,7 +57,23 @@ public class DynamicThreadPoolExecutor extends AbstractDynamicExecutorSupport {
     @Getter
     private final AtomicLong rejectCount = new AtomicLong();
 
-    private final ThreadLocal<Long> startTimeThreadLocal = new ThreadLocal<>();
+    @Getter
+    private final LongAdder submittedCount = new LongAdder();
+
+    @Getter
+    private final LongAdder executeTimeOutCount = new LongAdder();
+
+    /**
+     * Task time recorder, a {@link CompositeTaskTimeRecorder} when several monitors are bound.
+     */
+    @Getter
+    @Setter
+    private volatile TaskTimeRecorder taskTimeRecorder;
+
+    /**
+     * Start nanos of the running task, [1] is 1 when started. Reused per worker to keep the task path allocation-free.
+     */
+    private final ThreadLocal<long[]> startTimeThreadLocal = ThreadLocal.withInitial(() -> new long[2]);
 
     public DynamicThreadPoolExecutor(int corePoolSize,
                                      int maximumPoolSize,
@@ -80,35 +101,102 @@ public class DynamicThreadPoolExecutor extends AbstractDynamicExecutorSupport {
         if (taskDecorator != null) {
             command = taskDecorator.decorate(command);
         }
+        TaskTimeRecorder recorder = taskTimeRecorder;
+        if (recorder != null && recorder.isQueueWaitEnabled()) {
+            command = new QueuedTask(command, System.nanoTime());
+        }
+        submittedCount.increment();
         super.execute(command);
     }
 
+    @Override
+    public boolean remove(Runnable task) {
+        if (super.remove(task)) {
+            return true;
+        }
+        for (Runnable each : getQueue()) {
+            if (each instanceof QueuedTask && ((QueuedTask) each).task == task) {
+                return super.remove(each);
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void purge() {
+        getQueue().removeIf(each -> each instanceof QueuedTask
+                && ((QueuedTask) each).task instanceof Future
+                && ((Future<?>) ((QueuedTask) each).task).isCancelled());
+        super.purge();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        List<Runnable> tasks = super.shutdownNow();
+        List<Runnable> result = new ArrayList<>(tasks.size());
+        tasks.forEach(each -> result.add(unwrap(each)));
+        return result;
+    }
+
+    /**
+     * Add a task time recorder next to the ones already bound.
+     *
+     * @param recorder task time recorder
+     */
+    public synchronized void addTaskTimeRecorder(@NonNull TaskTimeRecorder recorder) {
+        taskTimeRecorder = CompositeTaskTimeRecorder.of(taskTimeRecorder, recorder);
+    }
+
+    /**
+     * Unwrap the task submitted by the user from the queue wait wrapper.
+     *
+     * @param task task taken from the queue
+     * @return submitted task
+     */
+    public static Runnable unwrap(Runnable task) {
+        return task instanceof QueuedTask ? ((QueuedTask) task).task : task;
+    }
+
     @Override
     protected void beforeExecute(Thread t, Runnable r) {
-        if (executeTimeOut == null || executeTimeOut <= 0) {
+        TaskTimeRecorder recorder = taskTimeRecorder;
+        if (recorder == null && (executeTimeOut == null || executeTimeOut <= 0)) {
             return;
         }
-        startTimeThreadLocal.set(SystemClock.now());
+        long now = System.nanoTime();
+        if (recorder != null && r instanceof QueuedTask) {
+            recorder.recordQueueWait(now - ((QueuedTask) r).submitTime);
+        }
+        long[] startTime = startTimeThreadLocal.get();
+        startTime[0] = now;
+        startTime[1] = 1L;
     }
 
     @Override
     protected void afterExecute(Runnable r, Throwable t) {
-        Long startTime;
-        if ((startTime = startTimeThreadLocal.get()) == null) {
+        long[] startTime = startTimeThreadLocal.get();
+        if (startTime[1] == 0L) {
+            return;
+        }
+        startTime[1] = 0L;
+        long executeNanos = System.nanoTime() - startTime[0];
+        TaskTimeRecorder recorder = taskTimeRecorder;
+        if (recorder != null) {
+            recorder.recordExecute(executeNanos);
+        }
+        Long executeTimeOut = this.executeTimeOut;
+        if (executeTimeOut == null || executeTimeOut <= 0) {
             return;
         }
-        try {
-            long endTime = SystemClock.now();
-            long executeTime;
-            boolean executeTimeAlarm = (executeTime = (endTime - startTime)) > executeTimeOut;
-            if (executeTimeAlarm && ApplicationContextHolder.getInstance() != null) {
+        long executeTime = TimeUnit.NANOSECONDS.toMillis(executeNanos);
+        if (executeTime > executeTimeOut) {
+            executeTimeOutCount.increment();
+            if (ApplicationContextHolder.getInstance() != null) {
                 ThreadPoolNotifyAlarmHandler notifyAlarmHandler = ApplicationContextHolder.getBean(ThreadPoolNotifyAlarmHandler.class);
                 if (notifyAlarmHandler != null) {
                     notifyAlarmHandler.asyncSendExecuteTimeOutAlarm(threadPoolId, executeTime, executeTimeOut, this);
                 }
             }
-        } finally {
-            startTimeThreadLocal.remove();
         }
     }
 
@@ -120,4 +208,20 @@ public class DynamicThreadPoolExecutor extends AbstractDynamicExecutorSupport {
     public Long getRejectCountNum() {
         return rejectCount.get();
     }
+
+    /**
+     * Task carrying its submit time, only used when queue wait time is recorded.
+     */
+    @AllArgsConstructor
+    private static class QueuedTask implements Runnable {
+
+        private final Runnable task;
+
+        private final long submitTime;
+
+        @Override
+        public void run() {
+            task.run();
+        }
+    }
 }
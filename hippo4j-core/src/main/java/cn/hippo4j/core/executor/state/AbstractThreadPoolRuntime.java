@@ -42,6 +42,15 @@ public abstract class AbstractThreadPoolRuntime {
      */
     public abstract ThreadPoolRunStateInfo supplement(ThreadPoolRunStateInfo threadPoolRunStateInfo);
 
+    /**
+     * Create the run state info to fill, a subtype can be returned so that {@link #supplement} needs no copy.
+     *
+     * @return
+     */
+    protected ThreadPoolRunStateInfo newRunStateInfo() {
+        return new ThreadPoolRunStateInfo();
+    }
+
     /**
      * Get pool run state.
      *
@@ -62,7 +71,7 @@ public abstract class AbstractThreadPoolRuntime {
      * @return
      */
     public ThreadPoolRunStateInfo getPoolRunState(String threadPoolId, Executor executor) {
-        ThreadPoolRunStateInfo stateInfo = new ThreadPoolRunStateInfo();
+        ThreadPoolRunStateInfo stateInfo = newRunStateInfo();
         ThreadPoolExecutor pool = (ThreadPoolExecutor) executor;
         // 核心线程数
         int corePoolSize = pool.getCorePoolSize();
@@ -25,10 +25,9 @@ import cn.hippo4j.core.executor.DynamicThreadPoolWrapper;
 import cn.hippo4j.core.executor.manage.GlobalThreadPoolManage;
 import cn.hippo4j.core.executor.support.AbstractDynamicExecutorSupport;
 import cn.hippo4j.core.toolkit.inet.InetUtils;
-import cn.hutool.core.bean.BeanUtil;
 import cn.hutool.core.util.StrUtil;
-import cn.hutool.system.RuntimeInfo;
 import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.env.ConfigurableEnvironment;
 
@@ -38,29 +37,38 @@ import static cn.hippo4j.core.toolkit.IdentifyUtil.CLIENT_IDENTIFICATION_VALUE;
 
 /**
  * Thread pool run state service.
+ *
+ * <p> Instance level facts, host, active profile and memory, are shared by every pool and
+ * refreshed at most every {@link #INSTANCE_INFO_REFRESH_INTERVAL} ms.
  */
 @Slf4j
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class ThreadPoolRunStateHandler extends AbstractThreadPoolRuntime {
 
+    private static final long INSTANCE_INFO_REFRESH_INTERVAL = 10000L;
+
     private final InetUtils hippo4JInetUtils;
 
     private final ConfigurableEnvironment environment;
 
+    private volatile InstanceInfo instanceInfo;
+
+    @Override
+    protected ThreadPoolRunStateInfo newRunStateInfo() {
+        return new ManyThreadPoolRunStateInfo();
+    }
+
     @Override
     public ThreadPoolRunStateInfo supplement(ThreadPoolRunStateInfo poolRunStateInfo) {
-        RuntimeInfo runtimeInfo = new RuntimeInfo();
-        String memoryProportion = StrUtil.builder(
-                "已分配: ",
-                ByteConvertUtil.getPrintSize(runtimeInfo.getTotalMemory()),
-                " / 最大可用: ",
-                ByteConvertUtil.getPrintSize(runtimeInfo.getMaxMemory())).toString();
-        poolRunStateInfo.setCurrentLoad(poolRunStateInfo.getCurrentLoad() + "%");
-        poolRunStateInfo.setPeakLoad(poolRunStateInfo.getPeakLoad() + "%");
-        String ipAddress = hippo4JInetUtils.findFirstNonLoopBackHostInfo().getIpAddress();
-        poolRunStateInfo.setHost(ipAddress);
-        poolRunStateInfo.setMemoryProportion(memoryProportion);
-        poolRunStateInfo.setFreeMemory(ByteConvertUtil.getPrintSize(runtimeInfo.getFreeMemory()));
+        InstanceInfo instanceInfo = getInstanceInfo();
+        ManyThreadPoolRunStateInfo manyThreadPoolRunStateInfo = poolRunStateInfo instanceof ManyThreadPoolRunStateInfo
+                ? (ManyThreadPoolRunStateInfo) poolRunStateInfo
+                : copy(poolRunStateInfo);
+        manyThreadPoolRunStateInfo.setCurrentLoad(poolRunStateInfo.getCurrentLoad() + "%");
+        manyThreadPoolRunStateInfo.setPeakLoad(poolRunStateInfo.getPeakLoad() + "%");
+        manyThreadPoolRunStateInfo.setHost(instanceInfo.host);
+        manyThreadPoolRunStateInfo.setMemoryProportion(instanceInfo.memoryProportion);
+        manyThreadPoolRunStateInfo.setFreeMemory(instanceInfo.freeMemory);
         String threadPoolId = poolRunStateInfo.getTpId();
         DynamicThreadPoolWrapper executorService = GlobalThreadPoolManage.getExecutorService(threadPoolId);
         ThreadPoolExecutor pool = executorService.getExecutor();
@@ -70,13 +78,72 @@ public class ThreadPoolRunStateHandler extends AbstractThreadPoolRuntime {
         } else {
             rejectedName = pool.getRejectedExecutionHandler().getClass().getSimpleName();
         }
-        poolRunStateInfo.setRejectedName(rejectedName);
-        ManyThreadPoolRunStateInfo manyThreadPoolRunStateInfo = BeanUtil.toBean(poolRunStateInfo, ManyThreadPoolRunStateInfo.class);
+        manyThreadPoolRunStateInfo.setRejectedName(rejectedName);
         manyThreadPoolRunStateInfo.setIdentify(CLIENT_IDENTIFICATION_VALUE);
-        String active = environment.getProperty("spring.profiles.active", "UNKNOWN");
-        manyThreadPoolRunStateInfo.setActive(active.toUpperCase());
-        String threadPoolState = ThreadPoolStatusHandler.getThreadPoolState(pool);
-        manyThreadPoolRunStateInfo.setState(threadPoolState);
+        manyThreadPoolRunStateInfo.setActive(instanceInfo.active);
+        manyThreadPoolRunStateInfo.setState(ThreadPoolStatusHandler.getThreadPoolState(pool));
         return manyThreadPoolRunStateInfo;
     }
+
+    private InstanceInfo getInstanceInfo() {
+        InstanceInfo current = instanceInfo;
+        long now = System.currentTimeMillis();
+        if (current == null || now - current.refreshTime > INSTANCE_INFO_REFRESH_INTERVAL) {
+            Runtime runtime = Runtime.getRuntime();
+            String memoryProportion = StrUtil.builder(
+                    "已分配: ",
+                    ByteConvertUtil.getPrintSize(runtime.totalMemory()),
+                    " / 最大可用: ",
+                    ByteConvertUtil.getPrintSize(runtime.maxMemory())).toString();
+            current = new InstanceInfo(
+                    hippo4JInetUtils.findFirstNonLoopBackHostInfo().getIpAddress(),
+                    environment.getProperty("spring.profiles.active", "UNKNOWN").toUpperCase(),
+                    memoryProportion,
+                    ByteConvertUtil.getPrintSize(runtime.freeMemory()),
+                    now);
+            instanceInfo = current;
+        }
+        return current;
+    }
+
+    private static ManyThreadPoolRunStateInfo copy(ThreadPoolRunStateInfo source) {
+        ManyThreadPoolRunStateInfo target = new ManyThreadPoolRunStateInfo();
+        target.setCoreSize(source.getCoreSize());
+        target.setMaximumSize(source.getMaximumSize());
+        target.setQueueType(source.getQueueType());
+        target.setQueueCapacity(source.getQueueCapacity());
+        target.setRejectedName(source.getRejectedName());
+        target.setKeepAliveTime(source.getKeepAliveTime());
+        target.setCurrentLoad(source.getCurrentLoad());
+        target.setPeakLoad(source.getPeakLoad());
+        target.setTpId(source.getTpId());
+        target.setActiveCount(source.getActiveCount());
+        target.setPoolSize(source.getPoolSize());
+        target.setActiveSize(source.getActiveSize());
+        target.setLargestPoolSize(source.getLargestPoolSize());
+        target.setQueueSize(source.getQueueSize());
+        target.setQueueRemainingCapacity(source.getQueueRemainingCapacity());
+        target.setCompletedTaskCount(source.getCompletedTaskCount());
+        target.setRejectCount(source.getRejectCount());
+        target.setHost(source.getHost());
+        target.setMemoryProportion(source.getMemoryProportion());
+        target.setFreeMemory(source.getFreeMemory());
+        target.setClientLastRefreshTime(source.getClientLastRefreshTime());
+        target.setTimestamp(source.getTimestamp());
+        return target;
+    }
+
+    @AllArgsConstructor
+    private static class InstanceInfo {
+
+        private final String host;
+
+        private final String active;
+
+        private final String memoryProportion;
+
+        private final String freeMemory;
+
+        private final long refreshTime;
+    }
 }
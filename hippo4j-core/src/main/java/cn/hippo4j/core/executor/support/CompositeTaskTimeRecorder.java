@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.core.executor.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Task time recorder forwarding to several recorders, so that every monitor can bind its own.
+ */
+public class CompositeTaskTimeRecorder implements TaskTimeRecorder {
+
+    private final TaskTimeRecorder[] recorders;
+
+    private final boolean queueWaitEnabled;
+
+    private CompositeTaskTimeRecorder(TaskTimeRecorder[] recorders) {
+        this.recorders = recorders;
+        boolean enabled = false;
+        for (TaskTimeRecorder each : recorders) {
+            enabled |= each.isQueueWaitEnabled();
+        }
+        this.queueWaitEnabled = enabled;
+    }
+
+    /**
+     * Combine two recorders, either may be null or itself a composite.
+     *
+     * @param one     recorder
+     * @param another recorder
+     * @return combined recorder, or null if both are null
+     */
+    public static TaskTimeRecorder of(TaskTimeRecorder one, TaskTimeRecorder another) {
+        if (one == null || another == null) {
+            return one == null ? another : one;
+        }
+        List<TaskTimeRecorder> recorders = new ArrayList<>();
+        recorders.addAll(getRecorders(one));
+        recorders.addAll(getRecorders(another));
+        return new CompositeTaskTimeRecorder(recorders.toArray(new TaskTimeRecorder[0]));
+    }
+
+    /**
+     * Recorders of a possibly composite recorder.
+     *
+     * @param recorder recorder, may be null
+     * @return recorders
+     */
+    public static List<TaskTimeRecorder> getRecorders(TaskTimeRecorder recorder) {
+        if (recorder == null) {
+            return Collections.emptyList();
+        }
+        if (recorder instanceof CompositeTaskTimeRecorder) {
+            List<TaskTimeRecorder> recorders = new ArrayList<>();
+            Collections.addAll(recorders, ((CompositeTaskTimeRecorder) recorder).recorders);
+            return recorders;
+        }
+        return Collections.singletonList(recorder);
+    }
+
+    @Override
+    public boolean isQueueWaitEnabled() {
+        return queueWaitEnabled;
+    }
+
+    @Override
+    public void recordQueueWait(long nanos) {
+        for (TaskTimeRecorder each : recorders) {
+            if (each.isQueueWaitEnabled()) {
+                each.recordQueueWait(nanos);
+            }
+        }
+    }
+
+    @Override
+    public void recordExecute(long nanos) {
+        for (TaskTimeRecorder each : recorders) {
+            each.recordExecute(nanos);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.core.executor.support;
+
+/**
+ * Task time recorder, called on the task path so implementations must not allocate.
+ */
+public interface TaskTimeRecorder {
+
+    /**
+     * Whether to record queue wait time, which wraps each submitted task with its submit time.
+     * The executor unwraps tasks for remove, purge, shutdownNow and rejected handlers, but
+     * {@code getQueue()} exposes the wrappers.
+     *
+     * @return
+     */
+    boolean isQueueWaitEnabled();
+
+    /**
+     * Record the time a task waited in the queue.
+     *
+     * @param nanos
+     */
+    void recordQueueWait(long nanos);
+
+    /**
+     * Record the execute time of a task.
+     *
+     * @param nanos
+     */
+    void recordExecute(long nanos);
+}
@@ -18,6 +18,7 @@
 package cn.hippo4j.core.proxy;
 
 import cn.hippo4j.common.config.ApplicationContextHolder;
+import cn.hippo4j.core.executor.DynamicThreadPoolExecutor;
 import cn.hippo4j.core.executor.ThreadPoolNotifyAlarmHandler;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -51,6 +52,9 @@ public class RejectedProxyInvocationHandler implements InvocationHandler {
                 log.error("Failed to send rejection policy alert.", ex);
             }
         }
+        if (args != null && args.length > 0 && args[0] instanceof Runnable) {
+            args[0] = DynamicThreadPoolExecutor.unwrap((Runnable) args[0]);
+        }
         try {
             return method.invoke(target, args);
         } catch (InvocationTargetException ex) {
@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.core.executor;
+
+import cn.hippo4j.common.toolkit.Assert;
+import cn.hippo4j.core.executor.support.CompositeTaskTimeRecorder;
+import cn.hippo4j.core.executor.support.TaskTimeRecorder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class DynamicThreadPoolExecutorTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private DynamicThreadPoolExecutor executor;
+
+    @Before
+    public void setUp() throws Exception {
+        executor = new DynamicThreadPoolExecutor(1, 1, 1000L, TimeUnit.MILLISECONDS, 0L, false, 0L,
+                new LinkedBlockingQueue<>(16), "test-pool", Executors.defaultThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+        executor.addTaskTimeRecorder(new CountingTaskTimeRecorder(true));
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            awaitQuietly(release);
+        });
+        started.await();
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void assertRemoveUnwrapsQueuedTask() {
+        Runnable task = () -> {
+        };
+        executor.execute(task);
+        Assert.isTrue(executor.getQueue().size() == 1);
+        Assert.isTrue(executor.remove(task));
+        Assert.isTrue(executor.getQueue().isEmpty());
+    }
+
+    @Test
+    public void assertPurgeRemovesCancelledQueuedTask() {
+        Future<?> future = executor.submit(() -> {
+        });
+        executor.submit(() -> {
+        });
+        future.cancel(false);
+        executor.purge();
+        Assert.isTrue(executor.getQueue().size() == 1);
+    }
+
+    @Test
+    public void assertShutdownNowReturnsSubmittedTasks() {
+        Runnable task = () -> {
+        };
+        executor.execute(task);
+        List<Runnable> tasks = executor.shutdownNow();
+        Assert.isTrue(tasks.size() == 1 && tasks.get(0) == task);
+    }
+
+    @Test
+    public void assertCompositeRecorderForwardsToEveryRecorder() throws Exception {
+        release.countDown();
+        while (executor.getCompletedTaskCount() < 1) {
+            Thread.sleep(10L);
+        }
+        CountingTaskTimeRecorder queueWaitRecorder = new CountingTaskTimeRecorder(true);
+        CountingTaskTimeRecorder executeRecorder = new CountingTaskTimeRecorder(false);
+        executor.setTaskTimeRecorder(null);
+        executor.addTaskTimeRecorder(queueWaitRecorder);
+        executor.addTaskTimeRecorder(executeRecorder);
+        Assert.isTrue(CompositeTaskTimeRecorder.getRecorders(executor.getTaskTimeRecorder()).size() == 2);
+        Future<?> future = executor.submit(() -> {
+        });
+        future.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+        Assert.isTrue(queueWaitRecorder.queueWaits.get() == 1L && queueWaitRecorder.executes.get() == 1L);
+        Assert.isTrue(executeRecorder.queueWaits.get() == 0L && executeRecorder.executes.get() == 1L);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class CountingTaskTimeRecorder implements TaskTimeRecorder {
+
+        private final boolean queueWaitEnabled;
+
+        private final AtomicLong queueWaits = new AtomicLong();
+
+        private final AtomicLong executes = new AtomicLong();
+
+        CountingTaskTimeRecorder(boolean queueWaitEnabled) {
+            this.queueWaitEnabled = queueWaitEnabled;
+        }
+
+        @Override
+        public boolean isQueueWaitEnabled() {
+            return queueWaitEnabled;
+        }
+
+        @Override
+        public void recordQueueWait(long nanos) {
+            queueWaits.incrementAndGet();
+        }
+
+        @Override
+        public void recordExecute(long nanos) {
+            executes.incrementAndGet();
+        }
+    }
+}
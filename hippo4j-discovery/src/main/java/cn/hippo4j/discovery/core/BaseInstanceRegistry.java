@@ -31,6 +31,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.TimerTask;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -44,6 +45,9 @@ import static cn.hippo4j.common.constant.Constants.SCHEDULED_THREAD_CORE_NUM;
  * Base instance registry.
  *
  * <p> Reference from Eureka. Service registration, service offline, service renewal.
+ *
+ * <p> Leases are also kept in a set ordered by expiration time, so eviction only visits the leases that are due.
+ * Renewal does not touch the set, a due lease that has been renewed is put back with its new expiration time.
  */
 @Slf4j
 @Service
@@ -53,6 +57,10 @@ public class BaseInstanceRegistry implements InstanceRegistry<InstanceInfo> {
 
     private final ConcurrentHashMap<String, Map<String, Lease<InstanceInfo>>> registry = new ConcurrentHashMap(containerSize);
 
+    private final ConcurrentSkipListSet<LeaseExpiration> expirationQueue = new ConcurrentSkipListSet();
+
+    private final AtomicLong expirationSequence = new AtomicLong();
+
     @Override
     public List<Lease<InstanceInfo>> listInstance(String appName) {
         Map<String, Lease<InstanceInfo>> appNameLeaseMap = registry.get(appName);
@@ -87,6 +95,7 @@ public class BaseInstanceRegistry implements InstanceRegistry<InstanceInfo> {
             lease.setServiceUpTimestamp(existingLease.getServiceUpTimestamp());
         }
         registerMap.put(registrant.getInstanceId(), lease);
+        expirationQueue.add(new LeaseExpiration(lease, registrant.getAppName(), registrant.getInstanceId()));
         if (InstanceStatus.UP.equals(registrant.getStatus())) {
             lease.serviceUp();
         }
@@ -125,34 +134,64 @@ public class BaseInstanceRegistry implements InstanceRegistry<InstanceInfo> {
     }
 
     public void evict(long additionalLeaseMs) {
-        List<Lease<InstanceInfo>> expiredLeases = new ArrayList();
-        for (Map.Entry<String, Map<String, Lease<InstanceInfo>>> groupEntry : registry.entrySet()) {
-            Map<String, Lease<InstanceInfo>> leaseMap = groupEntry.getValue();
-            if (leaseMap != null) {
-                for (Map.Entry<String, Lease<InstanceInfo>> leaseEntry : leaseMap.entrySet()) {
-                    Lease<InstanceInfo> lease = leaseEntry.getValue();
-                    if (lease.isExpired(additionalLeaseMs) && lease.getHolder() != null) {
-                        expiredLeases.add(lease);
-                    }
+        long now = System.currentTimeMillis();
+        List<String> expiredIdentifies = new ArrayList();
+        LeaseExpiration expiration;
+        while ((expiration = expirationQueue.pollFirst()) != null) {
+            if (expiration.expirationTimestamp + additionalLeaseMs >= now) {
+                expirationQueue.add(expiration);
+                break;
+            }
+            Lease<InstanceInfo> lease = expiration.lease;
+            Map<String, Lease<InstanceInfo>> registerMap = registry.get(expiration.appName);
+            if (registerMap == null || registerMap.get(expiration.instanceId) != lease) {
+                // Removed or registered again, the current lease has its own entry.
+                continue;
+            }
+            if (!lease.isExpired(additionalLeaseMs)) {
+                expirationQueue.add(new LeaseExpiration(lease, expiration.appName, expiration.instanceId));
+                continue;
+            }
+            if (registerMap.remove(expiration.instanceId, lease)) {
+                if (lease.getHolder() != null) {
+                    expiredIdentifies.add(lease.getHolder().getIdentify());
                 }
+                log.info("Clean up unhealthy nodes. Node id: {}", expiration.instanceId);
             }
         }
-        for (Lease<InstanceInfo> expiredLease : expiredLeases) {
-            String appName = expiredLease.getHolder().getAppName();
-            String id = expiredLease.getHolder().getInstanceId();
-            String identify = expiredLease.getHolder().getIdentify();
-            internalCancel(appName, id, identify);
+        if (!expiredIdentifies.isEmpty()) {
+            AbstractSubjectCenter.notify(AbstractSubjectCenter.SubjectType.CLEAR_CONFIG_CACHE, () -> expiredIdentifies);
         }
     }
 
-    protected boolean internalCancel(String appName, String id, String identify) {
-        Map<String, Lease<InstanceInfo>> registerMap = registry.get(appName);
-        if (!CollectionUtils.isEmpty(registerMap)) {
-            registerMap.remove(id);
-            AbstractSubjectCenter.notify(AbstractSubjectCenter.SubjectType.CLEAR_CONFIG_CACHE, () -> identify);
-            log.info("Clean up unhealthy nodes. Node id: {}", id);
+    /**
+     * Lease expiration entry, ordered by expiration time.
+     */
+    private class LeaseExpiration implements Comparable<LeaseExpiration> {
+
+        private final Lease<InstanceInfo> lease;
+
+        private final String appName;
+
+        private final String instanceId;
+
+        private final long expirationTimestamp;
+
+        private final long sequence;
+
+        LeaseExpiration(Lease<InstanceInfo> lease, String appName, String instanceId) {
+            this.lease = lease;
+            this.appName = appName;
+            this.instanceId = instanceId;
+            this.expirationTimestamp = lease.getExpirationTimestamp();
+            this.sequence = expirationSequence.incrementAndGet();
+        }
+
+        @Override
+        public int compareTo(LeaseExpiration other) {
+            int result = Long.compare(expirationTimestamp, other.expirationTimestamp);
+            return result != 0 ? result : Long.compare(sequence, other.sequence);
         }
-        return true;
     }
 
     public class EvictionTask extends TimerTask {
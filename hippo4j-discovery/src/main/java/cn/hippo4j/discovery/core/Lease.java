@@ -91,6 +91,15 @@ public class Lease<T> {
         return (evictionTimestamp > 0 || System.currentTimeMillis() > (lastUpdateTimestamp + duration + additionalLeaseMs));
     }
 
+    /**
+     * The time after which the lease is expired unless renewed.
+     *
+     * @return
+     */
+    public long getExpirationTimestamp() {
+        return lastUpdateTimestamp + duration;
+    }
+
     public long getRegistrationTimestamp() {
         return registrationTimestamp;
     }
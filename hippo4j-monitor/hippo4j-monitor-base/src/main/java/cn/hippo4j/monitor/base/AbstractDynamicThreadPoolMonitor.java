@@ -20,6 +20,7 @@ package cn.hippo4j.monitor.base;
 import cn.hippo4j.common.model.ThreadPoolRunStateInfo;
 import cn.hippo4j.core.executor.manage.GlobalThreadPoolManage;
 import cn.hippo4j.core.executor.state.ThreadPoolRunStateHandler;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
 import java.util.List;
@@ -30,6 +31,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public abstract class AbstractDynamicThreadPoolMonitor implements DynamicThreadPoolMonitor {
 
+    @Getter
     private final ThreadPoolRunStateHandler threadPoolRunStateHandler;
 
     /**
@@ -47,4 +49,9 @@ public abstract class AbstractDynamicThreadPoolMonitor implements DynamicThreadP
             execute(poolRunState);
         }
     }
+
+    @Override
+    public void collect(List<ThreadPoolRunStateInfo> runStates) {
+        runStates.forEach(this::execute);
+    }
 }
@@ -40,5 +40,10 @@ public enum MonitorTypeEnum {
     /**
      * ELASTICSEARCH
      */
-    ELASTICSEARCH
+    ELASTICSEARCH,
+
+    /**
+     * OPENTELEMETRY
+     */
+    OPENTELEMETRY
 }
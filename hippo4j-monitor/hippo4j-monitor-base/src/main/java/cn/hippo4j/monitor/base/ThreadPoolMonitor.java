@@ -17,6 +17,10 @@
 
 package cn.hippo4j.monitor.base;
 
+import cn.hippo4j.common.model.ThreadPoolRunStateInfo;
+
+import java.util.List;
+
 /**
  * Thread-pool monitor.
  */
@@ -33,4 +37,13 @@ public interface ThreadPoolMonitor {
      * Collect data.
      */
     void collect();
+
+    /**
+     * Collect data from a run state snapshot shared by all monitors, which must not be modified.
+     *
+     * @param runStates run state of every thread pool
+     */
+    default void collect(List<ThreadPoolRunStateInfo> runStates) {
+        collect();
+    }
 }
@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.monitor.base;
+
+import cn.hippo4j.common.model.ThreadPoolRunStateInfo;
+import cn.hippo4j.core.executor.manage.GlobalThreadPoolManage;
+import cn.hippo4j.core.executor.state.ThreadPoolRunStateHandler;
+import cn.hippo4j.core.executor.support.ThreadFactoryBuilder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-pool monitor dispatcher.
+ *
+ * <p> Each tick snapshots the run state of every thread pool once and hands the shared batch
+ * to each monitor on its own worker, so a slow monitor neither delays the others nor piles
+ * up work: while it is still busy its ticks are skipped, and it is interrupted once it runs
+ * longer than the timeout.
+ */
+@Slf4j
+public class ThreadPoolMonitorDispatcher {
+
+    private final ThreadPoolRunStateHandler threadPoolRunStateHandler;
+
+    private final long timeoutMillis;
+
+    private final List<MonitorWorker> workers = new ArrayList<>();
+
+    private final boolean snapshotRequired;
+
+    public ThreadPoolMonitorDispatcher(ThreadPoolRunStateHandler threadPoolRunStateHandler, List<ThreadPoolMonitor> monitors, long timeoutMillis) {
+        this.threadPoolRunStateHandler = threadPoolRunStateHandler;
+        this.timeoutMillis = timeoutMillis;
+        monitors.forEach(each -> workers.add(new MonitorWorker(each)));
+        this.snapshotRequired = monitors.stream().anyMatch(each -> each instanceof AbstractDynamicThreadPoolMonitor);
+    }
+
+    /**
+     * Snapshot every thread pool and dispatch the batch to all monitors.
+     */
+    public void dispatch() {
+        long tickTime = System.currentTimeMillis();
+        List<ThreadPoolRunStateInfo> runStates = snapshotRequired ? snapshot() : Collections.emptyList();
+        workers.forEach(each -> each.submit(runStates, tickTime));
+    }
+
+    /**
+     * Get lag and error statistics of each monitor.
+     *
+     * @return monitor type to statistics
+     */
+    public Map<String, MonitorStats> getMonitorStats() {
+        Map<String, MonitorStats> monitorStats = new LinkedHashMap<>();
+        workers.forEach(each -> monitorStats.put(each.monitor.getType(), each.stats));
+        return monitorStats;
+    }
+
+    /**
+     * Stop all monitor workers.
+     */
+    public void shutdown() {
+        workers.forEach(each -> each.executor.shutdownNow());
+    }
+
+    private List<ThreadPoolRunStateInfo> snapshot() {
+        List<String> threadPoolIds = GlobalThreadPoolManage.listThreadPoolId();
+        List<ThreadPoolRunStateInfo> runStates = new ArrayList<>(threadPoolIds.size());
+        for (String each : threadPoolIds) {
+            try {
+                runStates.add(threadPoolRunStateHandler.getPoolRunState(each));
+            } catch (Exception ex) {
+                log.error("Failed to get run state of dynamic thread pool: {}", each, ex);
+            }
+        }
+        return Collections.unmodifiableList(runStates);
+    }
+
+    private class MonitorWorker {
+
+        private final ThreadPoolMonitor monitor;
+
+        private final ThreadPoolExecutor executor;
+
+        private final MonitorStats stats = new MonitorStats();
+
+        private volatile Future<?> future;
+
+        private volatile long startTime;
+
+        MonitorWorker(ThreadPoolMonitor monitor) {
+            this.monitor = monitor;
+            this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1),
+                    ThreadFactoryBuilder.builder().daemon(true).prefix("client.monitor." + monitor.getType()).build());
+        }
+
+        void submit(List<ThreadPoolRunStateInfo> runStates, long tickTime) {
+            Future<?> previous = future;
+            if (previous != null && !previous.isDone()) {
+                if (System.currentTimeMillis() - startTime > timeoutMillis) {
+                    previous.cancel(true);
+                    stats.timeoutCount.increment();
+                    log.warn("Thread pool monitor timed out and was interrupted. Type: {}, timeout: {}ms", monitor.getType(), timeoutMillis);
+                }
+                stats.skippedCount.increment();
+                return;
+            }
+            try {
+                startTime = System.currentTimeMillis();
+                future = executor.submit(() -> collect(runStates, tickTime));
+            } catch (RejectedExecutionException ex) {
+                stats.skippedCount.increment();
+            }
+        }
+
+        private void collect(List<ThreadPoolRunStateInfo> runStates, long tickTime) {
+            try {
+                monitor.collect(runStates);
+            } catch (Throwable ex) {
+                stats.errorCount.increment();
+                log.error("Error monitoring the running status of dynamic thread pool. Type: {}", monitor.getType(), ex);
+            } finally {
+                stats.lastLagMillis = System.currentTimeMillis() - tickTime;
+            }
+        }
+    }
+
+    /**
+     * Monitor statistics.
+     */
+    public static class MonitorStats {
+
+        /**
+         * Time from the tick snapshot to the end of the last collection. unit: ms
+         */
+        @Getter
+        private volatile long lastLagMillis;
+
+        private final LongAdder errorCount = new LongAdder();
+
+        private final LongAdder timeoutCount = new LongAdder();
+
+        private final LongAdder skippedCount = new LongAdder();
+
+        public long getErrorCount() {
+            return errorCount.sum();
+        }
+
+        public long getTimeoutCount() {
+            return timeoutCount.sum();
+        }
+
+        public long getSkippedCount() {
+            return skippedCount.sum();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.monitor.es;
+
+import cn.hippo4j.core.executor.support.ThreadFactoryBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.elasticsearch.action.bulk.BackoffPolicy;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkProcessor;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.common.unit.TimeValue;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Elastic-search bulk sender.
+ *
+ * <p> Documents are buffered in a bounded queue and drained by a single thread into a
+ * {@link BulkProcessor}, so the collect thread never blocks on elastic-search. Documents
+ * are dropped when the buffer is full or the sender is closed.
+ */
+@Slf4j
+public class EsBulkSender {
+
+    private static final long DROP_LOG_INTERVAL = 1000L;
+
+    private final BlockingQueue<IndexRequest> buffer;
+
+    private final BulkProcessor bulkProcessor;
+
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private final AtomicLong failedCount = new AtomicLong();
+
+    private final Thread drainThread;
+
+    private volatile boolean closed;
+
+    public EsBulkSender(RestHighLevelClient client, int bufferCapacity, int bulkActions, long flushIntervalMillis) {
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        this.bulkProcessor = BulkProcessor.builder((request, listener) -> client.bulkAsync(request, RequestOptions.DEFAULT, listener), new BulkListener())
+                .setBulkActions(bulkActions)
+                .setFlushInterval(TimeValue.timeValueMillis(flushIntervalMillis))
+                .setConcurrentRequests(1)
+                .setBackoffPolicy(BackoffPolicy.exponentialBackoff(TimeValue.timeValueMillis(100), 3))
+                .build();
+        this.drainThread = ThreadFactoryBuilder.builder().daemon(true).prefix("client.es.bulk.sender").build().newThread(this::drain);
+        drainThread.start();
+    }
+
+    /**
+     * Buffer the document without blocking.
+     *
+     * @param request index request
+     * @return false if the buffer is full and the document was dropped
+     */
+    public boolean offer(IndexRequest request) {
+        if (closed) {
+            return false;
+        }
+        if (buffer.offer(request)) {
+            return true;
+        }
+        long dropped = droppedCount.incrementAndGet();
+        if (dropped % DROP_LOG_INTERVAL == 1) {
+            log.warn("Elastic-search bulk buffer is full, dropped: {}, failed: {}", dropped, failedCount.get());
+        }
+        return false;
+    }
+
+    /**
+     * Documents dropped because the buffer was full.
+     *
+     * @return dropped count
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Documents rejected by elastic-search or lost with a failed bulk request.
+     *
+     * @return failed count
+     */
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    /**
+     * Stop the drain thread, hand the buffered documents to the bulk processor and wait for the last bulk.
+     *
+     * @param timeoutMillis max time to wait for the last bulk
+     */
+    public void close(long timeoutMillis) {
+        closed = true;
+        drainThread.interrupt();
+        try {
+            drainThread.join(timeoutMillis);
+            IndexRequest request;
+            while ((request = buffer.poll()) != null) {
+                bulkProcessor.add(request);
+            }
+            if (!bulkProcessor.awaitClose(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                log.warn("Elastic-search bulk processor did not finish in {} ms.", timeoutMillis);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            bulkProcessor.close();
+        }
+    }
+
+    private void drain() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                IndexRequest request = buffer.poll(1, TimeUnit.SECONDS);
+                if (request != null) {
+                    bulkProcessor.add(request);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } catch (Exception ex) {
+                log.error("Elastic-search bulk add error.", ex);
+            }
+        }
+    }
+
+    private class BulkListener implements BulkProcessor.Listener {
+
+        @Override
+        public void beforeBulk(long executionId, BulkRequest request) {
+        }
+
+        @Override
+        public void afterBulk(long executionId, BulkRequest request, BulkResponse response) {
+            if (response.hasFailures()) {
+                long failedItems = 0L;
+                for (BulkItemResponse each : response.getItems()) {
+                    if (each.isFailed()) {
+                        failedItems++;
+                    }
+                }
+                long failed = failedCount.addAndGet(failedItems);
+                log.warn("Elastic-search bulk has failures, failed: {}, cause: {}", failed, response.buildFailureMessage());
+            } else if (log.isDebugEnabled()) {
+                log.debug("Write {} thread-pool states to es.", request.numberOfActions());
+            }
+        }
+
+        @Override
+        public void afterBulk(long executionId, BulkRequest request, Throwable failure) {
+            long failed = failedCount.addAndGet(request.numberOfActions());
+            log.error("Elastic-search bulk error, failed: {}", failed, failure);
+        }
+    }
+}
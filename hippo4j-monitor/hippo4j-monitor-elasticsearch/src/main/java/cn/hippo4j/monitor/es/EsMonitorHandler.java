@@ -20,124 +20,205 @@ package cn.hippo4j.monitor.es;
 import cn.hippo4j.common.config.ApplicationContextHolder;
 import cn.hippo4j.common.model.ThreadPoolRunStateInfo;
 import cn.hippo4j.common.toolkit.JSONUtil;
+import cn.hippo4j.common.toolkit.ThreadUtil;
 import cn.hippo4j.core.executor.state.ThreadPoolRunStateHandler;
-import cn.hippo4j.monitor.es.model.EsThreadPoolRunStateInfo;
-import cn.hutool.core.bean.BeanUtil;
-import cn.hutool.core.io.FileUtil;
 import cn.hippo4j.monitor.base.AbstractDynamicThreadPoolMonitor;
 import cn.hippo4j.monitor.base.MonitorTypeEnum;
+import cn.hippo4j.monitor.es.model.EsThreadPoolRunStateInfo;
+import cn.hutool.core.bean.BeanUtil;
+import cn.hutool.core.io.resource.ResourceUtil;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
-import org.elasticsearch.action.admin.indices.alias.Alias;
 import org.elasticsearch.action.admin.indices.create.CreateIndexRequest;
-import org.elasticsearch.action.admin.indices.create.CreateIndexResponse;
-import org.elasticsearch.client.indices.GetIndexRequest;
+import org.elasticsearch.action.admin.indices.template.put.PutIndexTemplateRequest;
 import org.elasticsearch.action.index.IndexRequest;
-import org.elasticsearch.action.index.IndexResponse;
 import org.elasticsearch.client.RequestOptions;
 import org.elasticsearch.client.RestHighLevelClient;
-import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.client.indices.GetIndexRequest;
 import org.elasticsearch.common.xcontent.XContentType;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.core.env.Environment;
-import org.springframework.util.StringUtils;
 
-import java.io.File;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.util.List;
-import java.util.Objects;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Elastic-search monitor handler.
+ *
+ * <p> The index or index template is prepared on a separate thread, retried with backoff
+ * while elastic-search is unavailable, states collected meanwhile are dropped.
+ *
+ * <p> Documents are written to the single {@code es.thread-pool-state.index.name} index by
+ * default. Daily rolling is opt-in with {@code es.thread-pool-state.index.rolling=daily},
+ * documents are then written to {@code <index>-yyyy.MM.dd} indices created by elastic-search
+ * from an index template, so old indices can be dropped as a whole.
  */
 @Slf4j
-public class EsMonitorHandler extends AbstractDynamicThreadPoolMonitor {
+public class EsMonitorHandler extends AbstractDynamicThreadPoolMonitor implements DisposableBean {
+
+    private static final String TYPE = "_doc";
+
+    private static final String ROLLING_DAILY = "daily";
+
+    private static final long INITIALIZE_MIN_BACKOFF_MILLIS = 1000L;
+
+    private static final long INITIALIZE_MAX_BACKOFF_MILLIS = 60000L;
+
+    private static final long CLOSE_TIMEOUT_MILLIS = 10000L;
+
+    private static final DateTimeFormatter INDEX_DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy.MM.dd");
+
+    private volatile boolean initialized;
+
+    private volatile boolean destroyed;
+
+    private final AtomicBoolean initializing = new AtomicBoolean();
+
+    private Thread initializeThread;
+
+    private String indexName;
+
+    private String applicationName;
+
+    private boolean rolling;
+
+    /**
+     * Bulk sender, null until elastic-search is initialized. Exposes dropped and failed document counts.
+     */
+    @Getter
+    private volatile EsBulkSender bulkSender;
+
+    private LocalDate currentIndexDate;
+
+    private String currentIndexName;
 
     public EsMonitorHandler(ThreadPoolRunStateHandler threadPoolRunStateHandler) {
         super(threadPoolRunStateHandler);
     }
 
-    private AtomicBoolean isIndexExist = null;
-
     @Override
     protected void execute(ThreadPoolRunStateInfo poolRunStateInfo) {
+        if (!initialized) {
+            startInitialize();
+            return;
+        }
         EsThreadPoolRunStateInfo esThreadPoolRunStateInfo = new EsThreadPoolRunStateInfo();
         BeanUtil.copyProperties(poolRunStateInfo, esThreadPoolRunStateInfo);
-        Environment environment = ApplicationContextHolder.getInstance().getEnvironment();
-        String indexName = environment.getProperty("es.thread-pool-state.index.name", "thread-pool-state");
-        String applicationName = environment.getProperty("spring.application.name", "application");
-        if (!this.isExists(indexName)) {
-            List<String> rawMapping = FileUtil.readLines(new File(Thread.currentThread().getContextClassLoader().getResource("mapping.json").getPath()), StandardCharsets.UTF_8);
-            String mapping = String.join(" ", rawMapping);
-            // if index doesn't exsit, this function may try to create one, but recommend to create index manually.
-            this.createIndex(indexName, "_doc", mapping, null, null, null);
-        }
         esThreadPoolRunStateInfo.setApplicationName(applicationName);
-        esThreadPoolRunStateInfo.setId(indexName + "-" + System.currentTimeMillis());
-        this.log2Es(esThreadPoolRunStateInfo, indexName);
+        esThreadPoolRunStateInfo.setId(indexName + "-" + poolRunStateInfo.getTpId() + "-" + System.currentTimeMillis());
+        this.log2Es(esThreadPoolRunStateInfo, getWriteIndexName());
     }
 
     public void log2Es(EsThreadPoolRunStateInfo esThreadPoolRunStateInfo, String indexName) {
-        RestHighLevelClient client = EsClientHolder.getClient();
         try {
-            IndexRequest request = new IndexRequest(indexName, "_doc");
+            IndexRequest request = new IndexRequest(indexName, TYPE);
             request.id(esThreadPoolRunStateInfo.getId());
             String stateJson = JSONUtil.toJSONString(esThreadPoolRunStateInfo);
             request.source(stateJson, XContentType.JSON);
-            IndexResponse response = client.index(request, RequestOptions.DEFAULT);
-            log.info("write thread-pool state to es, id is :{}", response.getId());
+            bulkSender.offer(request);
         } catch (Exception ex) {
             log.error("es index error, the exception was thrown in create index. name:{},type:{},id:{}. {} ",
                     indexName,
-                    "_doc",
+                    TYPE,
                     esThreadPoolRunStateInfo.getId(),
                     ex);
         }
     }
 
-    public synchronized boolean isExists(String index) {
-        // cache check result
-        if (Objects.isNull(isIndexExist)) {
-            boolean exists = false;
-            GetIndexRequest request = new GetIndexRequest(index);
+    private synchronized void startInitialize() {
+        if (!destroyed && initializing.compareAndSet(false, true)) {
+            initializeThread = ThreadUtil.newThread(this::initialize, "client.es.monitor.initializer", true);
+            initializeThread.start();
+        }
+    }
+
+    private void initialize() {
+        Environment environment = ApplicationContextHolder.getInstance().getEnvironment();
+        indexName = environment.getProperty("es.thread-pool-state.index.name", "thread-pool-state");
+        applicationName = environment.getProperty("spring.application.name", "application");
+        rolling = ROLLING_DAILY.equalsIgnoreCase(environment.getProperty("es.thread-pool-state.index.rolling", "none"));
+        RestHighLevelClient client = EsClientHolder.getClient();
+        long backoff = INITIALIZE_MIN_BACKOFF_MILLIS;
+        while (!destroyed && !prepareIndex(client)) {
             try {
-                RestHighLevelClient client = EsClientHolder.getClient();
-                exists = client.indices().exists(request, RequestOptions.DEFAULT);
-            } catch (IOException e) {
-                log.error("check es index fail");
+                TimeUnit.MILLISECONDS.sleep(backoff);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            backoff = Math.min(backoff * 2, INITIALIZE_MAX_BACKOFF_MILLIS);
+        }
+        synchronized (this) {
+            if (destroyed) {
+                return;
             }
-            isIndexExist = new AtomicBoolean(exists);
+            bulkSender = new EsBulkSender(
+                    client,
+                    environment.getProperty("es.thread-pool-state.bulk.buffer-capacity", Integer.class, 10000),
+                    environment.getProperty("es.thread-pool-state.bulk.actions", Integer.class, 500),
+                    environment.getProperty("es.thread-pool-state.bulk.flush-interval", Long.class, 5000L));
+            initialized = true;
         }
-        return isIndexExist.get();
     }
 
-    public void createIndex(String index, String type, String mapping, Integer shards, Integer replicas, String alias) {
-        RestHighLevelClient client = EsClientHolder.getClient();
-        boolean acknowledged = false;
-        CreateIndexRequest request = new CreateIndexRequest(index);
-        if (StringUtils.hasText(mapping)) {
-            request.mapping(type, mapping, XContentType.JSON);
+    private boolean prepareIndex(RestHighLevelClient client) {
+        try {
+            // if index doesn't exist, try to create it, but recommend to create index or template manually.
+            String mapping = ResourceUtil.readUtf8Str("mapping.json");
+            if (rolling) {
+                putIndexTemplate(client, mapping);
+            } else if (!client.indices().exists(new GetIndexRequest(indexName), RequestOptions.DEFAULT)) {
+                createIndex(client, mapping);
+            }
+            return true;
+        } catch (Exception ex) {
+            log.error("Failed to prepare es index: {}, will retry with backoff.", indexName, ex);
+            return false;
         }
-        if (!Objects.isNull(shards) && !Objects.isNull(replicas)) {
-            request.settings(Settings.builder()
-                    .put("index.number_of_shards", shards) // 5
-                    .put("index.number_of_replicas", replicas));// 1
+    }
+
+    private void putIndexTemplate(RestHighLevelClient client, String mapping) throws IOException {
+        PutIndexTemplateRequest request = new PutIndexTemplateRequest(indexName)
+                .patterns(Collections.singletonList(indexName + "-*"))
+                .mapping(TYPE, mapping, XContentType.JSON);
+        if (!client.indices().putTemplate(request, RequestOptions.DEFAULT).isAcknowledged()) {
+            throw new IllegalStateException("cannot put thread-pool state es index template");
         }
-        if (StringUtils.hasText(alias)) {
-            request.alias(new Alias(alias));
+        log.info("put es index template success, pattern: {}-*", indexName);
+    }
+
+    private void createIndex(RestHighLevelClient client, String mapping) throws IOException {
+        CreateIndexRequest request = new CreateIndexRequest(indexName).mapping(TYPE, mapping, XContentType.JSON);
+        if (!client.indices().create(request, RequestOptions.DEFAULT).isAcknowledged()) {
+            throw new IllegalStateException("cannot auto create thread-pool state es index");
         }
-        try {
-            CreateIndexResponse createIndexResponse = client.indices().create(request, RequestOptions.DEFAULT);
-            acknowledged = createIndexResponse.isAcknowledged();
-        } catch (IOException e) {
-            log.error("create es index exception", e);
+        log.info("create es index success");
+    }
+
+    private String getWriteIndexName() {
+        if (!rolling) {
+            return indexName;
+        }
+        LocalDate today = LocalDate.now();
+        if (!today.equals(currentIndexDate)) {
+            currentIndexName = indexName + "-" + today.format(INDEX_DATE_FORMATTER);
+            currentIndexDate = today;
+        }
+        return currentIndexName;
+    }
+
+    @Override
+    public synchronized void destroy() {
+        destroyed = true;
+        if (initializeThread != null) {
+            initializeThread.interrupt();
         }
-        if (acknowledged) {
-            log.info("create es index success");
-            isIndexExist.set(true);
-        } else {
-            log.error("create es index fail");
-            throw new RuntimeException("cannot auto create thread-pool state es index");
+        if (bulkSender != null) {
+            bulkSender.close(CLOSE_TIMEOUT_MILLIS);
         }
     }
 
@@ -18,29 +18,37 @@
 package cn.hippo4j.monitor.local.log;
 
 import cn.hippo4j.common.model.ThreadPoolRunStateInfo;
-import cn.hippo4j.common.toolkit.JSONUtil;
 import cn.hippo4j.core.executor.state.ThreadPoolRunStateHandler;
 import cn.hippo4j.monitor.base.AbstractDynamicThreadPoolMonitor;
 import cn.hippo4j.monitor.base.MonitorTypeEnum;
-import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
 
 /**
  * Local log monitor handler.
+ *
+ * <p> Writes to a dedicated rolling file instead of the application logger.
  */
-@Slf4j
-public class LocalLogMonitorHandler extends AbstractDynamicThreadPoolMonitor {
+public class LocalLogMonitorHandler extends AbstractDynamicThreadPoolMonitor implements DisposableBean {
+
+    private final MonitorLogFileWriter monitorLogFileWriter;
 
-    public LocalLogMonitorHandler(ThreadPoolRunStateHandler threadPoolRunStateHandler) {
+    public LocalLogMonitorHandler(ThreadPoolRunStateHandler threadPoolRunStateHandler, LocalLogMonitorProperties properties) {
         super(threadPoolRunStateHandler);
+        this.monitorLogFileWriter = new MonitorLogFileWriter(properties);
     }
 
     @Override
     protected void execute(ThreadPoolRunStateInfo poolRunStateInfo) {
-        log.info("{}", JSONUtil.toJSONString(poolRunStateInfo));
+        monitorLogFileWriter.append(poolRunStateInfo);
     }
 
     @Override
     public String getType() {
         return MonitorTypeEnum.LOG.name().toLowerCase();
     }
+
+    @Override
+    public void destroy() {
+        monitorLogFileWriter.close();
+    }
 }
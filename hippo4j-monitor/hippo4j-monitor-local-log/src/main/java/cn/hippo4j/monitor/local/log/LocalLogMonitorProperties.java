@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.monitor.local.log;
+
+import lombok.Data;
+
+/**
+ * Local log monitor properties.
+ */
+@Data
+public class LocalLogMonitorProperties {
+
+    /**
+     * Directory of monitor log files.
+     */
+    private String path = "logs/hippo4j";
+
+    /**
+     * Monitor log file name.
+     */
+    private String fileName = "thread-pool-monitor.log";
+
+    /**
+     * Size of each preallocated buffer in bytes, records are dropped when it is full.
+     */
+    private Integer bufferSize = 256 * 1024;
+
+    /**
+     * Flush interval in milliseconds.
+     */
+    private Long flushInterval = 1000L;
+
+    /**
+     * Rotate the file when it grows over this size in bytes.
+     */
+    private Long maxFileSize = 100L * 1024 * 1024;
+
+    /**
+     * Number of rotated files to keep.
+     */
+    private Integer maxHistory = 7;
+}
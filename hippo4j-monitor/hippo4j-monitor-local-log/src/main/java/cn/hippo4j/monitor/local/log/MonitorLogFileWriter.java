@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.monitor.local.log;
+
+import cn.hippo4j.common.model.ThreadPoolRunStateInfo;
+import cn.hippo4j.core.executor.support.ThreadFactoryBuilder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Monitor log file writer.
+ *
+ * <p> Records are appended as compact json lines to one of two preallocated buffers, and a
+ * background flusher swaps the buffers and writes the full one to a size rotated file. Lines
+ * are built in a reused char buffer and encoded straight into the active buffer.
+ */
+@Slf4j
+public class MonitorLogFileWriter {
+
+    private static final long DROP_LOG_INTERVAL = 1000L;
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final LocalLogMonitorProperties properties;
+
+    private final Path filePath;
+
+    private final StringBuilder lineBuilder = new StringBuilder(512);
+
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+    private CharBuffer lineChars = CharBuffer.allocate(512);
+
+    private final ScheduledExecutorService flusher;
+
+    private ByteBuffer activeBuffer;
+
+    private ByteBuffer flushBuffer;
+
+    private FileChannel channel;
+
+    private long droppedCount;
+
+    public MonitorLogFileWriter(LocalLogMonitorProperties properties) {
+        this.properties = properties;
+        this.filePath = Paths.get(properties.getPath(), properties.getFileName());
+        this.activeBuffer = ByteBuffer.allocateDirect(properties.getBufferSize());
+        this.flushBuffer = ByteBuffer.allocateDirect(properties.getBufferSize());
+        this.flusher = Executors.newSingleThreadScheduledExecutor(
+                ThreadFactoryBuilder.builder().daemon(true).prefix("client.monitor.log.flusher").build());
+        flusher.scheduleWithFixedDelay(this::flush, properties.getFlushInterval(), properties.getFlushInterval(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Append a record, dropped if the buffer is full.
+     *
+     * @param poolRunStateInfo thread-pool run state
+     */
+    public synchronized void append(ThreadPoolRunStateInfo poolRunStateInfo) {
+        StringBuilder line = lineBuilder;
+        line.setLength(0);
+        line.append("{\"ts\":").append(poolRunStateInfo.getTimestamp());
+        line.append(",\"tpId\":\"");
+        appendEscaped(line, poolRunStateInfo.getTpId());
+        line.append("\",\"coreSize\":").append(poolRunStateInfo.getCoreSize());
+        line.append(",\"maximumSize\":").append(poolRunStateInfo.getMaximumSize());
+        line.append(",\"poolSize\":").append(poolRunStateInfo.getPoolSize());
+        line.append(",\"activeSize\":").append(poolRunStateInfo.getActiveSize());
+        line.append(",\"largestPoolSize\":").append(poolRunStateInfo.getLargestPoolSize());
+        line.append(",\"queueSize\":").append(poolRunStateInfo.getQueueSize());
+        line.append(",\"queueCapacity\":").append(poolRunStateInfo.getQueueCapacity());
+        line.append(",\"queueRemainingCapacity\":").append(poolRunStateInfo.getQueueRemainingCapacity());
+        line.append(",\"completedTaskCount\":").append(poolRunStateInfo.getCompletedTaskCount());
+        line.append(",\"rejectCount\":").append(poolRunStateInfo.getRejectCount());
+        line.append(",\"currentLoad\":\"").append(poolRunStateInfo.getCurrentLoad());
+        line.append("\",\"peakLoad\":\"").append(poolRunStateInfo.getPeakLoad());
+        line.append("\"}\n");
+        if (lineChars.capacity() < line.length()) {
+            lineChars = CharBuffer.allocate(Math.max(line.length(), lineChars.capacity() * 2));
+        }
+        lineChars.clear();
+        line.getChars(0, line.length(), lineChars.array(), 0);
+        lineChars.limit(line.length());
+        int position = activeBuffer.position();
+        encoder.reset();
+        if (encoder.encode(lineChars, activeBuffer, true).isOverflow() || encoder.flush(activeBuffer).isOverflow()) {
+            // Drop the partially encoded line.
+            activeBuffer.position(position);
+            if (++droppedCount % DROP_LOG_INTERVAL == 1) {
+                log.warn("Monitor log buffer is full, dropped: {}", droppedCount);
+            }
+        }
+    }
+
+    /**
+     * Flush buffered records and stop the flusher.
+     */
+    public void close() {
+        flusher.shutdown();
+        flush();
+        synchronized (flusher) {
+            closeChannel();
+        }
+    }
+
+    private void flush() {
+        synchronized (flusher) {
+            ByteBuffer buffer;
+            synchronized (this) {
+                if (activeBuffer.position() == 0) {
+                    return;
+                }
+                buffer = activeBuffer;
+                activeBuffer = flushBuffer;
+                flushBuffer = buffer;
+            }
+            buffer.flip();
+            try {
+                FileChannel fileChannel = getChannel();
+                while (buffer.hasRemaining()) {
+                    fileChannel.write(buffer);
+                }
+                if (fileChannel.size() >= properties.getMaxFileSize()) {
+                    rotate();
+                }
+            } catch (IOException ex) {
+                log.error("Failed to write monitor log file: {}", filePath, ex);
+                closeChannel();
+            } finally {
+                buffer.clear();
+            }
+        }
+    }
+
+    private FileChannel getChannel() throws IOException {
+        if (channel == null) {
+            Files.createDirectories(filePath.getParent() == null ? Paths.get(".") : filePath.getParent());
+            channel = FileChannel.open(filePath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        return channel;
+    }
+
+    private void rotate() throws IOException {
+        closeChannel();
+        int maxHistory = properties.getMaxHistory();
+        Files.deleteIfExists(historyPath(maxHistory));
+        for (int i = maxHistory - 1; i >= 1; i--) {
+            Path source = historyPath(i);
+            if (Files.exists(source)) {
+                Files.move(source, historyPath(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (maxHistory > 0) {
+            Files.move(filePath, historyPath(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.deleteIfExists(filePath);
+        }
+    }
+
+    private Path historyPath(int index) {
+        return filePath.resolveSibling(filePath.getFileName() + "." + index);
+    }
+
+    private void closeChannel() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+        channel = null;
+    }
+
+    private static void appendEscaped(StringBuilder line, String value) {
+        for (int i = 0; value != null && i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                line.append('\\').append(c);
+            } else if (c < 0x20) {
+                // Control characters would break the line, write them as unicode escapes.
+                line.append("\\u00").append(HEX_DIGITS[c >> 4]).append(HEX_DIGITS[c & 0xF]);
+            } else {
+                line.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.monitor.local.log;
+
+import cn.hippo4j.common.model.ThreadPoolRunStateInfo;
+import cn.hippo4j.common.toolkit.Assert;
+import cn.hippo4j.common.toolkit.JSONUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+public class MonitorLogFileWriterTest {
+
+    private Path directory;
+
+    private LocalLogMonitorProperties properties;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("monitor-log");
+        properties = new LocalLogMonitorProperties();
+        properties.setPath(directory.toString());
+        properties.setFlushInterval(60000L);
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = directory.toFile().listFiles();
+        if (files != null) {
+            for (File each : files) {
+                each.delete();
+            }
+        }
+        directory.toFile().delete();
+    }
+
+    @Test
+    public void assertEscapeTpId() throws Exception {
+        String tpId = "pool\"\\\n\t\u0001-线程池";
+        MonitorLogFileWriter writer = new MonitorLogFileWriter(properties);
+        writer.append(state(tpId));
+        writer.close();
+        List<String> lines = Files.readAllLines(directory.resolve(properties.getFileName()), StandardCharsets.UTF_8);
+        Assert.isTrue(lines.size() == 1);
+        Map<?, ?> record = JSONUtil.parseObject(lines.get(0), Map.class);
+        Assert.isTrue(tpId.equals(record.get("tpId")));
+        Assert.isTrue(Long.valueOf(1000L).equals(((Number) record.get("ts")).longValue()));
+    }
+
+    @Test
+    public void assertDropWholeLineWhenBufferFull() throws Exception {
+        properties.setBufferSize(400);
+        MonitorLogFileWriter writer = new MonitorLogFileWriter(properties);
+        writer.append(state("first"));
+        writer.append(state("second"));
+        writer.close();
+        List<String> lines = Files.readAllLines(directory.resolve(properties.getFileName()), StandardCharsets.UTF_8);
+        Assert.isTrue(lines.size() == 1);
+        Assert.isTrue("first".equals(JSONUtil.parseObject(lines.get(0), Map.class).get("tpId")));
+    }
+
+    @Test
+    public void assertRotate() throws Exception {
+        properties.setMaxFileSize(1L);
+        properties.setMaxHistory(2);
+        for (int i = 0; i < 3; i++) {
+            MonitorLogFileWriter writer = new MonitorLogFileWriter(properties);
+            writer.append(state("pool-" + i));
+            writer.close();
+        }
+        Path filePath = directory.resolve(properties.getFileName());
+        Assert.isTrue(!Files.exists(filePath));
+        Assert.isTrue(!Files.exists(filePath.resolveSibling(properties.getFileName() + ".3")));
+        Assert.isTrue(Files.readAllLines(filePath.resolveSibling(properties.getFileName() + ".1")).get(0).contains("pool-2"));
+        Assert.isTrue(Files.readAllLines(filePath.resolveSibling(properties.getFileName() + ".2")).get(0).contains("pool-1"));
+    }
+
+    private static ThreadPoolRunStateInfo state(String tpId) {
+        ThreadPoolRunStateInfo state = new ThreadPoolRunStateInfo();
+        state.setTpId(tpId);
+        state.setTimestamp(1000L);
+        state.setCoreSize(1);
+        state.setMaximumSize(2);
+        state.setPoolSize(1);
+        state.setActiveSize(1);
+        state.setQueueSize(0);
+        state.setQueueCapacity(10);
+        state.setCompletedTaskCount(5L);
+        state.setRejectCount(0L);
+        state.setCurrentLoad("50");
+        state.setPeakLoad("100");
+        return state;
+    }
+}
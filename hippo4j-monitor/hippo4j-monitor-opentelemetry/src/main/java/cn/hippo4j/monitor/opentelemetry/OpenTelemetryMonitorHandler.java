@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.monitor.opentelemetry;
+
+import cn.hippo4j.common.config.ApplicationContextHolder;
+import cn.hippo4j.common.toolkit.CalculateUtil;
+import cn.hippo4j.core.executor.DynamicThreadPoolExecutor;
+import cn.hippo4j.core.executor.manage.GlobalThreadPoolManage;
+import cn.hippo4j.core.executor.support.TaskTimeRecorder;
+import cn.hippo4j.monitor.base.DynamicThreadPoolMonitor;
+import cn.hippo4j.monitor.base.MonitorTypeEnum;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.api.metrics.ObservableLongMeasurement;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.env.Environment;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * OpenTelemetry monitor handler.
+ *
+ * <p> Instruments are registered once with callbacks that read every known thread pool when
+ * metrics are exported, collection only picks up newly registered thread pools.
+ */
+@RequiredArgsConstructor
+public class OpenTelemetryMonitorHandler implements DynamicThreadPoolMonitor {
+
+    private final static String INSTRUMENTATION_NAME = "cn.hippo4j.monitor.opentelemetry";
+
+    private final static String METRIC_NAME_PREFIX = "dynamic.thread-pool";
+
+    private final static AttributeKey<String> DYNAMIC_THREAD_POOL_ID_KEY = AttributeKey.stringKey(METRIC_NAME_PREFIX + ".id");
+
+    private final static AttributeKey<String> APPLICATION_NAME_KEY = AttributeKey.stringKey("application.name");
+
+    private final OpenTelemetry openTelemetry;
+
+    private final Map<String, Attributes> poolAttributes = new ConcurrentHashMap<>();
+
+    private volatile Meter meter;
+
+    private String applicationName;
+
+    private DoubleHistogram executeTimeHistogram;
+
+    @Override
+    public void collect() {
+        if (meter == null) {
+            registerInstruments();
+        }
+        for (String each : GlobalThreadPoolManage.listThreadPoolId()) {
+            if (!poolAttributes.containsKey(each)) {
+                bindThreadPool(each);
+            }
+        }
+    }
+
+    @Override
+    public String getType() {
+        return MonitorTypeEnum.OPENTELEMETRY.name().toLowerCase();
+    }
+
+    private synchronized void registerInstruments() {
+        if (meter != null) {
+            return;
+        }
+        Environment environment = ApplicationContextHolder.getInstance().getEnvironment();
+        applicationName = environment.getProperty("spring.application.name", "application");
+        Meter meter = openTelemetry.getMeter(INSTRUMENTATION_NAME);
+        gauge(meter, "current.load", "%", each -> CalculateUtil.divide(each.getActiveCount(), each.getMaximumPoolSize()));
+        gauge(meter, "peak.load", "%", each -> CalculateUtil.divide(each.getLargestPoolSize(), each.getMaximumPoolSize()));
+        gauge(meter, "core.size", "{threads}", ThreadPoolExecutor::getCorePoolSize);
+        gauge(meter, "maximum.size", "{threads}", ThreadPoolExecutor::getMaximumPoolSize);
+        gauge(meter, "current.size", "{threads}", ThreadPoolExecutor::getPoolSize);
+        gauge(meter, "largest.size", "{threads}", ThreadPoolExecutor::getLargestPoolSize);
+        gauge(meter, "active.size", "{threads}", ThreadPoolExecutor::getActiveCount);
+        gauge(meter, "queue.size", "{tasks}", each -> each.getQueue().size());
+        gauge(meter, "queue.capacity", "{tasks}", each -> each.getQueue().size() + each.getQueue().remainingCapacity());
+        gauge(meter, "queue.remaining.capacity", "{tasks}", each -> each.getQueue().remainingCapacity());
+        counter(meter, "completed.task.count", ThreadPoolExecutor::getCompletedTaskCount);
+        counter(meter, "submitted.task.count", each -> each instanceof DynamicThreadPoolExecutor ? ((DynamicThreadPoolExecutor) each).getSubmittedCount().sum() : -1L);
+        counter(meter, "reject.count", each -> each instanceof DynamicThreadPoolExecutor ? ((DynamicThreadPoolExecutor) each).getRejectCountNum() : -1L);
+        counter(meter, "execute.timeout.count", each -> each instanceof DynamicThreadPoolExecutor ? ((DynamicThreadPoolExecutor) each).getExecuteTimeOutCount().sum() : -1L);
+        executeTimeHistogram = meter.histogramBuilder(metricName("execute.time")).setUnit("ms").build();
+        this.meter = meter;
+    }
+
+    private void bindThreadPool(String threadPoolId) {
+        ThreadPoolExecutor executor = GlobalThreadPoolManage.getExecutor(threadPoolId);
+        if (executor == null) {
+            return;
+        }
+        Attributes attributes = Attributes.of(DYNAMIC_THREAD_POOL_ID_KEY, threadPoolId, APPLICATION_NAME_KEY, applicationName);
+        if (executor instanceof DynamicThreadPoolExecutor) {
+            ((DynamicThreadPoolExecutor) executor).addTaskTimeRecorder(new HistogramTaskTimeRecorder(executeTimeHistogram, attributes));
+        }
+        poolAttributes.put(threadPoolId, attributes);
+    }
+
+    private void gauge(Meter meter, String name, String unit, ToLongFunction<ThreadPoolExecutor> function) {
+        meter.gaugeBuilder(metricName(name)).ofLongs().setUnit(unit).buildWithCallback(observe(function));
+    }
+
+    private void counter(Meter meter, String name, ToLongFunction<ThreadPoolExecutor> function) {
+        meter.counterBuilder(metricName(name)).setUnit("{tasks}").buildWithCallback(observe(function));
+    }
+
+    private Consumer<ObservableLongMeasurement> observe(ToLongFunction<ThreadPoolExecutor> function) {
+        return measurement -> poolAttributes.forEach((threadPoolId, attributes) -> {
+            ThreadPoolExecutor executor = GlobalThreadPoolManage.getExecutor(threadPoolId);
+            if (executor == null) {
+                return;
+            }
+            long value = function.applyAsLong(executor);
+            if (value >= 0) {
+                measurement.record(value, attributes);
+            }
+        });
+    }
+
+    private static String metricName(String name) {
+        return String.join(".", METRIC_NAME_PREFIX, name);
+    }
+
+    @RequiredArgsConstructor
+    private static class HistogramTaskTimeRecorder implements TaskTimeRecorder {
+
+        private final DoubleHistogram histogram;
+
+        private final Attributes attributes;
+
+        @Override
+        public boolean isQueueWaitEnabled() {
+            return false;
+        }
+
+        @Override
+        public void recordQueueWait(long nanos) {
+        }
+
+        @Override
+        public void recordExecute(long nanos) {
+            histogram.record(nanos / 1_000_000D, attributes);
+        }
+    }
+}
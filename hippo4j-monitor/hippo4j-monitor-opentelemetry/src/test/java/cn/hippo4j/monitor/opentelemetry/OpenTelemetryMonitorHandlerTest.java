@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.monitor.opentelemetry;
+
+import cn.hippo4j.common.config.ApplicationContextHolder;
+import cn.hippo4j.common.toolkit.Assert;
+import cn.hippo4j.core.executor.DynamicThreadPoolExecutor;
+import cn.hippo4j.core.executor.DynamicThreadPoolWrapper;
+import cn.hippo4j.core.executor.manage.GlobalThreadPoolManage;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.metrics.data.HistogramPointData;
+import io.opentelemetry.sdk.metrics.data.LongPointData;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.testing.exporter.InMemoryMetricReader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+public class OpenTelemetryMonitorHandlerTest {
+
+    private static final String THREAD_POOL_ID = "otel-test-pool";
+
+    private static final Attributes ATTRIBUTES = Attributes.of(
+            AttributeKey.stringKey("dynamic.thread-pool.id"), THREAD_POOL_ID,
+            AttributeKey.stringKey("application.name"), "otel-test-application");
+
+    private InMemoryMetricReader metricReader;
+
+    private DynamicThreadPoolExecutor executor;
+
+    private OpenTelemetryMonitorHandler monitorHandler;
+
+    @Before
+    public void setUp() {
+        GenericApplicationContext applicationContext = new GenericApplicationContext();
+        applicationContext.setEnvironment(new MockEnvironment().withProperty("spring.application.name", "otel-test-application"));
+        applicationContext.refresh();
+        new ApplicationContextHolder().setApplicationContext(applicationContext);
+        executor = new DynamicThreadPoolExecutor(2, 4, 60, TimeUnit.SECONDS, 0L, false, 0L,
+                new ArrayBlockingQueue<>(16), THREAD_POOL_ID, Executors.defaultThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+        GlobalThreadPoolManage.registerPool(THREAD_POOL_ID, new DynamicThreadPoolWrapper(THREAD_POOL_ID, executor));
+        metricReader = InMemoryMetricReader.create();
+        SdkMeterProvider meterProvider = SdkMeterProvider.builder().registerMetricReader(metricReader).build();
+        monitorHandler = new OpenTelemetryMonitorHandler(OpenTelemetrySdk.builder().setMeterProvider(meterProvider).build());
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void assertCollect() throws InterruptedException {
+        monitorHandler.collect();
+        for (int i = 0; i < 3; i++) {
+            executor.execute(() -> {
+            });
+        }
+        executor.shutdown();
+        Assert.isTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        try {
+            executor.execute(() -> {
+            });
+        } catch (RejectedExecutionException ignored) {
+        }
+        Collection<MetricData> metrics = metricReader.collectAllMetrics();
+        Assert.isTrue(Objects.equals(2L, gaugeValue(metrics, "dynamic.thread-pool.core.size")));
+        Assert.isTrue(Objects.equals(4L, gaugeValue(metrics, "dynamic.thread-pool.maximum.size")));
+        Assert.isTrue(Objects.equals(16L, gaugeValue(metrics, "dynamic.thread-pool.queue.capacity")));
+        Assert.isTrue(Objects.equals(0L, gaugeValue(metrics, "dynamic.thread-pool.queue.size")));
+        Assert.isTrue(Objects.equals(3L, counterValue(metrics, "dynamic.thread-pool.completed.task.count")));
+        // The rejected task is counted as submitted too.
+        Assert.isTrue(Objects.equals(4L, counterValue(metrics, "dynamic.thread-pool.submitted.task.count")));
+        Assert.isTrue(Objects.equals(1L, counterValue(metrics, "dynamic.thread-pool.reject.count")));
+        HistogramPointData executeTime = metric(metrics, "dynamic.thread-pool.execute.time").getHistogramData().getPoints().iterator().next();
+        Assert.isTrue(executeTime.getAttributes().equals(ATTRIBUTES));
+        Assert.isTrue(executeTime.getCount() == 3L);
+    }
+
+    private static Long gaugeValue(Collection<MetricData> metrics, String name) {
+        return value(metric(metrics, name).getLongGaugeData().getPoints());
+    }
+
+    private static Long counterValue(Collection<MetricData> metrics, String name) {
+        return value(metric(metrics, name).getLongSumData().getPoints());
+    }
+
+    private static Long value(Collection<LongPointData> points) {
+        Assert.isTrue(points.size() == 1);
+        LongPointData point = points.iterator().next();
+        Assert.isTrue(point.getAttributes().equals(ATTRIBUTES));
+        return point.getValue();
+    }
+
+    private static MetricData metric(Collection<MetricData> metrics, String name) {
+        return metrics.stream().filter(each -> each.getName().equals(name)).findFirst()
+                .orElseThrow(() -> new AssertionError("Metric not found: " + name));
+    }
+}
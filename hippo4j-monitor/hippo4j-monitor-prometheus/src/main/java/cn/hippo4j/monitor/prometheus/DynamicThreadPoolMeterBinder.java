@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.monitor.prometheus;
+
+import cn.hippo4j.common.toolkit.CalculateUtil;
+import cn.hippo4j.core.executor.DynamicThreadPoolExecutor;
+import cn.hippo4j.core.executor.manage.GlobalThreadPoolManage;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Dynamic thread-pool meter binder.
+ *
+ * <p> Registers function gauges and counters against each thread pool once, so that
+ * every scrape reads live values from the executor.
+ */
+@RequiredArgsConstructor
+public class DynamicThreadPoolMeterBinder implements MeterBinder {
+
+    public final static String METRIC_NAME_PREFIX = "dynamic.thread-pool";
+
+    public final static String DYNAMIC_THREAD_POOL_ID_TAG = METRIC_NAME_PREFIX + ".id";
+
+    public final static String APPLICATION_NAME_TAG = "application.name";
+
+    private final String applicationName;
+
+    private final PrometheusTimerProperties timerProperties;
+
+    private final Set<String> boundThreadPoolIds = ConcurrentHashMap.newKeySet();
+
+    private volatile MeterRegistry registry;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+        bindNewThreadPools();
+    }
+
+    /**
+     * Bind thread pools registered since the last call.
+     */
+    public void bindNewThreadPools() {
+        MeterRegistry registry = this.registry;
+        if (registry == null) {
+            return;
+        }
+        for (String each : GlobalThreadPoolManage.listThreadPoolId()) {
+            if (boundThreadPoolIds.contains(each)) {
+                continue;
+            }
+            ThreadPoolExecutor executor = GlobalThreadPoolManage.getExecutor(each);
+            if (executor != null && boundThreadPoolIds.add(each)) {
+                bindThreadPool(registry, each, executor);
+            }
+        }
+    }
+
+    private void bindThreadPool(MeterRegistry registry, String threadPoolId, ThreadPoolExecutor executor) {
+        Tags tags = Tags.of(Tag.of(DYNAMIC_THREAD_POOL_ID_TAG, threadPoolId), Tag.of(APPLICATION_NAME_TAG, applicationName));
+        gauge(registry, "current.load", tags, executor, each -> CalculateUtil.divide(each.getActiveCount(), each.getMaximumPoolSize()));
+        gauge(registry, "peak.load", tags, executor, each -> CalculateUtil.divide(each.getLargestPoolSize(), each.getMaximumPoolSize()));
+        gauge(registry, "core.size", tags, executor, ThreadPoolExecutor::getCorePoolSize);
+        gauge(registry, "maximum.size", tags, executor, ThreadPoolExecutor::getMaximumPoolSize);
+        gauge(registry, "current.size", tags, executor, ThreadPoolExecutor::getPoolSize);
+        gauge(registry, "largest.size", tags, executor, ThreadPoolExecutor::getLargestPoolSize);
+        gauge(registry, "active.size", tags, executor, ThreadPoolExecutor::getActiveCount);
+        gauge(registry, "queue.size", tags, executor, each -> each.getQueue().size());
+        gauge(registry, "queue.capacity", tags, executor, each -> each.getQueue().size() + each.getQueue().remainingCapacity());
+        gauge(registry, "queue.remaining.capacity", tags, executor, each -> each.getQueue().remainingCapacity());
+        FunctionCounter.builder(metricName("completed.task.count"), executor, ThreadPoolExecutor::getCompletedTaskCount)
+                .tags(tags)
+                .register(registry);
+        if (executor instanceof DynamicThreadPoolExecutor) {
+            FunctionCounter.builder(metricName("reject.count"), (DynamicThreadPoolExecutor) executor, each -> each.getRejectCount().get())
+                    .tags(tags)
+                    .register(registry);
+            bindDynamicThreadPool(registry, tags, (DynamicThreadPoolExecutor) executor);
+        }
+    }
+
+    private void bindDynamicThreadPool(MeterRegistry registry, Tags tags, DynamicThreadPoolExecutor executor) {
+        FunctionCounter.builder(metricName("submitted.task.count"), executor, each -> each.getSubmittedCount().sum())
+                .tags(tags)
+                .register(registry);
+        FunctionCounter.builder(metricName("execute.timeout.count"), executor, each -> each.getExecuteTimeOutCount().sum())
+                .tags(tags)
+                .register(registry);
+        Timer queueWaitTimer = timerProperties.getQueueWaitEnabled() ? timer(registry, "queue.wait.time", tags) : null;
+        Timer executeTimer = timerProperties.getEnabled() ? timer(registry, "execute.time", tags) : null;
+        if (queueWaitTimer != null || executeTimer != null) {
+            executor.addTaskTimeRecorder(new MicrometerTaskTimeRecorder(queueWaitTimer, executeTimer));
+        }
+    }
+
+    private Timer timer(MeterRegistry registry, String name, Tags tags) {
+        return Timer.builder(metricName(name))
+                .tags(tags)
+                .publishPercentiles(timerProperties.getPercentiles())
+                .publishPercentileHistogram(timerProperties.getPercentileHistogram())
+                .serviceLevelObjectives(timerProperties.getServiceLevelObjectives().toArray(new Duration[0]))
+                .register(registry);
+    }
+
+    private void gauge(MeterRegistry registry, String name, Tags tags, ThreadPoolExecutor executor, ToDoubleFunction<ThreadPoolExecutor> function) {
+        Gauge.builder(metricName(name), executor, function).tags(tags).register(registry);
+    }
+
+    public static String metricName(String name) {
+        return String.join(".", METRIC_NAME_PREFIX, name);
+    }
+}
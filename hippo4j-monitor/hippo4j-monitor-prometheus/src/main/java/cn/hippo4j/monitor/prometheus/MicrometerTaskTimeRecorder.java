@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.monitor.prometheus;
+
+import cn.hippo4j.core.executor.support.TaskTimeRecorder;
+import io.micrometer.core.instrument.Timer;
+import lombok.AllArgsConstructor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Task time recorder backed by micrometer timers.
+ */
+@AllArgsConstructor
+public class MicrometerTaskTimeRecorder implements TaskTimeRecorder {
+
+    private final Timer queueWaitTimer;
+
+    private final Timer executeTimer;
+
+    @Override
+    public boolean isQueueWaitEnabled() {
+        return queueWaitTimer != null;
+    }
+
+    @Override
+    public void recordQueueWait(long nanos) {
+        queueWaitTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordExecute(long nanos) {
+        if (executeTimer != null) {
+            executeTimer.record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+}
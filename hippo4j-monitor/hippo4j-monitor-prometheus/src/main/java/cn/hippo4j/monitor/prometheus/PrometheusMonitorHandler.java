@@ -18,65 +18,40 @@
 package cn.hippo4j.monitor.prometheus;
 
 import cn.hippo4j.common.config.ApplicationContextHolder;
-import cn.hippo4j.common.model.ThreadPoolRunStateInfo;
-import cn.hippo4j.core.executor.state.ThreadPoolRunStateHandler;
-import cn.hutool.core.bean.BeanUtil;
-import cn.hippo4j.monitor.base.AbstractDynamicThreadPoolMonitor;
+import cn.hippo4j.monitor.base.DynamicThreadPoolMonitor;
 import cn.hippo4j.monitor.base.MonitorTypeEnum;
-import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
+import cn.hippo4j.monitor.base.ThreadPoolMonitorStatsProvider;
 import io.micrometer.core.instrument.Metrics;
-import io.micrometer.core.instrument.Tag;
+import lombok.RequiredArgsConstructor;
 import org.springframework.core.env.Environment;
 
-import java.util.Map;
-
 /**
  * Prometheus monitor handler.
+ *
+ * <p> Meters read live values from the executors, collection only binds newly registered thread pools.
+ * The lag and error statistics of the thread pool monitors are bound on the first collection,
+ * when the monitor dispatcher is already running.
  */
-public class PrometheusMonitorHandler extends AbstractDynamicThreadPoolMonitor {
-
-    private final static String METRIC_NAME_PREFIX = "dynamic.thread-pool";
-
-    private final static String DYNAMIC_THREAD_POOL_ID_TAG = METRIC_NAME_PREFIX + ".id";
+@RequiredArgsConstructor
+public class PrometheusMonitorHandler implements DynamicThreadPoolMonitor {
 
-    private final static String APPLICATION_NAME_TAG = "application.name";
+    private final PrometheusTimerProperties timerProperties;
 
-    private final Map<String, ThreadPoolRunStateInfo> RUN_STATE_CACHE = Maps.newConcurrentMap();
-
-    public PrometheusMonitorHandler(ThreadPoolRunStateHandler threadPoolRunStateHandler) {
-        super(threadPoolRunStateHandler);
-    }
+    private volatile DynamicThreadPoolMeterBinder meterBinder;
 
     @Override
-    protected void execute(ThreadPoolRunStateInfo poolRunStateInfo) {
-        ThreadPoolRunStateInfo stateInfo = RUN_STATE_CACHE.get(poolRunStateInfo.getTpId());
-        if (stateInfo == null) {
-            RUN_STATE_CACHE.put(poolRunStateInfo.getTpId(), poolRunStateInfo);
-        } else {
-            BeanUtil.copyProperties(poolRunStateInfo, stateInfo);
+    public void collect() {
+        if (meterBinder == null) {
+            Environment environment = ApplicationContextHolder.getInstance().getEnvironment();
+            String applicationName = environment.getProperty("spring.application.name", "application");
+            DynamicThreadPoolMeterBinder binder = new DynamicThreadPoolMeterBinder(applicationName, timerProperties);
+            binder.bindTo(Metrics.globalRegistry);
+            ApplicationContextHolder.getBeansOfType(ThreadPoolMonitorStatsProvider.class).values()
+                    .forEach(each -> new ThreadPoolMonitorStatsMeterBinder(applicationName, each.getMonitorStats()).bindTo(Metrics.globalRegistry));
+            meterBinder = binder;
+            return;
         }
-        Environment environment = ApplicationContextHolder.getInstance().getEnvironment();
-        String applicationName = environment.getProperty("spring.application.name", "application");
-        Iterable<Tag> tags = Lists.newArrayList(
-                Tag.of(DYNAMIC_THREAD_POOL_ID_TAG, poolRunStateInfo.getTpId()),
-                Tag.of(APPLICATION_NAME_TAG, applicationName));
-        Metrics.gauge(metricName("current.load"), tags, poolRunStateInfo, ThreadPoolRunStateInfo::getSimpleCurrentLoad);
-        Metrics.gauge(metricName("peak.load"), tags, poolRunStateInfo, ThreadPoolRunStateInfo::getSimplePeakLoad);
-        Metrics.gauge(metricName("core.size"), tags, poolRunStateInfo, ThreadPoolRunStateInfo::getCoreSize);
-        Metrics.gauge(metricName("maximum.size"), tags, poolRunStateInfo, ThreadPoolRunStateInfo::getMaximumSize);
-        Metrics.gauge(metricName("current.size"), tags, poolRunStateInfo, ThreadPoolRunStateInfo::getPoolSize);
-        Metrics.gauge(metricName("largest.size"), tags, poolRunStateInfo, ThreadPoolRunStateInfo::getLargestPoolSize);
-        Metrics.gauge(metricName("active.size"), tags, poolRunStateInfo, ThreadPoolRunStateInfo::getActiveSize);
-        Metrics.gauge(metricName("queue.size"), tags, poolRunStateInfo, ThreadPoolRunStateInfo::getQueueSize);
-        Metrics.gauge(metricName("queue.capacity"), tags, poolRunStateInfo, ThreadPoolRunStateInfo::getQueueCapacity);
-        Metrics.gauge(metricName("queue.remaining.capacity"), tags, poolRunStateInfo, ThreadPoolRunStateInfo::getQueueRemainingCapacity);
-        Metrics.gauge(metricName("completed.task.count"), tags, poolRunStateInfo, ThreadPoolRunStateInfo::getCompletedTaskCount);
-        Metrics.gauge(metricName("reject.count"), tags, poolRunStateInfo, ThreadPoolRunStateInfo::getRejectCount);
-    }
-
-    private String metricName(String name) {
-        return String.join(".", METRIC_NAME_PREFIX, name);
+        meterBinder.bindNewThreadPools();
     }
 
     @Override
@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.monitor.prometheus;
+
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Prometheus task timer properties.
+ */
+@Data
+public class PrometheusTimerProperties {
+
+    /**
+     * Record task execute time.
+     */
+    private Boolean enabled = Boolean.TRUE;
+
+    /**
+     * Record task queue wait time, each submitted task is wrapped with its submit time.
+     */
+    private Boolean queueWaitEnabled = Boolean.FALSE;
+
+    /**
+     * Client side percentiles to publish.
+     */
+    private double[] percentiles = {0.5, 0.95, 0.99};
+
+    /**
+     * Publish histogram buckets for server side percentile aggregation.
+     */
+    private Boolean percentileHistogram = Boolean.FALSE;
+
+    /**
+     * Service level objective buckets, e.g. 100ms, 1s.
+     */
+    private List<Duration> serviceLevelObjectives = new ArrayList<>();
+}
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.monitor.prometheus;
+
+import cn.hippo4j.monitor.base.ThreadPoolMonitorDispatcher.MonitorStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Map;
+
+import static cn.hippo4j.monitor.prometheus.DynamicThreadPoolMeterBinder.APPLICATION_NAME_TAG;
+import static cn.hippo4j.monitor.prometheus.DynamicThreadPoolMeterBinder.metricName;
+
+/**
+ * Thread-pool monitor stats meter binder, exposes the lag and error statistics of each monitor.
+ */
+@RequiredArgsConstructor
+public class ThreadPoolMonitorStatsMeterBinder implements MeterBinder {
+
+    public final static String MONITOR_TYPE_TAG = "monitor.type";
+
+    private final String applicationName;
+
+    private final Map<String, MonitorStats> monitorStats;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        monitorStats.forEach((type, stats) -> {
+            Tags tags = Tags.of(Tag.of(MONITOR_TYPE_TAG, type), Tag.of(APPLICATION_NAME_TAG, applicationName));
+            Gauge.builder(metricName("monitor.lag"), stats, MonitorStats::getLastLagMillis)
+                    .baseUnit("milliseconds")
+                    .tags(tags)
+                    .register(registry);
+            FunctionCounter.builder(metricName("monitor.error.count"), stats, MonitorStats::getErrorCount)
+                    .tags(tags)
+                    .register(registry);
+            FunctionCounter.builder(metricName("monitor.timeout.count"), stats, MonitorStats::getTimeoutCount)
+                    .tags(tags)
+                    .register(registry);
+            FunctionCounter.builder(metricName("monitor.skipped.count"), stats, MonitorStats::getSkippedCount)
+                    .tags(tags)
+                    .register(registry);
+        });
+    }
+}
@@ -67,6 +67,11 @@ public class BootstrapConfigProperties implements BootstrapPropertiesInterface {
      */
     private Long collectInterval = 5000L;
 
+    /**
+     * Timeout of each monitor collection, defaults to the collect interval. unit: ms
+     */
+    private Long monitorTimeout;
+
     /**
      * Config file type.
      */
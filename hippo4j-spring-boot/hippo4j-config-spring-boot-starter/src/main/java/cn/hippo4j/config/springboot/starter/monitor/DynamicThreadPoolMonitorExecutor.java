@@ -20,19 +20,27 @@ package cn.hippo4j.config.springboot.starter.monitor;
 import cn.hippo4j.common.config.ApplicationContextHolder;
 import cn.hippo4j.common.toolkit.StringUtil;
 import cn.hippo4j.config.springboot.starter.config.BootstrapConfigProperties;
+import cn.hippo4j.core.executor.state.ThreadPoolRunStateHandler;
 import cn.hippo4j.core.executor.support.ThreadFactoryBuilder;
 import cn.hippo4j.common.spi.DynamicThreadPoolServiceLoader;
 import cn.hippo4j.monitor.base.DynamicThreadPoolMonitor;
 import cn.hippo4j.monitor.base.ThreadPoolMonitor;
+import cn.hippo4j.monitor.base.ThreadPoolMonitorDispatcher;
+import cn.hippo4j.monitor.base.ThreadPoolMonitorDispatcher.MonitorStats;
+import cn.hippo4j.monitor.base.ThreadPoolMonitorStatsProvider;
 import com.google.common.collect.Lists;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
@@ -41,7 +49,7 @@ import java.util.concurrent.TimeUnit;
  */
 @Slf4j
 @RequiredArgsConstructor
-public class DynamicThreadPoolMonitorExecutor implements ApplicationRunner {
+public class DynamicThreadPoolMonitorExecutor implements ApplicationRunner, DisposableBean, ThreadPoolMonitorStatsProvider {
 
     private final BootstrapConfigProperties properties;
 
@@ -49,6 +57,8 @@ public class DynamicThreadPoolMonitorExecutor implements ApplicationRunner {
 
     private List<ThreadPoolMonitor> threadPoolMonitors;
 
+    private ThreadPoolMonitorDispatcher threadPoolMonitorDispatcher;
+
     @Override
     public void run(ApplicationArguments args) throws Exception {
         String collectType = properties.getCollectType();
@@ -71,21 +81,26 @@ public class DynamicThreadPoolMonitorExecutor implements ApplicationRunner {
         Collection<DynamicThreadPoolMonitor> dynamicThreadPoolMonitors =
                 DynamicThreadPoolServiceLoader.getSingletonServiceInstances(DynamicThreadPoolMonitor.class);
         dynamicThreadPoolMonitors.stream().filter(each -> collectTypes.contains(each.getType())).forEach(each -> threadPoolMonitors.add(each));
+        threadPoolMonitorDispatcher = new ThreadPoolMonitorDispatcher(
+                ApplicationContextHolder.getBean(ThreadPoolRunStateHandler.class),
+                threadPoolMonitors,
+                Optional.ofNullable(properties.getMonitorTimeout()).orElse(properties.getCollectInterval()));
         // Execute dynamic thread pool monitoring component.
         collectExecutor.scheduleWithFixedDelay(
-                () -> scheduleRunnable(),
+                () -> threadPoolMonitorDispatcher.dispatch(),
                 properties.getInitialDelay(),
                 properties.getCollectInterval(),
                 TimeUnit.MILLISECONDS);
     }
 
-    private void scheduleRunnable() {
-        for (ThreadPoolMonitor each : threadPoolMonitors) {
-            try {
-                each.collect();
-            } catch (Exception ex) {
-                log.error("Error monitoring the running status of dynamic thread pool. Type: {}", each.getType(), ex);
-            }
-        }
+    @Override
+    public Map<String, MonitorStats> getMonitorStats() {
+        return threadPoolMonitorDispatcher == null ? Collections.emptyMap() : threadPoolMonitorDispatcher.getMonitorStats();
+    }
+
+    @Override
+    public void destroy() {
+        Optional.ofNullable(collectExecutor).ifPresent((each) -> each.shutdown());
+        Optional.ofNullable(threadPoolMonitorDispatcher).ifPresent((each) -> each.shutdown());
     }
 }
@@ -19,6 +19,8 @@ package cn.hippo4j.springboot.starter.monitor.local.log;
 
 import cn.hippo4j.core.executor.state.ThreadPoolRunStateHandler;
 import cn.hippo4j.monitor.local.log.LocalLogMonitorHandler;
+import cn.hippo4j.monitor.local.log.LocalLogMonitorProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -29,7 +31,13 @@ import org.springframework.context.annotation.Configuration;
 public class LocalLogMonitorAutoConfiguration {
 
     @Bean
-    public LocalLogMonitorHandler localLogMonitorHandler(ThreadPoolRunStateHandler threadPoolRunStateHandler) {
-        return new LocalLogMonitorHandler(threadPoolRunStateHandler);
+    @ConfigurationProperties(prefix = "spring.dynamic.thread-pool.local-log")
+    public LocalLogMonitorProperties localLogMonitorProperties() {
+        return new LocalLogMonitorProperties();
+    }
+
+    @Bean
+    public LocalLogMonitorHandler localLogMonitorHandler(ThreadPoolRunStateHandler threadPoolRunStateHandler, LocalLogMonitorProperties localLogMonitorProperties) {
+        return new LocalLogMonitorHandler(threadPoolRunStateHandler, localLogMonitorProperties);
     }
 }
@@ -17,8 +17,9 @@
 
 package cn.hippo4j.springboot.starter.monitor.prometheus;
 
-import cn.hippo4j.core.executor.state.ThreadPoolRunStateHandler;
 import cn.hippo4j.monitor.prometheus.PrometheusMonitorHandler;
+import cn.hippo4j.monitor.prometheus.PrometheusTimerProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -29,7 +30,13 @@ import org.springframework.context.annotation.Configuration;
 public class PrometheusMonitorAutoConfiguration {
 
     @Bean
-    public PrometheusMonitorHandler prometheusMonitorHandler(ThreadPoolRunStateHandler threadPoolRunStateHandler) {
-        return new PrometheusMonitorHandler(threadPoolRunStateHandler);
+    @ConfigurationProperties(prefix = "spring.dynamic.thread-pool.prometheus.timer")
+    public PrometheusTimerProperties prometheusTimerProperties() {
+        return new PrometheusTimerProperties();
+    }
+
+    @Bean
+    public PrometheusMonitorHandler prometheusMonitorHandler(PrometheusTimerProperties prometheusTimerProperties) {
+        return new PrometheusMonitorHandler(prometheusTimerProperties);
     }
 }
@@ -59,6 +59,31 @@ public class BootstrapProperties implements BootstrapPropertiesInterface {
      */
     private String reportType;
 
+    /**
+     * Number of collected messages merged into one http report, 1 reports every collection immediately
+     */
+    private Integer reportBatchSize = 1;
+
+    /**
+     * Max time a collected message waits in the http report batch before it is reported. unit: ms
+     */
+    private Long reportBatchFlushInterval = 10000L;
+
+    /**
+     * Gzip the body of batched http reports
+     */
+    private Boolean reportGzip = false;
+
+    /**
+     * Only report thread pools whose runtime data changed since the last report
+     */
+    private Boolean deltaReport = false;
+
+    /**
+     * In delta report mode, report all thread pools every n collections
+     */
+    private Integer reportKeyframeInterval = 12;
+
     /**
      * Namespace
      */
@@ -69,6 +94,26 @@ public class BootstrapProperties implements BootstrapPropertiesInterface {
      */
     private String itemId;
 
+    /**
+     * Long polling only reports config fingerprint and changed thread pools, requires server support
+     */
+    private Boolean deltaListening = false;
+
+    /**
+     * Start thread pools with local parameters and apply the server config asynchronously
+     */
+    private Boolean asyncRegister = false;
+
+    /**
+     * Keep the last known server config on local disk, used when the server is unavailable at startup
+     */
+    private Boolean localSnapshot = false;
+
+    /**
+     * Local config snapshot directory
+     */
+    private String localSnapshotPath = System.getProperty("user.home") + "/hippo4j/snapshot";
+
     /**
      * Whether to enable dynamic thread pool
      */
@@ -94,6 +139,31 @@ public class BootstrapProperties implements BootstrapPropertiesInterface {
      */
     private Integer taskBufferSize = 4096;
 
+    /**
+     * Spill reports to disk while the server is unavailable or the buffer container is full, and replay them later
+     */
+    private Boolean spillEnabled = false;
+
+    /**
+     * Spill segment file directory
+     */
+    private String spillPath = System.getProperty("user.home") + "/hippo4j/spill";
+
+    /**
+     * Size of each spill segment file. unit: byte
+     */
+    private Integer spillSegmentSize = 8 * 1024 * 1024;
+
+    /**
+     * Max number of spill segment files, the oldest segment is dropped beyond it
+     */
+    private Integer spillMaxSegments = 16;
+
+    /**
+     * Max number of spilled reports replayed per second after the server recovers
+     */
+    private Integer spillReplayRate = 20;
+
     /**
      * Delay starting data acquisition task. unit: ms
      */
@@ -103,4 +173,9 @@ public class BootstrapProperties implements BootstrapPropertiesInterface {
      * Time interval for client to collect monitoring data. unit: ms
      */
     private Long collectInterval = 5000L;
+
+    /**
+     * Timeout of each monitor collection, defaults to the collect interval. unit: ms
+     */
+    private Long monitorTimeout;
 }
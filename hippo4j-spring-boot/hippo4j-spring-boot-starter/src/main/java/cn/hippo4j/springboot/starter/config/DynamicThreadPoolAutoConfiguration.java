@@ -96,7 +96,7 @@ public class DynamicThreadPoolAutoConfiguration {
                                             InetUtils hippo4JInetUtils,
                                             ServerHealthCheck serverHealthCheck) {
         String identify = IdentifyUtil.generate(environment, hippo4JInetUtils);
-        return new ClientWorker(httpAgent, identify, serverHealthCheck);
+        return new ClientWorker(httpAgent, identify, serverHealthCheck, properties);
     }
 
     @Bean
@@ -114,8 +114,9 @@ public class DynamicThreadPoolAutoConfiguration {
     @SuppressWarnings("all")
     public DynamicThreadPoolPostProcessor threadPoolBeanPostProcessor(HttpAgent httpAgent,
                                                                       ApplicationContextHolder hippo4JApplicationContextHolder,
-                                                                      DynamicThreadPoolSubscribeConfig dynamicThreadPoolSubscribeConfig) {
-        return new DynamicThreadPoolPostProcessor(properties, httpAgent, dynamicThreadPoolSubscribeConfig);
+                                                                      DynamicThreadPoolSubscribeConfig dynamicThreadPoolSubscribeConfig,
+                                                                      ClientWorker clientWorker) {
+        return new DynamicThreadPoolPostProcessor(properties, httpAgent, dynamicThreadPoolSubscribeConfig, clientWorker);
     }
 
     @Bean
@@ -124,17 +125,23 @@ public class DynamicThreadPoolAutoConfiguration {
         return new BaseThreadDetailStateHandler();
     }
 
+    @Bean
+    public ThreadPoolStackSampler threadPoolStackSampler() {
+        return new ThreadPoolStackSampler();
+    }
+
     @Bean
     public WebThreadPoolRunStateController poolRunStateController(ThreadPoolRunStateHandler threadPoolRunStateHandler,
-                                                                  ThreadDetailState threadDetailState) {
-        return new WebThreadPoolRunStateController(threadPoolRunStateHandler, threadDetailState);
+                                                                  ThreadDetailState threadDetailState,
+                                                                  ThreadPoolStackSampler threadPoolStackSampler) {
+        return new WebThreadPoolRunStateController(threadPoolRunStateHandler, threadDetailState, threadPoolStackSampler);
     }
 
     @Bean
     @ConditionalOnMissingBean
     @SuppressWarnings("all")
-    public MessageSender messageSender(HttpAgent httpAgent) {
-        return new HttpConnectSender(httpAgent);
+    public MessageSender messageSender(HttpAgent httpAgent, BootstrapProperties properties) {
+        return new HttpConnectSender(httpAgent, properties);
     }
 
     @Bean
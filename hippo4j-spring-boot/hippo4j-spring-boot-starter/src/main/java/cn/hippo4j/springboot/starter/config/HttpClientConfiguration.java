@@ -21,6 +21,7 @@ import cn.hippo4j.springboot.starter.toolkit.HttpClientUtil;
 import cn.hippo4j.springboot.starter.remote.HttpAgent;
 import cn.hippo4j.springboot.starter.remote.ServerHttpAgent;
 import lombok.SneakyThrows;
+import okhttp3.ConnectionPool;
 import okhttp3.OkHttpClient;
 import org.springframework.context.annotation.Bean;
 
@@ -35,12 +36,18 @@ import java.util.concurrent.TimeUnit;
  */
 public class HttpClientConfiguration {
 
+    private static final int MAX_IDLE_CONNECTIONS = 8;
+
+    private static final long KEEP_ALIVE_MINUTES = 5L;
+
     @Bean
     public OkHttpClient hippo4JOkHttpClient() {
         OkHttpClient.Builder build = new OkHttpClient.Builder();
         build.connectTimeout(10, TimeUnit.SECONDS)
                 .readTimeout(30, TimeUnit.SECONDS)
-                .build();
+                // Keep connections to the server alive between collection intervals and long polling.
+                .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+                .retryOnConnectionFailure(true);
         supportHttps(build);
         return build.build();
     }
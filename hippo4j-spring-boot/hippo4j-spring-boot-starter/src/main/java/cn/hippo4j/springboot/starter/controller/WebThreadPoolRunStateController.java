@@ -20,13 +20,16 @@ package cn.hippo4j.springboot.starter.controller;
 import cn.hippo4j.common.api.ThreadDetailState;
 import cn.hippo4j.common.model.ThreadPoolRunStateInfo;
 import cn.hippo4j.common.model.ThreadDetailStateInfo;
+import cn.hippo4j.common.model.ThreadStackSampleInfo;
 import cn.hippo4j.common.web.base.Result;
 import cn.hippo4j.common.web.base.Results;
 import cn.hippo4j.core.executor.state.ThreadPoolRunStateHandler;
+import cn.hippo4j.springboot.starter.core.ThreadPoolStackSampler;
 import lombok.AllArgsConstructor;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -43,6 +46,8 @@ public class WebThreadPoolRunStateController {
 
     private final ThreadDetailState threadDetailState;
 
+    private final ThreadPoolStackSampler threadPoolStackSampler;
+
     @GetMapping("/run/state/{threadPoolId}")
     public Result<ThreadPoolRunStateInfo> getPoolRunState(@PathVariable("threadPoolId") String threadPoolId) {
         ThreadPoolRunStateInfo result = threadPoolRunStateHandler.getPoolRunState(threadPoolId);
@@ -54,4 +59,24 @@ public class WebThreadPoolRunStateController {
         List<ThreadDetailStateInfo> result = threadDetailState.getThreadDetailStateInfo(threadPoolId);
         return Results.success(result);
     }
+
+    @GetMapping("/run/thread/sample/start/{threadPoolId}")
+    public Result<Void> startThreadStackSample(@PathVariable("threadPoolId") String threadPoolId,
+                                               @RequestParam(value = "interval", defaultValue = "50") Long interval,
+                                               @RequestParam(value = "duration", defaultValue = "30") Long duration) {
+        threadPoolStackSampler.start(threadPoolId, interval, duration);
+        return Results.success();
+    }
+
+    @GetMapping("/run/thread/sample/stop/{threadPoolId}")
+    public Result<Void> stopThreadStackSample(@PathVariable("threadPoolId") String threadPoolId) {
+        threadPoolStackSampler.stop(threadPoolId);
+        return Results.success();
+    }
+
+    @GetMapping("/run/thread/sample/{threadPoolId}")
+    public Result<ThreadStackSampleInfo> drainThreadStackSample(@PathVariable("threadPoolId") String threadPoolId) {
+        ThreadStackSampleInfo result = threadPoolStackSampler.drain(threadPoolId);
+        return Results.success(result);
+    }
 }
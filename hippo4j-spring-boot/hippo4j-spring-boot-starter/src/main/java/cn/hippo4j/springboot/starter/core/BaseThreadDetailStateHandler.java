@@ -19,14 +19,12 @@ package cn.hippo4j.springboot.starter.core;
 
 import cn.hippo4j.common.api.ThreadDetailState;
 import cn.hippo4j.common.model.ThreadDetailStateInfo;
-import cn.hippo4j.common.toolkit.CollectionUtil;
-import cn.hippo4j.common.toolkit.ReflectUtil;
-import cn.hippo4j.core.executor.manage.GlobalThreadPoolManage;
 import cn.hippo4j.core.executor.DynamicThreadPoolWrapper;
+import cn.hippo4j.core.executor.manage.GlobalThreadPoolManage;
 import lombok.extern.slf4j.Slf4j;
 
+import java.lang.management.ThreadInfo;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 import java.util.concurrent.ThreadPoolExecutor;
 
@@ -38,10 +36,6 @@ import java.util.concurrent.ThreadPoolExecutor;
 @Slf4j
 public class BaseThreadDetailStateHandler implements ThreadDetailState {
 
-    private final String WORKERS = "workers";
-
-    private final String THREAD = "thread";
-
     @Override
     public List<ThreadDetailStateInfo> getThreadDetailStateInfo(String threadPoolId) {
         DynamicThreadPoolWrapper dynamicThreadPoolWrapper = GlobalThreadPoolManage.getExecutorService(threadPoolId);
@@ -53,34 +47,20 @@ public class BaseThreadDetailStateHandler implements ThreadDetailState {
     public List<ThreadDetailStateInfo> getThreadDetailStateInfo(ThreadPoolExecutor threadPoolExecutor) {
         List<ThreadDetailStateInfo> resultThreadStates = new ArrayList();
         try {
-            HashSet<Object> workers = (HashSet<Object>) ReflectUtil.getFieldValue(threadPoolExecutor, WORKERS);
-            if (CollectionUtil.isEmpty(workers)) {
-                return resultThreadStates;
-            }
-            for (Object worker : workers) {
-                Thread thread;
-                try {
-                    thread = (Thread) ReflectUtil.getFieldValue(worker, THREAD);
-                    if (thread == null) {
-                        log.warn("Reflection get worker thread is null. Worker: {}", worker);
-                        continue;
-                    }
-                } catch (Exception ex) {
-                    log.error("Reflection get worker thread exception. Worker: {}", worker, ex);
+            ThreadInfo[] threadInfos = ThreadPoolWorkerSupport.getWorkerThreadInfos(threadPoolExecutor, Integer.MAX_VALUE);
+            for (ThreadInfo threadInfo : threadInfos) {
+                if (threadInfo == null) {
                     continue;
                 }
-                long threadId = thread.getId();
-                String threadName = thread.getName();
-                String threadStatus = thread.getState().name();
-                StackTraceElement[] stackTrace = thread.getStackTrace();
+                StackTraceElement[] stackTrace = threadInfo.getStackTrace();
                 List<String> threadStack = new ArrayList(stackTrace.length);
                 for (int i = 0; i < stackTrace.length; i++) {
                     threadStack.add(stackTrace[i].toString());
                 }
                 ThreadDetailStateInfo threadState = ThreadDetailStateInfo.builder()
-                        .threadId(threadId)
-                        .threadName(threadName)
-                        .threadStatus(threadStatus)
+                        .threadId(threadInfo.getThreadId())
+                        .threadName(threadInfo.getThreadName())
+                        .threadStatus(threadInfo.getThreadState().name())
                         .threadStack(threadStack)
                         .build();
                 resultThreadStates.add(threadState);
@@ -18,36 +18,52 @@
 package cn.hippo4j.springboot.starter.core;
 
 import cn.hippo4j.common.model.ThreadPoolParameterInfo;
+import cn.hippo4j.common.toolkit.CollectionUtil;
 import cn.hippo4j.common.toolkit.ContentUtil;
 import cn.hippo4j.common.toolkit.GroupKey;
 import cn.hippo4j.common.toolkit.JSONUtil;
+import cn.hippo4j.common.toolkit.Md5Util;
 import cn.hippo4j.common.web.base.Result;
+import cn.hippo4j.common.web.exception.ErrorCodeEnum;
+import cn.hippo4j.common.web.exception.ServiceException;
 import cn.hippo4j.core.executor.support.ThreadFactoryBuilder;
+import cn.hippo4j.springboot.starter.config.BootstrapProperties;
 import cn.hippo4j.springboot.starter.remote.HttpAgent;
 import cn.hippo4j.springboot.starter.remote.ServerHealthCheck;
 import cn.hutool.core.util.IdUtil;
+import com.fasterxml.jackson.core.type.TypeReference;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.util.StringUtils;
 
 import java.net.URLDecoder;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
+import static cn.hippo4j.common.constant.Constants.CONFIG_BATCH_PATH;
 import static cn.hippo4j.common.constant.Constants.CONFIG_CONTROLLER_PATH;
 import static cn.hippo4j.common.constant.Constants.CONFIG_LONG_POLL_TIMEOUT;
+import static cn.hippo4j.common.constant.Constants.GENERAL_SPLIT_SYMBOL;
+import static cn.hippo4j.common.constant.Constants.GROUP_KEY_DELIMITER;
 import static cn.hippo4j.common.constant.Constants.GROUP_KEY_DELIMITER_TRANSLATION;
 import static cn.hippo4j.common.constant.Constants.LINE_SEPARATOR;
 import static cn.hippo4j.common.constant.Constants.LISTENER_PATH;
+import static cn.hippo4j.common.constant.Constants.LISTENING_FINGERPRINT;
+import static cn.hippo4j.common.constant.Constants.LISTENING_FULL_SYNC;
+import static cn.hippo4j.common.constant.Constants.LISTENING_PROTOCOL_DELTA;
+import static cn.hippo4j.common.constant.Constants.LISTENING_PROTOCOL_VERSION;
+import static cn.hippo4j.common.constant.Constants.LISTENING_SESSION_ID;
 import static cn.hippo4j.common.constant.Constants.LONG_PULLING_CLIENT_IDENTIFICATION;
 import static cn.hippo4j.common.constant.Constants.LONG_PULLING_TIMEOUT;
 import static cn.hippo4j.common.constant.Constants.LONG_PULLING_TIMEOUT_NO_HANGUP;
@@ -70,6 +86,22 @@ public class ClientWorker {
 
     private final ServerHealthCheck serverHealthCheck;
 
+    private final boolean deltaListening;
+
+    private final LocalConfigSnapshot localConfigSnapshot;
+
+    private final String sessionId = IdUtil.simpleUUID();
+
+    /**
+     * Delta listening: send all listened thread pools on the next poll.
+     */
+    private volatile boolean fullSync = true;
+
+    /**
+     * Delta listening: md5 of each thread pool accepted by the server. Only accessed by the long polling thread.
+     */
+    private final Map<String, String> reportedMd5Map = new HashMap();
+
     private final ScheduledExecutorService executor;
 
     private final ScheduledExecutorService executorService;
@@ -78,10 +110,24 @@ public class ClientWorker {
 
     private final ConcurrentHashMap<String, CacheData> cacheMap = new ConcurrentHashMap(16);
 
+    /**
+     * Thread pool config prefetched during application startup, released after startup.
+     */
+    private volatile Map<String, ThreadPoolParameterInfo> prefetchConfigMap;
+
+    private boolean prefetchAttempted = false;
+
+    /**
+     * Whether the prefetched configs were read from the local snapshot instead of the server.
+     */
+    private volatile boolean prefetchFromSnapshot = false;
+
     @SuppressWarnings("all")
-    public ClientWorker(HttpAgent httpAgent, String identify, ServerHealthCheck serverHealthCheck) {
+    public ClientWorker(HttpAgent httpAgent, String identify, ServerHealthCheck serverHealthCheck, BootstrapProperties properties) {
         this.agent = httpAgent;
         this.identify = identify;
+        this.deltaListening = Boolean.TRUE.equals(properties.getDeltaListening());
+        this.localConfigSnapshot = new LocalConfigSnapshot(properties);
         this.timeout = CONFIG_LONG_POLL_TIMEOUT;
         this.serverHealthCheck = serverHealthCheck;
         this.executor = Executors.newScheduledThreadPool(1, runnable -> {
@@ -113,19 +159,8 @@ public class ClientWorker {
             List<String> inInitializingCacheList = new ArrayList();
             cacheMap.forEach((key, val) -> cacheDataList.add(val));
             List<String> changedTpIds = checkUpdateDataIds(cacheDataList, inInitializingCacheList);
-            for (String groupKey : changedTpIds) {
-                String[] keys = groupKey.split(GROUP_KEY_DELIMITER_TRANSLATION);
-                String tpId = keys[0];
-                String itemId = keys[1];
-                String namespace = keys[2];
-                try {
-                    String content = getServerConfig(namespace, itemId, tpId, 3000L);
-                    CacheData cacheData = cacheMap.get(tpId);
-                    String poolContent = ContentUtil.getPoolContent(JSONUtil.parseObject(content, ThreadPoolParameterInfo.class));
-                    cacheData.setContent(poolContent);
-                } catch (Exception ignored) {
-                    log.error("Failed to get the latest thread pool configuration.", ignored);
-                }
+            if (!changedTpIds.isEmpty()) {
+                refreshChangedConfigs(changedTpIds);
             }
             for (CacheData cacheData : cacheDataList) {
                 if (!cacheData.isInitializing() || inInitializingCacheList
@@ -139,7 +174,37 @@ public class ClientWorker {
         }
     }
 
+    /**
+     * Fetch the changed thread pool configs, one batch request per namespace and item.
+     *
+     * @param changedGroupKeys
+     */
+    private void refreshChangedConfigs(List<String> changedGroupKeys) {
+        Map<String, List<String>> changedTpIdMap = new HashMap();
+        for (String groupKey : changedGroupKeys) {
+            String[] keys = groupKey.split(GROUP_KEY_DELIMITER_TRANSLATION);
+            changedTpIdMap.computeIfAbsent(keys[2] + GROUP_KEY_DELIMITER + keys[1], each -> new ArrayList()).add(keys[0]);
+        }
+        changedTpIdMap.forEach((namespaceAndItemId, tpIds) -> {
+            String[] keys = namespaceAndItemId.split(GROUP_KEY_DELIMITER_TRANSLATION);
+            try {
+                getServerConfigs(keys[0], keys[1], tpIds, 3000L).forEach((tpId, poolInfo) -> {
+                    CacheData cacheData = cacheMap.get(tpId);
+                    if (cacheData != null) {
+                        cacheData.setContent(ContentUtil.getPoolContent(poolInfo));
+                        localConfigSnapshot.save(tpId, cacheData.content);
+                    }
+                });
+            } catch (Exception ignored) {
+                log.error("Failed to get the latest thread pool configuration.", ignored);
+            }
+        });
+    }
+
     private List<String> checkUpdateDataIds(List<CacheData> cacheDataList, List<String> inInitializingCacheList) {
+        if (deltaListening) {
+            return checkUpdateDataIdsByDelta(cacheDataList, inInitializingCacheList);
+        }
         StringBuilder sb = new StringBuilder();
         for (CacheData cacheData : cacheDataList) {
             sb.append(cacheData.threadPoolId).append(WORD_SEPARATOR);
@@ -155,6 +220,74 @@ public class ClientWorker {
         return checkUpdateTpIds(sb.toString(), isInitializingCacheList);
     }
 
+    /**
+     * Only report the thread pools whose md5 changed since the last accepted poll, together with an aggregate
+     * fingerprint of all md5. The full list is sent on the first poll, after a failure, or when the server asks for it.
+     *
+     * @param cacheDataList
+     * @param inInitializingCacheList
+     * @return
+     */
+    private List<String> checkUpdateDataIdsByDelta(List<CacheData> cacheDataList, List<String> inInitializingCacheList) {
+        if (cacheDataList.isEmpty()) {
+            return Collections.emptyList();
+        }
+        boolean isFullSync = fullSync;
+        StringBuilder sb = new StringBuilder();
+        Map<String, String> probeMd5Map = new HashMap(cacheDataList.size());
+        for (CacheData cacheData : cacheDataList) {
+            String md5 = cacheData.getMd5();
+            probeMd5Map.put(cacheData.threadPoolId, md5);
+            if (isFullSync || !Objects.equals(md5, reportedMd5Map.get(cacheData.threadPoolId))) {
+                sb.append(cacheData.threadPoolId).append(WORD_SEPARATOR);
+                sb.append(cacheData.itemId).append(WORD_SEPARATOR);
+                sb.append(cacheData.tenantId).append(WORD_SEPARATOR);
+                sb.append(identify).append(WORD_SEPARATOR);
+                sb.append(md5).append(LINE_SEPARATOR);
+            }
+            if (cacheData.isInitializing()) {
+                inInitializingCacheList.add(GroupKey.getKeyTenant(cacheData.threadPoolId, cacheData.itemId, cacheData.tenantId));
+            }
+        }
+        Map<String, String> params = new HashMap(4);
+        params.put(PROBE_MODIFY_REQUEST, sb.toString());
+        params.put(LISTENING_FINGERPRINT, Md5Util.getFingerprint(probeMd5Map.values()));
+        params.put(WEIGHT_CONFIGS, IdUtil.simpleUUID());
+        Map<String, String> headers = new HashMap(6);
+        headers.put(LONG_PULLING_TIMEOUT, "" + timeout);
+        headers.put(LONG_PULLING_CLIENT_IDENTIFICATION, identify);
+        headers.put(LISTENING_PROTOCOL_VERSION, LISTENING_PROTOCOL_DELTA);
+        headers.put(LISTENING_SESSION_ID, sessionId);
+        if (isFullSync) {
+            headers.put(LISTENING_FULL_SYNC, "true");
+        }
+        if (!inInitializingCacheList.isEmpty()) {
+            headers.put(LONG_PULLING_TIMEOUT_NO_HANGUP, "true");
+        }
+        try {
+            long readTimeoutMs = timeout + (long) Math.round(timeout >> 1);
+            Result result = agent.httpPostByConfig(LISTENER_PATH, headers, params, readTimeoutMs);
+            // An empty response means that the long polling timed out without any change.
+            if (result == null || result.isSuccess()) {
+                if (isFullSync) {
+                    reportedMd5Map.clear();
+                    fullSync = false;
+                }
+                reportedMd5Map.putAll(probeMd5Map);
+                return result == null || result.getData() == null ? Collections.emptyList() : parseUpdateDataIdResponse(result.getData().toString());
+            }
+            if (Objects.equals(ErrorCodeEnum.LISTENER_RESYNC.getCode(), result.getCode())) {
+                log.info("Server requires full listening config resync.");
+            }
+            fullSync = true;
+        } catch (Exception ex) {
+            fullSync = true;
+            setHealthServer(false);
+            log.error("Check update get changed dataId exception. error message: {}", ex.getMessage());
+        }
+        return Collections.emptyList();
+    }
+
     public List<String> checkUpdateTpIds(String probeUpdateString, boolean isInitializingCacheList) {
         Map<String, String> params = new HashMap(2);
         params.put(PROBE_MODIFY_REQUEST, probeUpdateString);
@@ -197,6 +330,72 @@ public class ClientWorker {
         return NULL;
     }
 
+    /**
+     * Get thread pool configs with one request.
+     *
+     * @param namespace
+     * @param itemId
+     * @param threadPoolIds thread pool ids, all thread pools of the item if empty
+     * @param readTimeout
+     * @return key: thread pool id, val: config. undefined thread pools are absent
+     */
+    public Map<String, ThreadPoolParameterInfo> getServerConfigs(String namespace, String itemId, Collection<String> threadPoolIds, long readTimeout) {
+        Map<String, String> params = new HashMap(4);
+        params.put("namespace", namespace);
+        params.put("itemId", itemId);
+        if (CollectionUtil.isNotEmpty(threadPoolIds)) {
+            params.put("tpIds", String.join(GENERAL_SPLIT_SYMBOL, threadPoolIds));
+        }
+        params.put("instanceId", identify);
+        Result result = agent.httpGetByConfig(CONFIG_BATCH_PATH, null, params, readTimeout);
+        if (!result.isSuccess()) {
+            throw new ServiceException(String.format("Batch get server config failed. namespace: %s, itemId: %s, result code: %s", namespace, itemId, result.getCode()));
+        }
+        Map<String, ThreadPoolParameterInfo> poolInfoMap = JSONUtil.parseObject(JSONUtil.toJSONString(result.getData()), new TypeReference<Map<String, ThreadPoolParameterInfo>>() {
+        });
+        return poolInfoMap != null ? poolInfoMap : Collections.emptyMap();
+    }
+
+    /**
+     * Prefetch the configs of all thread pools of the item, only attempted once during startup.
+     * <p>
+     * The local snapshot is read first, so the startup does not wait for the server. The long polling then reports
+     * the snapshot md5 of each thread pool and the server pushes whatever changed, which reconciles the snapshot in
+     * the background. The server is only queried here when there is no snapshot.
+     *
+     * @param namespace
+     * @param itemId
+     * @return the local snapshot, or the server configs when there is no snapshot, null if neither is available
+     */
+    public synchronized Map<String, ThreadPoolParameterInfo> prefetchServerConfigs(String namespace, String itemId) {
+        if (!prefetchAttempted) {
+            prefetchAttempted = true;
+            Map<String, ThreadPoolParameterInfo> snapshotMap = localConfigSnapshot.loadAll();
+            if (!snapshotMap.isEmpty()) {
+                log.info("Start thread pools with local config snapshot, reconcile with server in background. thread pool ids: {}", snapshotMap.keySet());
+                prefetchConfigMap = new ConcurrentHashMap(snapshotMap);
+                prefetchFromSnapshot = true;
+                return prefetchConfigMap;
+            }
+            try {
+                prefetchConfigMap = new ConcurrentHashMap(getServerConfigs(namespace, itemId, null, 5000L));
+            } catch (Exception ex) {
+                log.error("Failed to prefetch thread pool configuration. error message: {}", ex.getMessage());
+            }
+        }
+        return prefetchConfigMap;
+    }
+
+    /**
+     * Whether the prefetched configs were read from the local snapshot. If so, a thread pool absent from them may
+     * still be defined in server.
+     *
+     * @return
+     */
+    public boolean isPrefetchFromSnapshot() {
+        return prefetchFromSnapshot;
+    }
+
     public List<String> parseUpdateDataIdResponse(String response) {
         if (StringUtils.isEmpty(response)) {
             return Collections.emptyList();
@@ -239,11 +438,15 @@ public class ClientWorker {
         cacheData = new CacheData(namespace, itemId, threadPoolId);
         CacheData lastCacheData = cacheMap.putIfAbsent(threadPoolId, cacheData);
         if (lastCacheData == null) {
-            String serverConfig;
+            Map<String, ThreadPoolParameterInfo> prefetchConfigs = prefetchConfigMap;
             try {
-                serverConfig = getServerConfig(namespace, itemId, threadPoolId, 3000L);
-                ThreadPoolParameterInfo poolInfo = JSONUtil.parseObject(serverConfig, ThreadPoolParameterInfo.class);
+                ThreadPoolParameterInfo poolInfo = prefetchConfigs != null ? prefetchConfigs.get(threadPoolId) : null;
+                if (poolInfo == null) {
+                    String serverConfig = getServerConfig(namespace, itemId, threadPoolId, 3000L);
+                    poolInfo = JSONUtil.parseObject(serverConfig, ThreadPoolParameterInfo.class);
+                }
                 cacheData.setContent(ContentUtil.getPoolContent(poolInfo));
+                localConfigSnapshot.save(threadPoolId, cacheData.content);
             } catch (Exception ex) {
                 log.error("Cache Data Error. Service Unavailable: {}", ex.getMessage());
             }
@@ -259,6 +462,7 @@ public class ClientWorker {
     }
 
     public void notifyApplicationComplete() {
+        prefetchConfigMap = null;
         awaitApplicationComplete.countDown();
     }
 }
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.springboot.starter.core;
+
+import cn.hippo4j.common.model.ThreadPoolParameterInfo;
+import cn.hippo4j.common.toolkit.JSONUtil;
+import cn.hippo4j.springboot.starter.config.BootstrapProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Local config snapshot.
+ * <p>
+ * Keeps the last known server config of each thread pool on local disk, one file per thread pool.
+ * The first line of the file is the md5 of the content, and the file is replaced atomically,
+ * so a half written or damaged snapshot is never applied.
+ */
+@Slf4j
+public class LocalConfigSnapshot {
+
+    private static final String SNAPSHOT_SUFFIX = ".snapshot";
+
+    private static final String TMP_SUFFIX = ".tmp";
+
+    private static final String SNAPSHOT_LINE_SEPARATOR = "\n";
+
+    private final boolean enable;
+
+    private final Path snapshotDir;
+
+    public LocalConfigSnapshot(BootstrapProperties properties) {
+        this.enable = Boolean.TRUE.equals(properties.getLocalSnapshot());
+        this.snapshotDir = enable ? Paths.get(properties.getLocalSnapshotPath(), properties.getNamespace(), properties.getItemId()) : null;
+    }
+
+    /**
+     * Save the thread pool config snapshot.
+     *
+     * @param threadPoolId thread pool id
+     * @param content      thread pool config content
+     */
+    public void save(String threadPoolId, String content) {
+        if (!enable || content == null) {
+            return;
+        }
+        Path snapshotFile = snapshotDir.resolve(threadPoolId + SNAPSHOT_SUFFIX);
+        String snapshot = CacheData.getMd5String(content) + SNAPSHOT_LINE_SEPARATOR + content;
+        Path tmpFile = null;
+        try {
+            Files.createDirectories(snapshotDir);
+            // A unique temp file in the same directory, so concurrent saves never share it and the move stays atomic.
+            tmpFile = Files.createTempFile(snapshotDir, threadPoolId, TMP_SUFFIX);
+            Files.write(tmpFile, snapshot.getBytes(StandardCharsets.UTF_8));
+            Files.move(tmpFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            log.warn("Failed to save thread pool config snapshot. thread pool id: {}, error message: {}", threadPoolId, ex.getMessage());
+            deleteQuietly(tmpFile);
+        }
+    }
+
+    /**
+     * Load all valid thread pool config snapshots.
+     *
+     * @return key: thread pool id, val: config
+     */
+    public Map<String, ThreadPoolParameterInfo> loadAll() {
+        Map<String, ThreadPoolParameterInfo> snapshotMap = new HashMap();
+        if (!enable || !Files.isDirectory(snapshotDir)) {
+            return snapshotMap;
+        }
+        try (DirectoryStream<Path> snapshotFiles = Files.newDirectoryStream(snapshotDir, "*" + SNAPSHOT_SUFFIX)) {
+            for (Path each : snapshotFiles) {
+                String fileName = each.getFileName().toString();
+                String threadPoolId = fileName.substring(0, fileName.length() - SNAPSHOT_SUFFIX.length());
+                ThreadPoolParameterInfo parameterInfo = load(each);
+                if (parameterInfo != null) {
+                    snapshotMap.put(threadPoolId, parameterInfo);
+                }
+            }
+        } catch (IOException ex) {
+            log.warn("Failed to load thread pool config snapshots. error message: {}", ex.getMessage());
+        }
+        return snapshotMap;
+    }
+
+    private void deleteQuietly(Path tmpFile) {
+        if (tmpFile == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(tmpFile);
+        } catch (IOException ignored) {
+        }
+    }
+
+    private ThreadPoolParameterInfo load(Path snapshotFile) {
+        try {
+            List<String> lines = Files.readAllLines(snapshotFile, StandardCharsets.UTF_8);
+            if (lines.size() == 2 && Objects.equals(lines.get(0), CacheData.getMd5String(lines.get(1)))) {
+                return JSONUtil.parseObject(lines.get(1), ThreadPoolParameterInfo.class);
+            }
+            log.warn("Discard invalid thread pool config snapshot: {}", snapshotFile);
+        } catch (Exception ex) {
+            log.warn("Failed to load thread pool config snapshot: {}, error message: {}", snapshotFile, ex.getMessage());
+        }
+        return null;
+    }
+}
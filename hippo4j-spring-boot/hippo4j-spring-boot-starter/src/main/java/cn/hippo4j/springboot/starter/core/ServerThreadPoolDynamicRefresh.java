@@ -61,6 +61,20 @@ public class ServerThreadPoolDynamicRefresh implements ThreadPoolDynamicRefresh
         refreshDynamicPool(parameter, executor);
     }
 
+    /**
+     * Apply the parameter to the executor without sending a config change notification,
+     * used when the server config is applied at startup.
+     *
+     * @param parameter
+     * @param executor
+     */
+    public void applyParameter(ThreadPoolParameter parameter, ThreadPoolExecutor executor) {
+        changePoolInfo(executor, parameter);
+        log.info("Apply server config to thread pool. threadPoolId: {}, coreSize: {}, maxSize: {}, capacity: {}, keepAliveTime: {}",
+                parameter.getTpId(), executor.getCorePoolSize(), executor.getMaximumPoolSize(),
+                executor.getQueue().remainingCapacity() + executor.getQueue().size(), executor.getKeepAliveTime(TimeUnit.SECONDS));
+    }
+
     private void refreshDynamicPool(ThreadPoolParameter parameter, ThreadPoolExecutor executor) {
         String threadPoolId = parameter.getTpId();
         int originalCoreSize = executor.getCorePoolSize();
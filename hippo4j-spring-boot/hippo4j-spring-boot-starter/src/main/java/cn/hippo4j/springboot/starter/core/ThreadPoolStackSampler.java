@@ -0,0 +1,227 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.springboot.starter.core;
+
+import cn.hippo4j.common.model.ThreadStackSampleInfo;
+import cn.hippo4j.common.toolkit.Assert;
+import cn.hippo4j.core.executor.DynamicThreadPoolWrapper;
+import cn.hippo4j.core.executor.manage.GlobalThreadPoolManage;
+import cn.hippo4j.core.executor.support.ThreadFactoryBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.lang.management.ThreadInfo;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread pool stack sampler.
+ *
+ * <p> Periodically samples the stacks of a pool's busy workers and aggregates them into folded stacks,
+ * one line per distinct stack in the form {@code frame;frame;frame count}, which flame graph tools consume directly.
+ * Idle workers waiting for a task are skipped. Samples are drained by the console while a session is running.
+ */
+@Slf4j
+public class ThreadPoolStackSampler implements DisposableBean {
+
+    private static final long MIN_INTERVAL_MILLIS = 10L;
+
+    private static final long MAX_DURATION_SECONDS = 300L;
+
+    private static final int MAX_STACK_DEPTH = 128;
+
+    private static final int MAX_DISTINCT_STACKS = 4096;
+
+    private static final String TRUNCATED_STACK = "[truncated]";
+
+    private final ScheduledExecutorService samplerExecutor = Executors.newSingleThreadScheduledExecutor(
+            ThreadFactoryBuilder.builder().daemon(true).prefix("client.thread.stack.sampler").build());
+
+    private final Map<String, SamplingSession> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * Start sampling the thread pool, an existing session of the same pool is replaced.
+     *
+     * @param threadPoolId
+     * @param intervalMillis
+     * @param durationSeconds
+     */
+    public void start(String threadPoolId, long intervalMillis, long durationSeconds) {
+        DynamicThreadPoolWrapper wrapper = GlobalThreadPoolManage.getExecutorService(threadPoolId);
+        Assert.notNull(wrapper, "Thread pool does not exist: " + threadPoolId);
+        long interval = Math.max(intervalMillis, MIN_INTERVAL_MILLIS);
+        long duration = Math.min(Math.max(durationSeconds, 1L), MAX_DURATION_SECONDS);
+        SamplingSession session = new SamplingSession(wrapper.getExecutor(),
+                System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(duration));
+        SamplingSession previous = sessions.put(threadPoolId, session);
+        if (previous != null) {
+            previous.cancel();
+        }
+        session.future = samplerExecutor.scheduleWithFixedDelay(session::sample, 0, interval, TimeUnit.MILLISECONDS);
+        log.info("Start sampling thread pool stacks. threadPoolId: {}, interval: {} ms, duration: {} s", threadPoolId, interval, duration);
+    }
+
+    /**
+     * Stop sampling the thread pool, samples not yet drained are kept.
+     *
+     * @param threadPoolId
+     */
+    public void stop(String threadPoolId) {
+        SamplingSession session = sessions.get(threadPoolId);
+        if (session != null) {
+            session.cancel();
+        }
+    }
+
+    /**
+     * Drain the samples aggregated since the last call.
+     *
+     * @param threadPoolId
+     * @return
+     */
+    public ThreadStackSampleInfo drain(String threadPoolId) {
+        ThreadStackSampleInfo sampleInfo = new ThreadStackSampleInfo().setThreadPoolId(threadPoolId);
+        SamplingSession session = sessions.get(threadPoolId);
+        if (session == null) {
+            return sampleInfo.setRunning(false).setSampleCount(0L).setFoldedStacks(new ArrayList<>());
+        }
+        boolean running = session.isRunning();
+        if (!running) {
+            sessions.remove(threadPoolId, session);
+        }
+        return session.drain(sampleInfo).setRunning(running);
+    }
+
+    @Override
+    public void destroy() {
+        samplerExecutor.shutdownNow();
+        sessions.clear();
+    }
+
+    private static final class SamplingSession {
+
+        private final ThreadPoolExecutor executor;
+
+        private final long deadline;
+
+        private volatile ScheduledFuture<?> future;
+
+        private volatile boolean cancelled;
+
+        private Map<String, long[]> foldedStacks = new HashMap<>();
+
+        private long sampleCount;
+
+        private SamplingSession(ThreadPoolExecutor executor, long deadline) {
+            this.executor = executor;
+            this.deadline = deadline;
+        }
+
+        private void sample() {
+            if (cancelled || System.currentTimeMillis() > deadline) {
+                cancel();
+                return;
+            }
+            ThreadInfo[] threadInfos = ThreadPoolWorkerSupport.getWorkerThreadInfos(executor, MAX_STACK_DEPTH);
+            List<String> stacks = new ArrayList<>(threadInfos.length);
+            for (ThreadInfo threadInfo : threadInfos) {
+                if (threadInfo != null) {
+                    String foldedStack = fold(threadInfo.getStackTrace());
+                    if (foldedStack != null) {
+                        stacks.add(foldedStack);
+                    }
+                }
+            }
+            synchronized (this) {
+                sampleCount++;
+                for (String each : stacks) {
+                    long[] count = foldedStacks.get(each);
+                    if (count == null) {
+                        if (foldedStacks.size() >= MAX_DISTINCT_STACKS) {
+                            count = foldedStacks.computeIfAbsent(TRUNCATED_STACK, key -> new long[1]);
+                        } else {
+                            count = new long[1];
+                            foldedStacks.put(each, count);
+                        }
+                    }
+                    count[0]++;
+                }
+            }
+        }
+
+        private ThreadStackSampleInfo drain(ThreadStackSampleInfo sampleInfo) {
+            Map<String, long[]> drained;
+            long drainedSampleCount;
+            synchronized (this) {
+                drained = foldedStacks;
+                drainedSampleCount = sampleCount;
+                foldedStacks = new HashMap<>();
+                sampleCount = 0;
+            }
+            List<Map.Entry<String, long[]>> entries = new ArrayList<>(drained.entrySet());
+            entries.sort((o1, o2) -> Long.compare(o2.getValue()[0], o1.getValue()[0]));
+            List<String> lines = new ArrayList<>(entries.size());
+            for (Map.Entry<String, long[]> entry : entries) {
+                lines.add(entry.getKey() + " " + entry.getValue()[0]);
+            }
+            return sampleInfo.setSampleCount(drainedSampleCount).setFoldedStacks(lines);
+        }
+
+        private boolean isRunning() {
+            return !cancelled && System.currentTimeMillis() <= deadline;
+        }
+
+        private void cancel() {
+            cancelled = true;
+            ScheduledFuture<?> scheduledFuture = future;
+            if (scheduledFuture != null) {
+                scheduledFuture.cancel(false);
+            }
+        }
+
+        /**
+         * Fold the stack root frame first, returns null for a worker idle in {@code getTask}.
+         */
+        private static String fold(StackTraceElement[] stackTrace) {
+            if (stackTrace.length == 0) {
+                return null;
+            }
+            for (StackTraceElement each : stackTrace) {
+                if ("getTask".equals(each.getMethodName()) && ThreadPoolExecutor.class.getName().equals(each.getClassName())) {
+                    return null;
+                }
+            }
+            StringBuilder builder = new StringBuilder(stackTrace.length * 48);
+            for (int i = stackTrace.length - 1; i >= 0; i--) {
+                builder.append(stackTrace[i].getClassName()).append('.').append(stackTrace[i].getMethodName());
+                if (i > 0) {
+                    builder.append(';');
+                }
+            }
+            return builder.toString();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.springboot.starter.core;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread pool worker support.
+ *
+ * <p> Worker threads are read under the executor's {@code mainLock}, as {@link ThreadPoolExecutor} itself does,
+ * and their states are fetched with a single {@link ThreadMXBean#getThreadInfo(long[], int)} call.
+ */
+@Slf4j
+public final class ThreadPoolWorkerSupport {
+
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    private static final long[] EMPTY_THREAD_IDS = new long[0];
+
+    private static final ThreadInfo[] EMPTY_THREAD_INFOS = new ThreadInfo[0];
+
+    private static volatile Field mainLockField;
+
+    private static volatile Field workersField;
+
+    private static volatile Field workerThreadField;
+
+    private static volatile boolean unsupported;
+
+    private ThreadPoolWorkerSupport() {
+    }
+
+    /**
+     * Get the thread infos of all workers of the thread pool.
+     *
+     * @param executor
+     * @param maxDepth
+     * @return thread infos, the element is null if the thread has exited
+     */
+    public static ThreadInfo[] getWorkerThreadInfos(ThreadPoolExecutor executor, int maxDepth) {
+        long[] threadIds = getWorkerThreadIds(executor);
+        if (threadIds.length == 0) {
+            return EMPTY_THREAD_INFOS;
+        }
+        return THREAD_MX_BEAN.getThreadInfo(threadIds, maxDepth);
+    }
+
+    /**
+     * Get the ids of all worker threads of the thread pool.
+     *
+     * @param executor
+     * @return
+     */
+    public static long[] getWorkerThreadIds(ThreadPoolExecutor executor) {
+        if (unsupported) {
+            return EMPTY_THREAD_IDS;
+        }
+        try {
+            initFields();
+            ReentrantLock mainLock = (ReentrantLock) mainLockField.get(executor);
+            mainLock.lock();
+            try {
+                Collection<?> workers = (Collection<?>) workersField.get(executor);
+                long[] threadIds = new long[workers.size()];
+                int index = 0;
+                for (Object worker : workers) {
+                    Thread thread = (Thread) workerThreadField.get(worker);
+                    if (thread != null) {
+                        threadIds[index++] = thread.getId();
+                    }
+                }
+                return index == threadIds.length ? threadIds : Arrays.copyOf(threadIds, index);
+            } finally {
+                mainLock.unlock();
+            }
+        } catch (Exception ex) {
+            unsupported = true;
+            log.error("Failed to read thread pool workers, worker thread info is disabled.", ex);
+            return EMPTY_THREAD_IDS;
+        }
+    }
+
+    private static void initFields() throws Exception {
+        if (workerThreadField != null) {
+            return;
+        }
+        Field mainLock = ThreadPoolExecutor.class.getDeclaredField("mainLock");
+        mainLock.setAccessible(true);
+        Field workers = ThreadPoolExecutor.class.getDeclaredField("workers");
+        workers.setAccessible(true);
+        Class<?> workerClass = Class.forName(ThreadPoolExecutor.class.getName() + "$Worker");
+        Field workerThread = workerClass.getDeclaredField("thread");
+        workerThread.setAccessible(true);
+        mainLockField = mainLock;
+        workersField = workers;
+        workerThreadField = workerThread;
+    }
+}
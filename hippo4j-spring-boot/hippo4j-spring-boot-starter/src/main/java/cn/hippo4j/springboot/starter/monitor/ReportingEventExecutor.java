@@ -19,21 +19,28 @@ package cn.hippo4j.springboot.starter.monitor;
 
 import cn.hippo4j.common.config.ApplicationContextHolder;
 import cn.hippo4j.common.monitor.Message;
+import cn.hippo4j.common.monitor.RuntimeMessage;
 import cn.hippo4j.common.spi.DynamicThreadPoolServiceLoader;
 import cn.hippo4j.common.toolkit.CollectionUtil;
 import cn.hippo4j.common.toolkit.StringUtil;
 import cn.hippo4j.common.toolkit.ThreadUtil;
 import cn.hippo4j.core.executor.manage.GlobalThreadPoolManage;
+import cn.hippo4j.core.executor.state.ThreadPoolRunStateHandler;
 import cn.hippo4j.core.executor.support.ThreadFactoryBuilder;
 import cn.hippo4j.monitor.base.DynamicThreadPoolMonitor;
 import cn.hippo4j.monitor.base.MonitorTypeEnum;
 import cn.hippo4j.monitor.base.ThreadPoolMonitor;
+import cn.hippo4j.monitor.base.ThreadPoolMonitorDispatcher;
+import cn.hippo4j.monitor.base.ThreadPoolMonitorDispatcher.MonitorStats;
+import cn.hippo4j.monitor.base.ThreadPoolMonitorStatsProvider;
 import cn.hippo4j.springboot.starter.config.BootstrapProperties;
 import cn.hippo4j.springboot.starter.monitor.collect.Collector;
 import cn.hippo4j.springboot.starter.monitor.send.MessageSender;
+import cn.hippo4j.springboot.starter.monitor.spill.DiskSpillBuffer;
 import cn.hippo4j.springboot.starter.remote.ServerHealthCheck;
 import cn.hutool.core.collection.CollUtil;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.RateLimiter;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
@@ -42,7 +49,10 @@ import org.springframework.beans.factory.DisposableBean;
 import org.springframework.boot.CommandLineRunner;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.ListIterator;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ArrayBlockingQueue;
@@ -59,7 +69,7 @@ import static cn.hippo4j.core.executor.manage.GlobalThreadPoolManage.getThreadPo
  */
 @Slf4j
 @RequiredArgsConstructor
-public class ReportingEventExecutor implements Runnable, CommandLineRunner, DisposableBean {
+public class ReportingEventExecutor implements Runnable, CommandLineRunner, DisposableBean, ThreadPoolMonitorStatsProvider {
 
     @NonNull
     private final BootstrapProperties properties;
@@ -80,6 +90,11 @@ public class ReportingEventExecutor implements Runnable, CommandLineRunner, Disp
      */
     private List<ThreadPoolMonitor> threadPoolMonitors;
 
+    /**
+     * Dispatches a shared run state snapshot to each monitor on its own worker.
+     */
+    private ThreadPoolMonitorDispatcher threadPoolMonitorDispatcher;
+
     /**
      * Buffer container for data collection, waiting
      * for ReportingEventExecutor to report to the server.
@@ -92,19 +107,98 @@ public class ReportingEventExecutor implements Runnable, CommandLineRunner, Disp
      */
     private ScheduledThreadPoolExecutor collectVesselExecutor;
 
+    /**
+     * Disk spill buffer holding reports during server outages or backpressure, null if disabled.
+     */
+    private DiskSpillBuffer spillBuffer;
+
+    /**
+     * Reports that failed to be sent, ordered by collection time. They are retried ahead of
+     * everything else, while new reports queue up in the spill buffer behind them.
+     */
+    private final LinkedList<Message> retryMessages = new LinkedList<>();
+
+    /**
+     * Rate limiter of retried and replayed reports.
+     */
+    private RateLimiter replayRateLimiter;
+
+    /**
+     * Set on destroy, later failed reports are spilled directly.
+     */
+    private boolean destroyed;
+
     @SneakyThrows
     @Override
     public void run() {
         while (true) {
             try {
-                Message message = messageCollectVessel.take();
-                messageSender.send(message);
+                Message message = spillBuffer == null ? messageCollectVessel.take() : nextMessage();
+                if (message != null) {
+                    messageSender.send(message);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
             } catch (Throwable ex) {
                 log.error("Consumption buffer container task failed. Number of buffer container tasks: {}", messageCollectVessel.size(), ex);
             }
         }
     }
 
+    /**
+     * Take the next report to send, failed reports go first so the server receives reports in order.
+     */
+    private Message nextMessage() throws InterruptedException {
+        synchronized (retryMessages) {
+            if (retryMessages.isEmpty()) {
+                return messageCollectVessel.poll(properties.getCollectInterval(), TimeUnit.MILLISECONDS);
+            }
+            // Reports queued behind a failed one wait with it.
+            Message queued;
+            while ((queued = messageCollectVessel.poll()) != null) {
+                addRetryMessage(queued);
+            }
+        }
+        if (!serverHealthCheck.isHealthStatus()) {
+            Thread.sleep(properties.getCollectInterval());
+            return null;
+        }
+        replayRateLimiter.acquire();
+        synchronized (retryMessages) {
+            return retryMessages.pollFirst();
+        }
+    }
+
+    /**
+     * Insert a failed report by collection time, the caller holds the monitor of the retry list.
+     */
+    private void addRetryMessage(Message message) {
+        long reportTime = reportTime(message);
+        ListIterator<Message> iterator = retryMessages.listIterator(retryMessages.size());
+        while (iterator.hasPrevious()) {
+            if (reportTime(iterator.previous()) <= reportTime) {
+                iterator.next();
+                break;
+            }
+        }
+        iterator.add(message);
+        if (retryMessages.size() > properties.getTaskBufferSize()) {
+            retryMessages.pollFirst();
+            log.warn("Too many monitoring reports waiting for retry, dropped the oldest one.");
+        }
+    }
+
+    private static long reportTime(Message message) {
+        long reportTime = Long.MAX_VALUE;
+        for (Object each : message.getMessages()) {
+            if (each instanceof RuntimeMessage && ((RuntimeMessage) each).getTimestamp() != null) {
+                reportTime = Math.min(reportTime, ((RuntimeMessage) each).getTimestamp());
+            }
+        }
+        return reportTime;
+    }
+
     @Override
     public void run(String... args) {
         if (!properties.getCollect()) {
@@ -119,14 +213,19 @@ public class ReportingEventExecutor implements Runnable, CommandLineRunner, Disp
                 DynamicThreadPoolServiceLoader.getSingletonServiceInstances(DynamicThreadPoolMonitor.class);
         boolean customerDynamicThreadPoolMonitorFlag = CollectionUtil.isNotEmpty(dynamicThreadPoolMonitors) || (collectType.contains(MonitorTypeEnum.PROMETHEUS.name().toLowerCase())
                 || collectType.contains(MonitorTypeEnum.LOG.name().toLowerCase())
-                || collectType.contains(MonitorTypeEnum.ELASTICSEARCH.name().toLowerCase()));
+                || collectType.contains(MonitorTypeEnum.ELASTICSEARCH.name().toLowerCase())
+                || collectType.contains(MonitorTypeEnum.OPENTELEMETRY.name().toLowerCase()));
         if (customerDynamicThreadPoolMonitorFlag) {
             // Get all dynamic thread pool monitoring components.
             Map<String, ThreadPoolMonitor> threadPoolMonitorMap = ApplicationContextHolder.getBeansOfType(ThreadPoolMonitor.class);
             threadPoolMonitorMap.forEach((beanName, monitor) -> threadPoolMonitors.add(monitor));
             dynamicThreadPoolMonitors.stream().filter(each -> collectType.contains(each.getType())).forEach(each -> threadPoolMonitors.add(each));
+            threadPoolMonitorDispatcher = new ThreadPoolMonitorDispatcher(
+                    ApplicationContextHolder.getBean(ThreadPoolRunStateHandler.class),
+                    threadPoolMonitors,
+                    Optional.ofNullable(properties.getMonitorTimeout()).orElse(properties.getCollectInterval()));
             collectVesselExecutor.scheduleWithFixedDelay(
-                    () -> dynamicThreadPoolMonitor(),
+                    () -> threadPoolMonitorDispatcher.dispatch(),
                     properties.getInitialDelay(),
                     properties.getCollectInterval(),
                     TimeUnit.MILLISECONDS);
@@ -141,6 +240,9 @@ public class ReportingEventExecutor implements Runnable, CommandLineRunner, Disp
             messageCollectVessel = new ArrayBlockingQueue(bufferSize);
             // Get all data collection components, currently only historical operation data collection.
             collectors = ApplicationContextHolder.getBeansOfType(Collector.class);
+            if (properties.getSpillEnabled()) {
+                initSpillBuffer();
+            }
             // Start reporting monitoring data thread.
             ThreadUtil.newThread(this, "client.thread.reporting.task", Boolean.TRUE).start();
         }
@@ -150,15 +252,30 @@ public class ReportingEventExecutor implements Runnable, CommandLineRunner, Disp
     }
 
     @Override
-    public void destroy() {
+    public void destroy() throws Exception {
         Optional.ofNullable(collectVesselExecutor).ifPresent((each) -> each.shutdown());
+        Optional.ofNullable(threadPoolMonitorDispatcher).ifPresent((each) -> each.shutdown());
+        if (spillBuffer == null) {
+            return;
+        }
+        // Spill unsent reports in order: failed ones, those pending in the sender, then the queued ones.
+        synchronized (retryMessages) {
+            destroyed = true;
+            retryMessages.forEach(spillBuffer::append);
+            retryMessages.clear();
+        }
+        if (messageSender instanceof DisposableBean) {
+            ((DisposableBean) messageSender).destroy();
+        }
+        List<Message> queued = Lists.newArrayList();
+        messageCollectVessel.drainTo(queued);
+        queued.forEach(spillBuffer::append);
+        spillBuffer.close();
     }
 
-    /**
-     * Running dynamic thread pool monitoring.
-     */
-    private void dynamicThreadPoolMonitor() {
-        threadPoolMonitors.forEach(each -> each.collect());
+    @Override
+    public Map<String, MonitorStats> getMonitorStats() {
+        return threadPoolMonitorDispatcher == null ? Collections.emptyMap() : threadPoolMonitorDispatcher.getMonitorStats();
     }
 
     /**
@@ -166,15 +283,77 @@ public class ReportingEventExecutor implements Runnable, CommandLineRunner, Disp
      */
     private void runTimeGatherTask() {
         boolean healthStatus = serverHealthCheck.isHealthStatus();
-        if (!healthStatus || CollUtil.isEmpty(collectors)) {
+        if ((!healthStatus && spillBuffer == null) || CollUtil.isEmpty(collectors)) {
             return;
         }
         collectors.forEach((beanName, collector) -> {
             Message message = collector.collectMessage();
+            if (CollectionUtil.isEmpty(message.getMessages())) {
+                return;
+            }
+            // Keep reports in order, new reports queue up behind spilled ones until they are replayed.
+            if (spillBuffer != null && (!healthStatus || !spillBuffer.isEmpty() || hasRetryMessages())) {
+                spillBuffer.append(message);
+                return;
+            }
             boolean offer = messageCollectVessel.offer(message);
             if (!offer) {
+                if (spillBuffer != null && spillBuffer.append(message)) {
+                    return;
+                }
                 log.warn("Buffer data starts stacking data...");
             }
         });
     }
+
+    private void initSpillBuffer() {
+        try {
+            spillBuffer = new DiskSpillBuffer(properties.getSpillPath(), properties.getSpillSegmentSize(), properties.getSpillMaxSegments());
+        } catch (Exception ex) {
+            log.error("Failed to create monitoring spill buffer, reports will not be spilled to disk. Path: {}", properties.getSpillPath(), ex);
+            return;
+        }
+        replayRateLimiter = RateLimiter.create(properties.getSpillReplayRate());
+        // Reports that fail to be sent are retried ahead of the spill buffer, which holds newer reports.
+        messageSender.setFailureHandler(message -> {
+            synchronized (retryMessages) {
+                if (!destroyed) {
+                    addRetryMessage(message);
+                    return;
+                }
+            }
+            if (!spillBuffer.append(message)) {
+                log.warn("Failed to spill unsent monitoring report, dropped.");
+            }
+        });
+        ThreadUtil.newThread(this::replaySpilledMessages, "client.thread.spill.replay", Boolean.TRUE).start();
+    }
+
+    private boolean hasRetryMessages() {
+        synchronized (retryMessages) {
+            return !retryMessages.isEmpty();
+        }
+    }
+
+    /**
+     * Replay spilled reports in order, rate limited, while the server is healthy and no failed report waits for retry.
+     */
+    private void replaySpilledMessages() {
+        while (true) {
+            try {
+                Message message = serverHealthCheck.isHealthStatus() && !hasRetryMessages() ? spillBuffer.poll() : null;
+                if (message == null) {
+                    Thread.sleep(properties.getCollectInterval());
+                    continue;
+                }
+                replayRateLimiter.acquire();
+                messageCollectVessel.put(message);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Throwable ex) {
+                log.error("Failed to replay spilled monitoring reports.", ex);
+            }
+        }
+    }
 }
@@ -27,29 +27,56 @@ import cn.hippo4j.core.executor.manage.GlobalThreadPoolManage;
 import cn.hippo4j.core.executor.state.AbstractThreadPoolRuntime;
 import cn.hutool.core.bean.BeanUtil;
 import com.google.common.collect.Lists;
-import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 import static cn.hippo4j.core.toolkit.IdentifyUtil.getThreadPoolIdentify;
 
 /**
  * Thread pool runtime data collection.
  */
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class RunTimeInfoCollector extends AbstractThreadPoolRuntime implements Collector {
 
     private final BootstrapProperties properties;
 
+    /**
+     * Last reported runtime data of each thread pool, used by delta report.
+     */
+    private final Map<String, RuntimeMessage> lastReportedMessages = new HashMap<>();
+
+    private long collectCount;
+
     @Override
     public Message collectMessage() {
         AbstractMessage message = new RuntimeMessage();
         List<Message> runtimeMessages = Lists.newArrayList();
         List<String> listThreadPoolId = GlobalThreadPoolManage.listThreadPoolId();
+        boolean deltaReport = Boolean.TRUE.equals(properties.getDeltaReport());
+        boolean keyframe = !deltaReport || collectCount++ % Math.max(properties.getReportKeyframeInterval(), 1) == 0;
+        Long keyframeInterval = null;
+        Long collectInterval = null;
+        if (deltaReport) {
+            lastReportedMessages.keySet().retainAll(listThreadPoolId);
+            keyframeInterval = Math.max(properties.getReportKeyframeInterval(), 1) * properties.getCollectInterval();
+            collectInterval = properties.getCollectInterval();
+        }
         for (String each : listThreadPoolId) {
             ThreadPoolRunStateInfo poolRunState = getPoolRunState(each);
             RuntimeMessage runtimeMessage = BeanUtil.toBean(poolRunState, RuntimeMessage.class);
             runtimeMessage.setGroupKey(getThreadPoolIdentify(each, properties.getItemId(), properties.getNamespace()));
+            runtimeMessage.setKeyframeInterval(keyframeInterval);
+            runtimeMessage.setCollectInterval(collectInterval);
+            if (deltaReport) {
+                if (!keyframe && unchanged(lastReportedMessages.get(each), runtimeMessage)) {
+                    continue;
+                }
+                lastReportedMessages.put(each, runtimeMessage);
+            }
             runtimeMessages.add(runtimeMessage);
         }
         message.setMessageType(MessageTypeEnum.RUNTIME);
@@ -57,6 +84,27 @@ public class RunTimeInfoCollector extends AbstractThreadPoolRuntime implements C
         return message;
     }
 
+    /**
+     * Whether the runtime data is the same as the last report, ignoring the timestamp.
+     *
+     * @param last    last reported runtime data
+     * @param current current runtime data
+     * @return
+     */
+    private boolean unchanged(RuntimeMessage last, RuntimeMessage current) {
+        return last != null
+                && Objects.equals(last.getCurrentLoad(), current.getCurrentLoad())
+                && Objects.equals(last.getPeakLoad(), current.getPeakLoad())
+                && Objects.equals(last.getPoolSize(), current.getPoolSize())
+                && Objects.equals(last.getLargestPoolSize(), current.getLargestPoolSize())
+                && Objects.equals(last.getActiveSize(), current.getActiveSize())
+                && Objects.equals(last.getQueueCapacity(), current.getQueueCapacity())
+                && Objects.equals(last.getQueueSize(), current.getQueueSize())
+                && Objects.equals(last.getQueueRemainingCapacity(), current.getQueueRemainingCapacity())
+                && Objects.equals(last.getCompletedTaskCount(), current.getCompletedTaskCount())
+                && Objects.equals(last.getRejectCount(), current.getRejectCount());
+    }
+
     @Override
     public ThreadPoolRunStateInfo supplement(ThreadPoolRunStateInfo threadPoolRunStateInfo) {
         return threadPoolRunStateInfo;
@@ -19,6 +19,8 @@ package cn.hippo4j.springboot.starter.monitor.send;
 
 import cn.hippo4j.common.monitor.Message;
 
+import java.util.function.Consumer;
+
 /**
  * Message sender.
  */
@@ -30,4 +32,12 @@ public interface MessageSender {
      * @param message
      */
     void send(Message message);
+
+    /**
+     * Set the handler of messages that could not be delivered to the server, they are dropped by default.
+     *
+     * @param failureHandler failure handler
+     */
+    default void setFailureHandler(Consumer<Message> failureHandler) {
+    }
 }
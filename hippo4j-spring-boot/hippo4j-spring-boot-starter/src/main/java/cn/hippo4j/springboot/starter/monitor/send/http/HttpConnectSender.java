@@ -20,29 +20,137 @@ package cn.hippo4j.springboot.starter.monitor.send.http;
 import cn.hippo4j.common.monitor.Message;
 import cn.hippo4j.common.monitor.MessageWrapper;
 import cn.hippo4j.common.toolkit.MessageConvert;
+import cn.hippo4j.common.web.base.Result;
+import cn.hippo4j.core.executor.support.ThreadFactoryBuilder;
+import cn.hippo4j.springboot.starter.config.BootstrapProperties;
 import cn.hippo4j.springboot.starter.monitor.send.MessageSender;
 import cn.hippo4j.springboot.starter.remote.HttpAgent;
-import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static cn.hippo4j.common.constant.Constants.MONITOR_BATCH_PATH;
 import static cn.hippo4j.common.constant.Constants.MONITOR_PATH;
 
 /**
  * Http sender.
+ *
+ * <p> When report batch size is greater than 1, collected messages are buffered and
+ * reported to the batch endpoint in one request, optionally gzip compressed. The batch is
+ * also reported when it has waited for the flush interval, and on shutdown.
+ *
+ * <p> Messages of a request that could not reach the server are passed to the failure handler,
+ * messages rejected by the server are dropped.
  */
 @Slf4j
-@AllArgsConstructor
-public class HttpConnectSender implements MessageSender {
+public class HttpConnectSender implements MessageSender, DisposableBean {
 
     private final HttpAgent httpAgent;
 
+    private final BootstrapProperties properties;
+
+    private final int batchSize;
+
+    private final List<Message> batchBuffer = new ArrayList<>();
+
+    private final ScheduledExecutorService flushExecutor;
+
+    private volatile Consumer<Message> failureHandler;
+
+    public HttpConnectSender(HttpAgent httpAgent, BootstrapProperties properties) {
+        this.httpAgent = httpAgent;
+        this.properties = properties;
+        this.batchSize = properties.getReportBatchSize() == null ? 1 : properties.getReportBatchSize();
+        if (batchSize > 1) {
+            long flushInterval = properties.getReportBatchFlushInterval();
+            flushExecutor = Executors.newSingleThreadScheduledExecutor(
+                    ThreadFactoryBuilder.builder().daemon(true).prefix("client.scheduled.report.flush").build());
+            flushExecutor.scheduleWithFixedDelay(this::flush, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+        } else {
+            flushExecutor = null;
+        }
+    }
+
     @Override
     public void send(Message message) {
+        if (batchSize <= 1) {
+            post(Collections.singletonList(message));
+            return;
+        }
+        List<Message> batch;
+        synchronized (batchBuffer) {
+            batchBuffer.add(message);
+            if (batchBuffer.size() < batchSize) {
+                return;
+            }
+            batch = drainBatch();
+        }
+        post(batch);
+    }
+
+    @Override
+    public void setFailureHandler(Consumer<Message> failureHandler) {
+        this.failureHandler = failureHandler;
+    }
+
+    /**
+     * Report the buffered messages.
+     */
+    public void flush() {
+        List<Message> batch;
+        synchronized (batchBuffer) {
+            if (batchBuffer.isEmpty()) {
+                return;
+            }
+            batch = drainBatch();
+        }
+        post(batch);
+    }
+
+    @Override
+    public void destroy() {
+        if (flushExecutor != null) {
+            flushExecutor.shutdownNow();
+            flush();
+        }
+    }
+
+    private List<Message> drainBatch() {
+        List<Message> batch = new ArrayList<>(batchBuffer);
+        batchBuffer.clear();
+        return batch;
+    }
+
+    private void post(List<Message> messages) {
+        Result result;
         try {
-            MessageWrapper messageWrapper = MessageConvert.convert(message);
-            httpAgent.httpPost(MONITOR_PATH, messageWrapper);
+            if (batchSize <= 1) {
+                result = httpAgent.httpPost(MONITOR_PATH, MessageConvert.convert(messages.get(0)));
+            } else {
+                List<MessageWrapper> batch = messages.stream().map(MessageConvert::convert).collect(Collectors.toList());
+                result = Boolean.TRUE.equals(properties.getReportGzip())
+                        ? httpAgent.httpPostGzip(MONITOR_BATCH_PATH, batch)
+                        : httpAgent.httpPost(MONITOR_BATCH_PATH, batch);
+            }
         } catch (Throwable ex) {
-            log.error("Failed to push dynamic thread pool runtime data.", ex);
+            Consumer<Message> handler = failureHandler;
+            log.error("Failed to push dynamic thread pool runtime data, messages: {}, {}.", messages.size(), handler == null ? "dropped" : "handed over", ex);
+            if (handler != null) {
+                messages.forEach(handler);
+            }
+            return;
+        }
+        if (result != null && !result.isSuccess()) {
+            log.warn("Dynamic thread pool runtime data rejected by server, messages: {}, code: {}, message: {}",
+                    messages.size(), result.getCode(), result.getMessage());
         }
     }
 }
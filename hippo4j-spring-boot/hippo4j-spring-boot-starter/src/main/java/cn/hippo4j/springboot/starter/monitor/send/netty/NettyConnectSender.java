@@ -18,53 +18,292 @@
 package cn.hippo4j.springboot.starter.monitor.send.netty;
 
 import cn.hippo4j.common.monitor.Message;
-import cn.hippo4j.common.monitor.MessageWrapper;
-import cn.hippo4j.common.toolkit.MessageConvert;
 import cn.hippo4j.springboot.starter.monitor.send.MessageSender;
 import cn.hippo4j.springboot.starter.remote.ServerNettyAgent;
 import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
-import io.netty.channel.EventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioSocketChannel;
-import io.netty.handler.codec.serialization.ClassResolvers;
-import io.netty.handler.codec.serialization.ObjectDecoder;
+import io.netty.handler.codec.LengthFieldPrepender;
 import io.netty.handler.codec.serialization.ObjectEncoder;
-import lombok.AllArgsConstructor;
+import io.netty.handler.flush.FlushConsolidationHandler;
+import io.netty.handler.timeout.IdleStateHandler;
+import io.netty.util.AttributeKey;
+import io.netty.util.concurrent.Future;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 /**
  * Netty connect sender.
+ *
+ * <p> Holds one long-lived channel to the current server address, reconnects with exponential
+ * backoff and keeps the connection alive with heartbeats while no runtime data is written.
+ * Connecting never blocks the reporting thread. Reports sent while connecting or backing off wait in a
+ * small bounded queue, which is written first once the channel is active. Reports that overflow the
+ * queue or fail to be written are passed to the failure handler, and dropped without one.
+ * Writes from the reporting thread are flushed in batches on the event loop.
+ *
+ * <p> Each new connection first sends an empty binary frame and waits for the server to acknowledge
+ * the binary protocol. A server without the binary codec stays silent, then the address is reported
+ * with java serialization until the application restarts.
  */
 @Slf4j
-@AllArgsConstructor
-public class NettyConnectSender implements MessageSender {
+public class NettyConnectSender implements MessageSender, DisposableBean {
+
+    private static final long INITIAL_RECONNECT_BACKOFF = 1000L;
+
+    private static final long MAX_RECONNECT_BACKOFF = 30000L;
+
+    private static final int HEARTBEAT_INTERVAL_SECONDS = 30;
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 3000;
+
+    private static final int EXPLICIT_FLUSH_AFTER_FLUSHES = 64;
+
+    private static final long HANDSHAKE_TIMEOUT_MILLIS = 3000L;
+
+    private static final int MAX_PENDING_MESSAGES = 256;
+
+    private static final AttributeKey<Boolean> ACKNOWLEDGED = AttributeKey.valueOf("hippo4j.monitor.acknowledged");
+
+    private static final AttributeKey<String> SERVER_ADDRESS = AttributeKey.valueOf("hippo4j.monitor.serverAddress");
+
+    private final ServerNettyAgent serverNettyAgent;
+
+    private final Bootstrap bootstrap;
+
+    private final Bootstrap legacyBootstrap;
+
+    /**
+     * Server addresses that did not acknowledge the binary protocol.
+     */
+    private final Set<String> legacyAddresses = ConcurrentHashMap.newKeySet();
 
-    private ServerNettyAgent serverNettyAgent;
+    private volatile Channel channel;
+
+    private volatile String channelAddress;
+
+    private final AtomicBoolean connecting = new AtomicBoolean(false);
+
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    /**
+     * Reports waiting for the channel to become active, guarded by its own monitor together with the writes.
+     */
+    private final Queue<Message> pendingMessages = new ArrayDeque<>(MAX_PENDING_MESSAGES);
+
+    private long reconnectBackoff = INITIAL_RECONNECT_BACKOFF;
+
+    private volatile long nextConnectTime;
+
+    private volatile Consumer<Message> failureHandler;
+
+    public NettyConnectSender(ServerNettyAgent serverNettyAgent) {
+        this.serverNettyAgent = serverNettyAgent;
+        Bootstrap baseBootstrap = new Bootstrap()
+                .group(serverNettyAgent.getEventLoopGroup())
+                .channel(NioSocketChannel.class)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, CONNECT_TIMEOUT_MILLIS)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .option(ChannelOption.TCP_NODELAY, true);
+        this.bootstrap = baseBootstrap.clone().handler(new ChannelInitializer<SocketChannel>() {
+
+            @Override
+            protected void initChannel(SocketChannel ch) {
+                ChannelPipeline pipeline = ch.pipeline();
+                pipeline.addLast(new FlushConsolidationHandler(EXPLICIT_FLUSH_AFTER_FLUSHES, true));
+                pipeline.addLast(new IdleStateHandler(0, HEARTBEAT_INTERVAL_SECONDS, 0));
+                pipeline.addLast(new LengthFieldPrepender(4));
+                pipeline.addLast(new RuntimeMessageEncoder());
+                pipeline.addLast(new SenderHandler(NettyConnectSender.this::acknowledged));
+            }
+        });
+        // Servers without the binary codec neither expect heartbeats nor close idle channels.
+        this.legacyBootstrap = baseBootstrap.clone().handler(new ChannelInitializer<SocketChannel>() {
+
+            @Override
+            protected void initChannel(SocketChannel ch) {
+                ChannelPipeline pipeline = ch.pipeline();
+                pipeline.addLast(new FlushConsolidationHandler(EXPLICIT_FLUSH_AFTER_FLUSHES, true));
+                pipeline.addLast(new ObjectEncoder());
+                pipeline.addLast(new LegacyMessageEncoder());
+                pipeline.addLast(new SenderHandler(each -> {
+                }));
+            }
+        });
+    }
 
     @Override
     public void send(Message message) {
-        MessageWrapper messageWrapper = MessageConvert.convert(message);
-        EventLoopGroup eventLoopGroup = serverNettyAgent.getEventLoopGroup();
-        try {
-            Bootstrap bootstrap = new Bootstrap();
-            bootstrap.group(eventLoopGroup)
-                    .channel(NioSocketChannel.class)
-                    .handler(new ChannelInitializer<SocketChannel>() {
-
-                        @Override
-                        protected void initChannel(SocketChannel ch) {
-                            ChannelPipeline pipeline = ch.pipeline();
-                            pipeline.addLast(new ObjectEncoder());
-                            pipeline.addLast(new ObjectDecoder(Integer.MAX_VALUE,
-                                    ClassResolvers.cacheDisabled(null)));
-                            pipeline.addLast(new SenderHandler(messageWrapper));
-                        }
-                    });
-            bootstrap.connect(serverNettyAgent.getNettyServerAddress(), serverNettyAgent.getNettyServerPort()).sync();
-        } catch (Exception e) {
-            log.error("Netty send error.", e);
+        Channel activeChannel = getActiveChannel();
+        if (activeChannel != null && !activeChannel.isWritable()) {
+            fail(message, "Netty channel is not writable");
+            return;
+        }
+        synchronized (pendingMessages) {
+            Channel current = channel;
+            if (activeChannel == null && current != null && current.isActive()) {
+                // Activated after the check above, the pending queue has been written already.
+                activeChannel = current;
+            }
+            if (activeChannel == null) {
+                if (pendingMessages.size() < MAX_PENDING_MESSAGES) {
+                    pendingMessages.add(message);
+                    return;
+                }
+            } else {
+                writePending(activeChannel);
+                write(activeChannel, message);
+                return;
+            }
+        }
+        fail(message, "Netty channel is not connected and the pending queue is full");
+    }
+
+    /**
+     * Write the pending reports in order, the caller holds the monitor of the pending queue.
+     */
+    private void writePending(Channel activeChannel) {
+        Message pending;
+        while ((pending = pendingMessages.poll()) != null) {
+            write(activeChannel, pending);
+        }
+    }
+
+    private void write(Channel activeChannel, Message message) {
+        activeChannel.writeAndFlush(message).addListener(future -> {
+            if (!future.isSuccess()) {
+                log.error("Netty send error.", future.cause());
+                fail(message, "Netty send error");
+            }
+        });
+    }
+
+    @Override
+    public void setFailureHandler(Consumer<Message> failureHandler) {
+        this.failureHandler = failureHandler;
+    }
+
+    private void fail(Message message, String reason) {
+        Consumer<Message> handler = failureHandler;
+        long failed = droppedCount.incrementAndGet();
+        if (failed == 1 || failed % 100 == 0) {
+            log.warn("{}, {} runtime message. Failed: {}", reason, handler == null ? "discard" : "hand over", failed);
+        }
+        if (handler != null) {
+            handler.accept(message);
+        }
+    }
+
+    /**
+     * Get the channel of the current server address, starting an asynchronous connect when it is missing or inactive.
+     *
+     * @return active channel, or null while it is connecting or backing off
+     */
+    private Channel getActiveChannel() {
+        String address = serverNettyAgent.getNettyServerAddress();
+        Channel current = channel;
+        if (current != null && current.isActive() && Objects.equals(address, channelAddress)) {
+            return current;
+        }
+        if (System.currentTimeMillis() >= nextConnectTime && connecting.compareAndSet(false, true)) {
+            if (current != null) {
+                current.close();
+                channel = null;
+            }
+            connect(address);
+        }
+        return null;
+    }
+
+    private void connect(String address) {
+        boolean legacy = legacyAddresses.contains(address);
+        (legacy ? legacyBootstrap : bootstrap).connect(address, serverNettyAgent.getNettyServerPort()).addListener((ChannelFutureListener) future -> {
+            if (!future.isSuccess()) {
+                log.error("Netty connect error, retry after {} ms.", reconnectBackoff, future.cause());
+                backoff();
+                connecting.set(false);
+                return;
+            }
+            Channel connected = future.channel();
+            if (legacy) {
+                activate(connected, address, "java serialization");
+                return;
+            }
+            connected.attr(SERVER_ADDRESS).set(address);
+            connected.writeAndFlush(SenderHandler.heartbeat());
+            connected.eventLoop().schedule(() -> handshakeTimeout(connected, address), HANDSHAKE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        });
+    }
+
+    private void acknowledged(Channel connected) {
+        if (connected.attr(ACKNOWLEDGED).setIfAbsent(true) == null) {
+            activate(connected, connected.attr(SERVER_ADDRESS).get(), "binary");
+        }
+    }
+
+    private void handshakeTimeout(Channel connected, String address) {
+        if (connected.attr(ACKNOWLEDGED).setIfAbsent(false) != null) {
+            return;
+        }
+        if (!connected.isActive()) {
+            backoff();
+            connecting.set(false);
+            return;
+        }
+        // A server without the binary codec can not decode the hello and never answers.
+        legacyAddresses.add(address);
+        log.warn("Server {} did not acknowledge the binary protocol in {} ms, fall back to java serialization.", address, HANDSHAKE_TIMEOUT_MILLIS);
+        connected.close();
+        // Reconnect at once, so the pending reports do not wait for the next report.
+        connect(address);
+    }
+
+    private void activate(Channel connected, String address, String protocol) {
+        synchronized (pendingMessages) {
+            writePending(connected);
+            channel = connected;
+        }
+        channelAddress = address;
+        reconnectBackoff = INITIAL_RECONNECT_BACKOFF;
+        nextConnectTime = 0L;
+        long dropped = droppedCount.getAndSet(0L);
+        log.info("Netty connected to server: {}, protocol: {}, failed while disconnected: {}", address, protocol, dropped);
+        connecting.set(false);
+    }
+
+    private void backoff() {
+        nextConnectTime = System.currentTimeMillis() + reconnectBackoff;
+        reconnectBackoff = Math.min(reconnectBackoff * 2, MAX_RECONNECT_BACKOFF);
+    }
+
+    @Override
+    public void destroy() {
+        synchronized (pendingMessages) {
+            Message pending;
+            while ((pending = pendingMessages.poll()) != null) {
+                fail(pending, "Netty sender destroyed");
+            }
+        }
+        Channel current = channel;
+        if (current != null) {
+            current.close();
         }
+        Future<?> future = serverNettyAgent.getEventLoopGroup().shutdownGracefully(0, 2, TimeUnit.SECONDS);
+        future.awaitUninterruptibly();
     }
 }
@@ -17,27 +17,83 @@
 
 package cn.hippo4j.springboot.starter.monitor.send.netty;
 
-import cn.hippo4j.common.monitor.MessageWrapper;
+import cn.hippo4j.common.monitor.MessageTypeEnum;
+import cn.hippo4j.common.monitor.RuntimeMessage;
+import cn.hippo4j.common.toolkit.RuntimeMessageCodec;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
-import lombok.AllArgsConstructor;
+import io.netty.handler.timeout.IdleState;
+import io.netty.handler.timeout.IdleStateEvent;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.Collections;
+import java.util.function.Consumer;
+
 /**
- * Sender handler.
+ * Sender handler, writes an empty runtime message as heartbeat when the channel is write idle,
+ * and passes the binary protocol acknowledge of the server to the acknowledge handler.
  */
 @Slf4j
-@AllArgsConstructor
-public class SenderHandler extends SimpleChannelInboundHandler<MessageWrapper> {
+public class SenderHandler extends SimpleChannelInboundHandler<Object> {
+
+    private final Consumer<Channel> acknowledgeHandler;
+
+    public SenderHandler(Consumer<Channel> acknowledgeHandler) {
+        this.acknowledgeHandler = acknowledgeHandler;
+    }
+
+    @Override
+    protected void channelRead0(ChannelHandlerContext ctx, Object msg) throws Exception {
+        if (msg instanceof ByteBuf && isAcknowledge((ByteBuf) msg)) {
+            acknowledgeHandler.accept(ctx.channel());
+        }
+    }
 
-    private MessageWrapper messageWrapper;
+    private boolean isAcknowledge(ByteBuf msg) {
+        byte[] acknowledge = RuntimeMessageCodec.ACKNOWLEDGE;
+        if (msg.readableBytes() < acknowledge.length) {
+            return false;
+        }
+        for (int i = 0; i < acknowledge.length; i++) {
+            if (msg.getByte(msg.readerIndex() + i) != acknowledge[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
+        if (evt instanceof IdleStateEvent && ((IdleStateEvent) evt).state() == IdleState.WRITER_IDLE) {
+            ctx.writeAndFlush(heartbeat());
+            return;
+        }
+        super.userEventTriggered(ctx, evt);
+    }
+
+    /**
+     * Empty runtime message, also sent as the binary protocol hello right after connecting.
+     *
+     * @return heartbeat
+     */
+    static RuntimeMessage heartbeat() {
+        RuntimeMessage heartbeat = new RuntimeMessage();
+        heartbeat.setMessageType(MessageTypeEnum.RUNTIME);
+        heartbeat.setMessages(Collections.emptyList());
+        return heartbeat;
+    }
 
     @Override
-    protected void channelRead0(ChannelHandlerContext ctx, MessageWrapper msg) throws Exception {
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        log.info("Netty channel inactive, reconnect on next report. Channel: {}", ctx.channel());
+        super.channelInactive(ctx);
     }
 
     @Override
-    public void channelActive(ChannelHandlerContext ctx) throws Exception {
-        ctx.channel().writeAndFlush(messageWrapper);
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+        log.error("Netty channel error, close channel: {}", ctx.channel(), cause);
+        ctx.close();
     }
 }
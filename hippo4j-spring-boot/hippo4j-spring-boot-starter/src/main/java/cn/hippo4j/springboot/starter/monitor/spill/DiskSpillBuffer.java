@@ -0,0 +1,286 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.springboot.starter.monitor.spill;
+
+import cn.hippo4j.common.monitor.Message;
+import cn.hippo4j.common.toolkit.RuntimeMessageCodec;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Objects;
+
+/**
+ * Disk spill buffer of monitoring reports.
+ *
+ * <p> Reports are appended to memory mapped segment files as {@code [length][encoded message]}
+ * records, a zero length marks the end of a segment. Segments are read back in order and deleted
+ * once replayed. When the number of segments exceeds the limit the oldest one is dropped, so the
+ * buffer behaves as a ring on disk. After a restart replay starts again at the oldest segment.
+ *
+ * <p> Mappings are released before their segment is deleted and on {@link #close()}, so deleted
+ * segments do not keep disk space while the application runs.
+ */
+@Slf4j
+public class DiskSpillBuffer {
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private static final int LENGTH_SIZE = 4;
+
+    private final File directory;
+
+    private final int segmentSize;
+
+    private final int maxSegments;
+
+    private final Deque<Long> segments = new ArrayDeque<>();
+
+    private final ByteArrayOutputStream encodeBuffer = new ByteArrayOutputStream(4096);
+
+    private long writeSegment = -1L;
+
+    private MappedByteBuffer writeBuffer;
+
+    private long readSegment = -1L;
+
+    private ByteBuffer readBuffer;
+
+    /**
+     * Mapping of the read segment, null while the read buffer is a view of the write buffer.
+     */
+    private MappedByteBuffer readMapping;
+
+    private long droppedSegments;
+
+    private boolean closed;
+
+    public DiskSpillBuffer(String path, int segmentSize, int maxSegments) throws IOException {
+        this.directory = new File(path);
+        this.segmentSize = segmentSize;
+        this.maxSegments = Math.max(2, maxSegments);
+        Files.createDirectories(directory.toPath());
+        File[] files = Objects.requireNonNull(directory.listFiles((dir, name) -> name.endsWith(SEGMENT_SUFFIX)));
+        Arrays.stream(files)
+                .map(each -> Long.parseLong(each.getName().substring(0, each.getName().length() - SEGMENT_SUFFIX.length())))
+                .sorted()
+                .forEach(segments::addLast);
+        if (!segments.isEmpty()) {
+            log.info("Found {} spilled monitoring segments, they will be replayed when the server is healthy.", segments.size());
+        }
+    }
+
+    /**
+     * Append a message.
+     *
+     * @param message message
+     * @return false if the message could not be written
+     */
+    public synchronized boolean append(Message message) {
+        if (closed) {
+            return false;
+        }
+        try {
+            encodeBuffer.reset();
+            RuntimeMessageCodec.encode(message, new DataOutputStream(encodeBuffer));
+            int length = encodeBuffer.size();
+            if (length + 2 * LENGTH_SIZE > segmentSize) {
+                log.warn("Monitoring message of {} bytes exceeds spill segment size, dropped.", length);
+                return false;
+            }
+            if (writeBuffer == null || writeBuffer.remaining() < length + 2 * LENGTH_SIZE) {
+                rollWriteSegment();
+            }
+            // Write the payload before the length, so a reader never sees a partial record.
+            int position = writeBuffer.position();
+            writeBuffer.position(position + LENGTH_SIZE);
+            writeBuffer.put(encodeBuffer.toByteArray());
+            writeBuffer.putInt(position, length);
+            return true;
+        } catch (IOException ex) {
+            log.error("Failed to spill monitoring message to disk.", ex);
+            return false;
+        }
+    }
+
+    /**
+     * Take the oldest spilled message.
+     *
+     * @return message, or null if the buffer is empty
+     */
+    public synchronized Message poll() {
+        while (!closed && !segments.isEmpty()) {
+            try {
+                if (readBuffer == null || readSegment != segments.peekFirst()) {
+                    releaseReadBuffer();
+                    readSegment = segments.peekFirst();
+                    if (readSegment == writeSegment && writeBuffer != null) {
+                        readBuffer = readView(writeBuffer);
+                    } else {
+                        readMapping = map(readSegment);
+                        readBuffer = readMapping;
+                    }
+                }
+                int length = readBuffer.remaining() >= LENGTH_SIZE ? readBuffer.getInt(readBuffer.position()) : 0;
+                if (length > 0 && length <= readBuffer.remaining() - LENGTH_SIZE) {
+                    readBuffer.position(readBuffer.position() + LENGTH_SIZE);
+                    ByteBuffer frame = readBuffer.slice();
+                    frame.limit(length);
+                    readBuffer.position(readBuffer.position() + length);
+                    return RuntimeMessageCodec.decode(frame);
+                }
+                if (readSegment == writeSegment) {
+                    return null;
+                }
+            } catch (IOException | RuntimeException ex) {
+                log.error("Failed to read spilled monitoring segment: {}, skip the rest of it.", readSegment, ex);
+            }
+            deleteSegment(segments.pollFirst());
+        }
+        return null;
+    }
+
+    /**
+     * Flush and release the mappings, later appends are refused. Spilled messages stay on disk
+     * and are replayed after the next start.
+     */
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        releaseReadBuffer();
+        if (writeBuffer != null) {
+            writeBuffer.force();
+            unmap(writeBuffer);
+            writeBuffer = null;
+        }
+    }
+
+    /**
+     * Whether there are spilled messages waiting for replay.
+     *
+     * @return
+     */
+    public synchronized boolean isEmpty() {
+        if (segments.isEmpty()) {
+            return true;
+        }
+        if (closed || segments.size() > 1 || readSegment != writeSegment || readBuffer == null) {
+            return false;
+        }
+        return readBuffer.remaining() < LENGTH_SIZE || readBuffer.getInt(readBuffer.position()) == 0;
+    }
+
+    private void rollWriteSegment() throws IOException {
+        if (writeBuffer != null) {
+            writeBuffer.force();
+            if (readBuffer != null && readMapping == null && readSegment == writeSegment) {
+                // The reader keeps using its view, hand the mapping over to it.
+                readMapping = writeBuffer;
+            } else {
+                unmap(writeBuffer);
+            }
+            writeBuffer = null;
+        }
+        writeSegment = segments.isEmpty() ? 0L : segments.peekLast() + 1;
+        writeBuffer = map(writeSegment);
+        segments.addLast(writeSegment);
+        while (segments.size() > maxSegments) {
+            long oldest = segments.pollFirst();
+            deleteSegment(oldest);
+            log.warn("Spill buffer is full, dropped oldest monitoring segment. Dropped segments: {}", ++droppedSegments);
+        }
+    }
+
+    private ByteBuffer readView(ByteBuffer buffer) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(0);
+        return view;
+    }
+
+    private MappedByteBuffer map(long segment) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(segmentFile(segment), "rw")) {
+            return file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+
+    private void deleteSegment(long segment) {
+        if (segment == readSegment) {
+            releaseReadBuffer();
+        }
+        if (segment == writeSegment && writeBuffer != null) {
+            unmap(writeBuffer);
+            writeBuffer = null;
+        }
+        File file = segmentFile(segment);
+        if (file.exists() && !file.delete()) {
+            log.warn("Failed to delete spilled monitoring segment: {}", file);
+        }
+    }
+
+    private void releaseReadBuffer() {
+        if (readMapping != null) {
+            unmap(readMapping);
+            readMapping = null;
+        }
+        readBuffer = null;
+    }
+
+    /**
+     * Release a mapping now instead of when it is garbage collected. The caller holds the monitor
+     * and drops every reference to the buffer, so it is never touched after being unmapped.
+     */
+    private static void unmap(MappedByteBuffer buffer) {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            try {
+                // Java 9 and later.
+                Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+                Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+                theUnsafe.setAccessible(true);
+                invokeCleaner.invoke(theUnsafe.get(null), buffer);
+            } catch (NoSuchMethodException ex) {
+                Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                Object cleaner = cleanerMethod.invoke(buffer);
+                if (cleaner != null) {
+                    cleaner.getClass().getMethod("clean").invoke(cleaner);
+                }
+            }
+        } catch (Exception ex) {
+            log.debug("Failed to unmap spilled monitoring segment, it is released when collected.", ex);
+        }
+    }
+
+    private File segmentFile(long segment) {
+        return new File(directory, String.format("%020d%s", segment, SEGMENT_SUFFIX));
+    }
+}
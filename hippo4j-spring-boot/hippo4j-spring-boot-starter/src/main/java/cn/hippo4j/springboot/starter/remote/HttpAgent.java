@@ -62,6 +62,15 @@ public interface HttpAgent {
      */
     Result httpPost(String path, Object body);
 
+    /**
+     * Http post with gzip compressed body.
+     *
+     * @param path
+     * @param body
+     * @return
+     */
+    Result httpPostGzip(String path, Object body);
+
     /**
      * Send HTTP post request by discovery.
      *
@@ -95,6 +95,13 @@ public class ServerHttpAgent implements HttpAgent {
         return httpClientUtil.restApiPost(buildUrl(path), body, Result.class);
     }
 
+    @Override
+    public Result httpPostGzip(String path, Object body) {
+        isHealthStatus();
+        path = injectSecurityInfoByPath(path);
+        return httpClientUtil.restApiPostGzip(buildUrl(path), body, Result.class);
+    }
+
     @Override
     public Result httpPostByDiscovery(String path, Object body) {
         isHealthStatus();
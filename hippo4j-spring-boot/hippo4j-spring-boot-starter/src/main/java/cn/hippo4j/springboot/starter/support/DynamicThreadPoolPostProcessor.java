@@ -17,6 +17,7 @@
 
 package cn.hippo4j.springboot.starter.support;
 
+import cn.hippo4j.common.api.ThreadPoolDynamicRefresh;
 import cn.hippo4j.common.config.ApplicationContextHolder;
 import cn.hippo4j.common.constant.Constants;
 import cn.hippo4j.common.enums.EnableEnum;
@@ -26,8 +27,10 @@ import cn.hippo4j.common.model.ThreadPoolParameterInfo;
 import cn.hippo4j.common.model.register.DynamicThreadPoolRegisterParameter;
 import cn.hippo4j.common.model.register.DynamicThreadPoolRegisterWrapper;
 import cn.hippo4j.common.toolkit.BooleanUtil;
+import cn.hippo4j.common.toolkit.ContentUtil;
 import cn.hippo4j.common.toolkit.JSONUtil;
 import cn.hippo4j.common.web.base.Result;
+import cn.hippo4j.common.web.exception.ServiceException;
 import cn.hippo4j.core.executor.DynamicThreadPool;
 import cn.hippo4j.core.executor.DynamicThreadPoolExecutor;
 import cn.hippo4j.core.executor.DynamicThreadPoolWrapper;
@@ -38,7 +41,9 @@ import cn.hippo4j.core.executor.support.adpter.DynamicThreadPoolAdapterChoose;
 import cn.hippo4j.core.toolkit.inet.DynamicThreadPoolAnnotationUtil;
 import cn.hippo4j.message.service.ThreadPoolNotifyAlarm;
 import cn.hippo4j.springboot.starter.config.BootstrapProperties;
+import cn.hippo4j.springboot.starter.core.ClientWorker;
 import cn.hippo4j.springboot.starter.core.DynamicThreadPoolSubscribeConfig;
+import cn.hippo4j.springboot.starter.core.ServerThreadPoolDynamicRefresh;
 import cn.hippo4j.springboot.starter.remote.HttpAgent;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -52,6 +57,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -71,6 +77,17 @@ public final class DynamicThreadPoolPostProcessor implements BeanPostProcessor {
 
     private final DynamicThreadPoolSubscribeConfig dynamicThreadPoolSubscribeConfig;
 
+    private final ClientWorker clientWorker;
+
+    private final ExecutorService asyncRegisterExecutorService = ThreadPoolBuilder.builder()
+            .poolThreadSize(4, 4)
+            .keepAliveTime(2000)
+            .timeUnit(TimeUnit.MILLISECONDS)
+            .workQueue(BlockingQueueTypeEnum.LINKED_BLOCKING_QUEUE, Integer.MAX_VALUE)
+            .allowCoreThreadTimeOut(true)
+            .threadFactory("client.dynamic.threadPool.async.register", true)
+            .build();
+
     @Override
     public Object postProcessBeforeInitialization(Object bean, String beanName) {
         return bean;
@@ -98,6 +115,10 @@ public final class DynamicThreadPoolPostProcessor implements BeanPostProcessor {
                 dynamicThreadPoolExecutor = (DynamicThreadPoolExecutor) bean;
             }
             DynamicThreadPoolWrapper dynamicThreadPoolWrapper = new DynamicThreadPoolWrapper(dynamicThreadPoolExecutor.getThreadPoolId(), dynamicThreadPoolExecutor);
+            if (isAsyncRegister(dynamicThreadPoolWrapper.getThreadPoolId())) {
+                asyncFillPoolAndRegister(dynamicThreadPoolWrapper);
+                return bean;
+            }
             ThreadPoolExecutor remoteThreadPoolExecutor = fillPoolAndRegister(dynamicThreadPoolWrapper);
             DynamicThreadPoolAdapterChoose.replace(bean, remoteThreadPoolExecutor);
             subscribeConfig(dynamicThreadPoolWrapper);
@@ -116,6 +137,10 @@ public final class DynamicThreadPoolPostProcessor implements BeanPostProcessor {
      * @param dynamicThreadPoolWrapper
      */
     protected void registerAndSubscribe(DynamicThreadPoolWrapper dynamicThreadPoolWrapper) {
+        if (isAsyncRegister(dynamicThreadPoolWrapper.getThreadPoolId())) {
+            asyncFillPoolAndRegister(dynamicThreadPoolWrapper);
+            return;
+        }
         fillPoolAndRegister(dynamicThreadPoolWrapper);
         subscribeConfig(dynamicThreadPoolWrapper);
     }
@@ -128,69 +153,43 @@ public final class DynamicThreadPoolPostProcessor implements BeanPostProcessor {
     protected ThreadPoolExecutor fillPoolAndRegister(DynamicThreadPoolWrapper dynamicThreadPoolWrapper) {
         String threadPoolId = dynamicThreadPoolWrapper.getThreadPoolId();
         ThreadPoolExecutor executor = dynamicThreadPoolWrapper.getExecutor();
-        Map<String, String> queryStrMap = new HashMap(3);
-        queryStrMap.put(TP_ID, threadPoolId);
-        queryStrMap.put(ITEM_ID, properties.getItemId());
-        queryStrMap.put(NAMESPACE, properties.getNamespace());
         boolean isSubscribe = false;
         ThreadPoolExecutor newDynamicThreadPoolExecutor = null;
         ThreadPoolParameterInfo threadPoolParameterInfo = new ThreadPoolParameterInfo();
         try {
-            Result result = httpAgent.httpGetByConfig(Constants.CONFIG_CONTROLLER_PATH, null, queryStrMap, 5000L);
-            if (result.isSuccess() && result.getData() != null) {
-                String resultJsonStr = JSONUtil.toJSONString(result.getData());
-                if ((threadPoolParameterInfo = JSONUtil.parseObject(resultJsonStr, ThreadPoolParameterInfo.class)) != null) {
-                    // Create a thread pool with relevant parameters.
-                    BlockingQueue workQueue = BlockingQueueTypeEnum.createBlockingQueue(threadPoolParameterInfo.getQueueType(), threadPoolParameterInfo.getCapacity());
-                    newDynamicThreadPoolExecutor = ThreadPoolBuilder.builder()
-                            .dynamicPool()
-                            .threadPoolId(threadPoolId)
-                            .workQueue(workQueue)
-                            .threadFactory(executor.getThreadFactory())
-                            .poolThreadSize(threadPoolParameterInfo.corePoolSizeAdapt(), threadPoolParameterInfo.maximumPoolSizeAdapt())
-                            .keepAliveTime(threadPoolParameterInfo.getKeepAliveTime(), TimeUnit.SECONDS)
-                            .rejected(RejectedPolicyTypeEnum.createPolicy(threadPoolParameterInfo.getRejectedType()))
-                            .allowCoreThreadTimeOut(EnableEnum.getBool(threadPoolParameterInfo.getAllowCoreThreadTimeOut()))
-                            .build();
-                    // Set dynamic thread pool enhancement parameters.
-                    ThreadPoolExecutor customDynamicThreadPool;
-                    if ((customDynamicThreadPool = executor) instanceof AbstractDynamicExecutorSupport) {
-                        ThreadPoolNotifyAlarm threadPoolNotifyAlarm = new ThreadPoolNotifyAlarm(
-                                BooleanUtil.toBoolean(threadPoolParameterInfo.getIsAlarm().toString()),
-                                threadPoolParameterInfo.getCapacityAlarm(),
-                                threadPoolParameterInfo.getLivenessAlarm());
-                        GlobalNotifyAlarmManage.put(threadPoolId, threadPoolNotifyAlarm);
-                        TaskDecorator taskDecorator = ((DynamicThreadPoolExecutor) customDynamicThreadPool).getTaskDecorator();
-                        ((DynamicThreadPoolExecutor) newDynamicThreadPoolExecutor).setTaskDecorator(taskDecorator);
-                        long awaitTerminationMillis = ((DynamicThreadPoolExecutor) customDynamicThreadPool).awaitTerminationMillis;
-                        boolean waitForTasksToCompleteOnShutdown = ((DynamicThreadPoolExecutor) customDynamicThreadPool).waitForTasksToCompleteOnShutdown;
-                        ((DynamicThreadPoolExecutor) newDynamicThreadPoolExecutor).setSupportParam(awaitTerminationMillis, waitForTasksToCompleteOnShutdown);
-                        long executeTimeOut = Optional.ofNullable(threadPoolParameterInfo.getExecuteTimeOut())
-                                .orElse(((DynamicThreadPoolExecutor) customDynamicThreadPool).getExecuteTimeOut());
-                        ((DynamicThreadPoolExecutor) newDynamicThreadPoolExecutor).setExecuteTimeOut(executeTimeOut);
-                    }
-                    dynamicThreadPoolWrapper.setExecutor(newDynamicThreadPoolExecutor);
-                    isSubscribe = true;
+            ThreadPoolParameterInfo serverParameterInfo = queryServerConfig(threadPoolId);
+            if (serverParameterInfo != null) {
+                threadPoolParameterInfo = serverParameterInfo;
+                // Create a thread pool with relevant parameters.
+                BlockingQueue workQueue = BlockingQueueTypeEnum.createBlockingQueue(threadPoolParameterInfo.getQueueType(), threadPoolParameterInfo.getCapacity());
+                newDynamicThreadPoolExecutor = ThreadPoolBuilder.builder()
+                        .dynamicPool()
+                        .threadPoolId(threadPoolId)
+                        .workQueue(workQueue)
+                        .threadFactory(executor.getThreadFactory())
+                        .poolThreadSize(threadPoolParameterInfo.corePoolSizeAdapt(), threadPoolParameterInfo.maximumPoolSizeAdapt())
+                        .keepAliveTime(threadPoolParameterInfo.getKeepAliveTime(), TimeUnit.SECONDS)
+                        .rejected(RejectedPolicyTypeEnum.createPolicy(threadPoolParameterInfo.getRejectedType()))
+                        .allowCoreThreadTimeOut(EnableEnum.getBool(threadPoolParameterInfo.getAllowCoreThreadTimeOut()))
+                        .build();
+                // Set dynamic thread pool enhancement parameters.
+                ThreadPoolExecutor customDynamicThreadPool;
+                if ((customDynamicThreadPool = executor) instanceof AbstractDynamicExecutorSupport) {
+                    putNotifyAlarm(threadPoolId, threadPoolParameterInfo);
+                    TaskDecorator taskDecorator = ((DynamicThreadPoolExecutor) customDynamicThreadPool).getTaskDecorator();
+                    ((DynamicThreadPoolExecutor) newDynamicThreadPoolExecutor).setTaskDecorator(taskDecorator);
+                    long awaitTerminationMillis = ((DynamicThreadPoolExecutor) customDynamicThreadPool).awaitTerminationMillis;
+                    boolean waitForTasksToCompleteOnShutdown = ((DynamicThreadPoolExecutor) customDynamicThreadPool).waitForTasksToCompleteOnShutdown;
+                    ((DynamicThreadPoolExecutor) newDynamicThreadPoolExecutor).setSupportParam(awaitTerminationMillis, waitForTasksToCompleteOnShutdown);
+                    long executeTimeOut = Optional.ofNullable(threadPoolParameterInfo.getExecuteTimeOut())
+                            .orElse(((DynamicThreadPoolExecutor) customDynamicThreadPool).getExecuteTimeOut());
+                    ((DynamicThreadPoolExecutor) newDynamicThreadPoolExecutor).setExecuteTimeOut(executeTimeOut);
                 }
+                dynamicThreadPoolWrapper.setExecutor(newDynamicThreadPoolExecutor);
+                isSubscribe = true;
             } else {
                 // DynamicThreadPool configuration undefined in server
-                DynamicThreadPoolRegisterParameter parameterInfo = DynamicThreadPoolRegisterParameter.builder()
-                        .threadPoolId(threadPoolId)
-                        .corePoolSize(executor.getCorePoolSize())
-                        .maximumPoolSize(executor.getMaximumPoolSize())
-                        .blockingQueueType(BlockingQueueTypeEnum.getBlockingQueueTypeEnumByName(executor.getQueue().getClass().getSimpleName()))
-                        .capacity(executor.getQueue().remainingCapacity())
-                        .allowCoreThreadTimeOut(executor.allowsCoreThreadTimeOut())
-                        .keepAliveTime(executor.getKeepAliveTime(TimeUnit.MILLISECONDS))
-                        .isAlarm(false)
-                        .activeAlarm(80)
-                        .capacityAlarm(80)
-                        .rejectedPolicyType(RejectedPolicyTypeEnum.getRejectedPolicyTypeEnumByName(((DynamicThreadPoolExecutor) executor).getRedundancyHandler().getClass().getSimpleName()))
-                        .build();
-                DynamicThreadPoolRegisterWrapper registerWrapper = DynamicThreadPoolRegisterWrapper.builder()
-                        .dynamicThreadPoolRegisterParameter(parameterInfo)
-                        .build();
-                GlobalThreadPoolManage.dynamicRegister(registerWrapper);
+                registerUndefinedPool(threadPoolId, executor);
             }
         } catch (Exception ex) {
             newDynamicThreadPoolExecutor = executor != null ? executor : CommonDynamicThreadPool.getInstance(threadPoolId);
@@ -207,6 +206,136 @@ public final class DynamicThreadPoolPostProcessor implements BeanPostProcessor {
         return newDynamicThreadPoolExecutor;
     }
 
+    /**
+     * Register the thread pool with its local parameters immediately, then fetch the server config in the background
+     * and apply it to the executor, so the spring context refresh is not blocked by the server. Applying the server
+     * config at startup is not a config change, so no change notification is sent.
+     * <p>
+     * The queue type can not be changed by the dynamic refresh, only the capacity of a resizable queue is applied.
+     *
+     * @param dynamicThreadPoolWrapper
+     */
+    protected void asyncFillPoolAndRegister(DynamicThreadPoolWrapper dynamicThreadPoolWrapper) {
+        String threadPoolId = dynamicThreadPoolWrapper.getThreadPoolId();
+        if (Objects.isNull(dynamicThreadPoolWrapper.getExecutor())) {
+            dynamicThreadPoolWrapper.setExecutor(CommonDynamicThreadPool.getInstance(threadPoolId));
+        }
+        ThreadPoolExecutor executor = dynamicThreadPoolWrapper.getExecutor();
+        GlobalThreadPoolManage.register(threadPoolId, buildLocalParameter(threadPoolId, executor), dynamicThreadPoolWrapper);
+        asyncRegisterExecutorService.execute(() -> {
+            try {
+                ThreadPoolParameterInfo threadPoolParameterInfo = queryServerConfig(threadPoolId);
+                if (threadPoolParameterInfo == null) {
+                    registerUndefinedPool(threadPoolId, executor);
+                    return;
+                }
+                if (executor instanceof AbstractDynamicExecutorSupport) {
+                    putNotifyAlarm(threadPoolId, threadPoolParameterInfo);
+                    if (threadPoolParameterInfo.getExecuteTimeOut() == null) {
+                        threadPoolParameterInfo.setExecuteTimeOut(((DynamicThreadPoolExecutor) executor).getExecuteTimeOut());
+                    }
+                }
+                threadPoolParameterInfo.setTpId(threadPoolId);
+                ThreadPoolDynamicRefresh threadPoolDynamicRefresh = ApplicationContextHolder.getBean(ThreadPoolDynamicRefresh.class);
+                if (threadPoolDynamicRefresh instanceof ServerThreadPoolDynamicRefresh) {
+                    ((ServerThreadPoolDynamicRefresh) threadPoolDynamicRefresh).applyParameter(threadPoolParameterInfo, executor);
+                } else {
+                    threadPoolDynamicRefresh.dynamicRefresh(ContentUtil.getPoolContent(threadPoolParameterInfo));
+                }
+                GlobalThreadPoolManage.registerPoolParameter(threadPoolId, threadPoolParameterInfo);
+                dynamicThreadPoolWrapper.setSubscribeFlag(true);
+                subscribeConfig(dynamicThreadPoolWrapper);
+            } catch (Exception ex) {
+                log.error("Failed to asynchronously initialize thread pool configuration. thread pool id: {}, error message: {}", threadPoolId, ex.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Register asynchronously when configured, or when the thread pool is absent from the local snapshot used at
+     * startup. Such a thread pool starts with its local parameters instead of waiting for a possibly unavailable server.
+     *
+     * @param threadPoolId
+     * @return
+     */
+    private boolean isAsyncRegister(String threadPoolId) {
+        if (properties.getAsyncRegister()) {
+            return true;
+        }
+        Map<String, ThreadPoolParameterInfo> prefetchConfigMap = clientWorker.prefetchServerConfigs(properties.getNamespace(), properties.getItemId());
+        return clientWorker.isPrefetchFromSnapshot() && prefetchConfigMap != null && !prefetchConfigMap.containsKey(threadPoolId);
+    }
+
+    private ThreadPoolParameterInfo buildLocalParameter(String threadPoolId, ThreadPoolExecutor executor) {
+        RejectedExecutionHandler rejectedExecutionHandler = executor instanceof AbstractDynamicExecutorSupport
+                ? ((DynamicThreadPoolExecutor) executor).getRedundancyHandler()
+                : executor.getRejectedExecutionHandler();
+        return new ThreadPoolParameterInfo()
+                .setTenantId(properties.getNamespace())
+                .setItemId(properties.getItemId())
+                .setTpId(threadPoolId)
+                .setCoreSize(executor.getCorePoolSize())
+                .setMaxSize(executor.getMaximumPoolSize())
+                .setQueueType(BlockingQueueTypeEnum.getBlockingQueueTypeEnumByName(executor.getQueue().getClass().getSimpleName()).getType())
+                .setCapacity(executor.getQueue().remainingCapacity() + executor.getQueue().size())
+                .setRejectedType(RejectedPolicyTypeEnum.getRejectedPolicyTypeEnumByName(rejectedExecutionHandler.getClass().getSimpleName()).getType())
+                .setKeepAliveTime((int) executor.getKeepAliveTime(TimeUnit.SECONDS))
+                .setAllowCoreThreadTimeOut(executor.allowsCoreThreadTimeOut() ? EnableEnum.YES.getIntCode() : EnableEnum.NO.getIntCode());
+    }
+
+    private void putNotifyAlarm(String threadPoolId, ThreadPoolParameterInfo threadPoolParameterInfo) {
+        ThreadPoolNotifyAlarm threadPoolNotifyAlarm = new ThreadPoolNotifyAlarm(
+                BooleanUtil.toBoolean(threadPoolParameterInfo.getIsAlarm().toString()),
+                threadPoolParameterInfo.getCapacityAlarm(),
+                threadPoolParameterInfo.getLivenessAlarm());
+        GlobalNotifyAlarmManage.put(threadPoolId, threadPoolNotifyAlarm);
+    }
+
+    private void registerUndefinedPool(String threadPoolId, ThreadPoolExecutor executor) {
+        DynamicThreadPoolRegisterParameter parameterInfo = DynamicThreadPoolRegisterParameter.builder()
+                .threadPoolId(threadPoolId)
+                .corePoolSize(executor.getCorePoolSize())
+                .maximumPoolSize(executor.getMaximumPoolSize())
+                .blockingQueueType(BlockingQueueTypeEnum.getBlockingQueueTypeEnumByName(executor.getQueue().getClass().getSimpleName()))
+                .capacity(executor.getQueue().remainingCapacity())
+                .allowCoreThreadTimeOut(executor.allowsCoreThreadTimeOut())
+                .keepAliveTime(executor.getKeepAliveTime(TimeUnit.MILLISECONDS))
+                .isAlarm(false)
+                .activeAlarm(80)
+                .capacityAlarm(80)
+                .rejectedPolicyType(RejectedPolicyTypeEnum.getRejectedPolicyTypeEnumByName(((DynamicThreadPoolExecutor) executor).getRedundancyHandler().getClass().getSimpleName()))
+                .build();
+        DynamicThreadPoolRegisterWrapper registerWrapper = DynamicThreadPoolRegisterWrapper.builder()
+                .dynamicThreadPoolRegisterParameter(parameterInfo)
+                .build();
+        GlobalThreadPoolManage.dynamicRegister(registerWrapper);
+    }
+
+    /**
+     * Query the thread pool config, use the startup prefetched configs if available. A thread pool absent from the
+     * local snapshot is queried from the server.
+     *
+     * @param threadPoolId
+     * @return null if the thread pool is undefined in server
+     * @throws ServiceException if the server is unavailable
+     */
+    private ThreadPoolParameterInfo queryServerConfig(String threadPoolId) {
+        Map<String, ThreadPoolParameterInfo> prefetchConfigMap = clientWorker.prefetchServerConfigs(properties.getNamespace(), properties.getItemId());
+        if (prefetchConfigMap != null && (prefetchConfigMap.containsKey(threadPoolId) || !clientWorker.isPrefetchFromSnapshot())) {
+            return prefetchConfigMap.get(threadPoolId);
+        }
+        Map<String, String> queryStrMap = new HashMap(3);
+        queryStrMap.put(TP_ID, threadPoolId);
+        queryStrMap.put(ITEM_ID, properties.getItemId());
+        queryStrMap.put(NAMESPACE, properties.getNamespace());
+        Result result = httpAgent.httpGetByConfig(Constants.CONFIG_CONTROLLER_PATH, null, queryStrMap, 5000L);
+        if (!result.isSuccess()) {
+            // Keep the local parameters, do not register the thread pool as undefined.
+            throw new ServiceException(String.format("Query server config failed. thread pool id: %s, result code: %s", threadPoolId, result.getCode()));
+        }
+        return result.getData() != null ? JSONUtil.parseObject(JSONUtil.toJSONString(result.getData()), ThreadPoolParameterInfo.class) : null;
+    }
+
     /**
      * Client dynamic thread pool subscription server configuration.
      *
@@ -19,6 +19,8 @@ package cn.hippo4j.springboot.starter.toolkit;
 
 import cn.hippo4j.common.toolkit.JSONUtil;
 import cn.hippo4j.common.web.exception.ServiceException;
+import cn.hutool.core.util.CharsetUtil;
+import cn.hutool.core.util.ZipUtil;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.*;
@@ -41,6 +43,10 @@ public class HttpClientUtil {
 
     private static int HTTP_OK_CODE = 200;
 
+    private static final String CONTENT_ENCODING = "Content-Encoding";
+
+    private static final String GZIP = "gzip";
+
     /**
      * Get.
      *
@@ -119,7 +125,7 @@ public class HttpClientUtil {
      */
     public String restApiPost(String url, Object body) {
         try {
-            return doPost(url, body);
+            return doPost(url, body, false);
         } catch (Exception e) {
             log.error("httpPost 调用失败. {} message: {}", url, e.getMessage());
             throw e;
@@ -138,6 +144,23 @@ public class HttpClientUtil {
         return JSONUtil.parseObject(resp, clazz);
     }
 
+    /**
+     * Rest interface Post call with gzip compressed body. Deserialize the return value directly.
+     *
+     * @param url
+     * @param body
+     * @return
+     */
+    public <T> T restApiPostGzip(String url, Object body, Class<T> clazz) {
+        try {
+            String resp = doPost(url, body, true);
+            return JSONUtil.parseObject(resp, clazz);
+        } catch (Exception e) {
+            log.error("httpPost 调用失败. {} message: {}", url, e.getMessage());
+            throw e;
+        }
+    }
+
     /**
      * Constructs a complete Url from the query string.
      *
@@ -169,13 +192,16 @@ public class HttpClientUtil {
     }
 
     @SneakyThrows
-    private String doPost(String url, Object body) {
+    private String doPost(String url, Object body, boolean gzip) {
         String jsonBody = JSONUtil.toJSONString(body);
-        RequestBody requestBody = RequestBody.create(jsonMediaType, jsonBody);
-        Request request = new Request.Builder()
-                .url(url)
-                .post(requestBody)
-                .build();
+        Request.Builder builder = new Request.Builder().url(url);
+        if (gzip) {
+            byte[] gzipBody = ZipUtil.gzip(jsonBody, CharsetUtil.UTF_8);
+            builder.header(CONTENT_ENCODING, GZIP).post(RequestBody.create(jsonMediaType, gzipBody));
+        } else {
+            builder.post(RequestBody.create(jsonMediaType, jsonBody));
+        }
+        Request request = builder.build();
         try (Response resp = hippo4JOkHttpClient.newCall(request).execute()) {
             try (ResponseBody responseBody = resp.body()) {
                 if (resp.code() != HTTP_OK_CODE) {
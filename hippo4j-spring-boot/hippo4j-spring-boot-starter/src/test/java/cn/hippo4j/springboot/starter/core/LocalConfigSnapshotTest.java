@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.springboot.starter.core;
+
+import cn.hippo4j.common.model.ThreadPoolParameterInfo;
+import cn.hippo4j.common.toolkit.Assert;
+import cn.hippo4j.common.toolkit.ContentUtil;
+import cn.hippo4j.springboot.starter.config.BootstrapProperties;
+import cn.hippo4j.springboot.starter.remote.HttpAgent;
+import cn.hippo4j.springboot.starter.remote.ServerHealthCheck;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class LocalConfigSnapshotTest {
+
+    private Path directory;
+
+    private BootstrapProperties properties;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("hippo4j-snapshot");
+        properties = new BootstrapProperties();
+        properties.setNamespace("prescription");
+        properties.setItemId("dynamic-threadpool-example");
+        properties.setLocalSnapshot(true);
+        properties.setLocalSnapshotPath(directory.toString());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(each -> each.toFile().delete());
+        }
+    }
+
+    @Test
+    public void assertSaveAndLoad() throws IOException {
+        LocalConfigSnapshot localConfigSnapshot = new LocalConfigSnapshot(properties);
+        localConfigSnapshot.save("snapshot-pool-1", poolContent("snapshot-pool-1", 2));
+        localConfigSnapshot.save("snapshot-pool-2", poolContent("snapshot-pool-2", 3));
+        localConfigSnapshot.save("snapshot-pool-2", poolContent("snapshot-pool-2", 5));
+        Map<String, ThreadPoolParameterInfo> snapshotMap = new LocalConfigSnapshot(properties).loadAll();
+        Assert.isTrue(snapshotMap.size() == 2);
+        Assert.isTrue(snapshotMap.get("snapshot-pool-1").getCoreSize() == 2);
+        Assert.isTrue(snapshotMap.get("snapshot-pool-2").getCoreSize() == 5);
+        // No temp file is left behind by the atomic replace.
+        try (Stream<Path> files = Files.list(snapshotDir())) {
+            Assert.isTrue(files.allMatch(each -> each.toString().endsWith(".snapshot")));
+        }
+    }
+
+    @Test
+    public void assertDiscardDamagedSnapshot() throws IOException {
+        LocalConfigSnapshot localConfigSnapshot = new LocalConfigSnapshot(properties);
+        localConfigSnapshot.save("snapshot-pool-1", poolContent("snapshot-pool-1", 2));
+        localConfigSnapshot.save("snapshot-pool-2", poolContent("snapshot-pool-2", 3));
+        Path damaged = snapshotDir().resolve("snapshot-pool-2.snapshot");
+        String content = new String(Files.readAllBytes(damaged), StandardCharsets.UTF_8);
+        Files.write(damaged, content.replace("\"coreSize\":3", "\"coreSize\":30").getBytes(StandardCharsets.UTF_8));
+        Files.write(snapshotDir().resolve("snapshot-pool-3.snapshot"), "truncated".getBytes(StandardCharsets.UTF_8));
+        Map<String, ThreadPoolParameterInfo> snapshotMap = localConfigSnapshot.loadAll();
+        Assert.isTrue(snapshotMap.size() == 1);
+        Assert.isTrue(snapshotMap.containsKey("snapshot-pool-1"));
+    }
+
+    @Test
+    public void assertDisabled() {
+        properties.setLocalSnapshot(false);
+        LocalConfigSnapshot localConfigSnapshot = new LocalConfigSnapshot(properties);
+        localConfigSnapshot.save("snapshot-pool-1", poolContent("snapshot-pool-1", 2));
+        Assert.isTrue(localConfigSnapshot.loadAll().isEmpty());
+        Assert.isTrue(!Files.exists(snapshotDir()));
+    }
+
+    @Test
+    public void assertPrefetchReadsSnapshotFirst() {
+        new LocalConfigSnapshot(properties).save("snapshot-pool-1", poolContent("snapshot-pool-1", 2));
+        HttpAgent httpAgent = Mockito.mock(HttpAgent.class);
+        ClientWorker clientWorker = new ClientWorker(httpAgent, "127.0.0.1:8088_test", Mockito.mock(ServerHealthCheck.class), properties);
+        Map<String, ThreadPoolParameterInfo> prefetchConfigMap = clientWorker.prefetchServerConfigs(properties.getNamespace(), properties.getItemId());
+        Assert.isTrue(clientWorker.isPrefetchFromSnapshot());
+        Assert.isTrue(prefetchConfigMap.size() == 1);
+        Assert.isTrue(prefetchConfigMap.get("snapshot-pool-1").getCoreSize() == 2);
+        // The server is not queried at startup, the long polling reconciles the snapshot later.
+        Mockito.verifyNoInteractions(httpAgent);
+    }
+
+    private Path snapshotDir() {
+        return Paths.get(directory.toString(), properties.getNamespace(), properties.getItemId());
+    }
+
+    private String poolContent(String threadPoolId, int coreSize) {
+        ThreadPoolParameterInfo parameterInfo = new ThreadPoolParameterInfo();
+        parameterInfo.setTenantId(properties.getNamespace())
+                .setItemId(properties.getItemId())
+                .setTpId(threadPoolId)
+                .setCoreSize(coreSize)
+                .setMaxSize(coreSize * 2)
+                .setQueueType(9)
+                .setCapacity(128)
+                .setKeepAliveTime(30)
+                .setRejectedType(2)
+                .setIsAlarm(0)
+                .setCapacityAlarm(80)
+                .setLivenessAlarm(80)
+                .setAllowCoreThreadTimeOut(0);
+        return ContentUtil.getPoolContent(parameterInfo);
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.springboot.starter.monitor.send.netty;
+
+import cn.hippo4j.common.monitor.Message;
+import cn.hippo4j.common.monitor.MessageTypeEnum;
+import cn.hippo4j.common.monitor.MessageWrapper;
+import cn.hippo4j.common.monitor.RuntimeMessage;
+import cn.hippo4j.common.toolkit.Assert;
+import cn.hippo4j.common.toolkit.RuntimeMessageCodec;
+import cn.hippo4j.springboot.starter.remote.ServerNettyAgent;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import io.netty.handler.codec.serialization.ClassResolvers;
+import io.netty.handler.codec.serialization.ObjectDecoder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class NettyConnectSenderTest {
+
+    private final BlockingQueue<Object> received = new LinkedBlockingQueue<>();
+
+    private EventLoopGroup serverGroup;
+
+    private EventLoopGroup clientGroup;
+
+    private NettyConnectSender sender;
+
+    @Before
+    public void setUp() {
+        serverGroup = new NioEventLoopGroup(1);
+        clientGroup = new NioEventLoopGroup(1);
+    }
+
+    @After
+    public void tearDown() {
+        if (sender != null) {
+            sender.destroy();
+        }
+        serverGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS).awaitUninterruptibly();
+    }
+
+    @Test
+    public void assertBinaryProtocolAcknowledged() throws Exception {
+        sender = new NettyConnectSender(agent(startServer(true)));
+        sender.send(buildMessage("pool-1"));
+        Object report = received.poll(5L, TimeUnit.SECONDS);
+        Assert.isTrue(report instanceof RuntimeMessage);
+        Assert.isTrue("pool-1".equals(groupKey((RuntimeMessage) report)));
+    }
+
+    @Test
+    public void assertFallBackToJavaSerialization() throws Exception {
+        sender = new NettyConnectSender(agent(startServer(false)));
+        // Sent while the binary handshake is pending, kept until the java serialization channel is active.
+        sender.send(buildMessage("pool-1"));
+        Object report = received.poll(10L, TimeUnit.SECONDS);
+        Assert.isTrue(report instanceof MessageWrapper);
+    }
+
+    @Test
+    public void assertPendingReportsWrittenInOrder() throws Exception {
+        List<Message> failed = new CopyOnWriteArrayList<>();
+        sender = new NettyConnectSender(agent(startServer(true)));
+        sender.setFailureHandler(failed::add);
+        for (int i = 0; i < 5; i++) {
+            sender.send(buildMessage("pool-" + i));
+        }
+        for (int i = 0; i < 5; i++) {
+            Object report = received.poll(5L, TimeUnit.SECONDS);
+            Assert.isTrue(report != null && Objects.equals("pool-" + i, groupKey((RuntimeMessage) report)));
+        }
+        sender.send(buildMessage("pool-5"));
+        Assert.isTrue(Objects.equals("pool-5", groupKey((RuntimeMessage) received.poll(5L, TimeUnit.SECONDS))));
+        Assert.isTrue(failed.isEmpty());
+    }
+
+    @Test
+    public void assertPendingQueueBounded() {
+        List<Message> failed = new CopyOnWriteArrayList<>();
+        // Nothing listens on the port, the sender keeps backing off.
+        sender = new NettyConnectSender(agent(1));
+        sender.setFailureHandler(failed::add);
+        for (int i = 0; i < 300; i++) {
+            sender.send(buildMessage("pool-" + i));
+        }
+        Assert.isTrue(failed.size() == 300 - 256);
+        Assert.isTrue(Objects.equals("pool-256", groupKey((RuntimeMessage) failed.get(0))));
+        sender.destroy();
+        sender = null;
+        Assert.isTrue(failed.size() == 300);
+    }
+
+    private static String groupKey(RuntimeMessage message) {
+        return ((RuntimeMessage) message.getMessages().get(0)).getGroupKey();
+    }
+
+    private ServerNettyAgent agent(int port) {
+        ServerNettyAgent agent = Mockito.mock(ServerNettyAgent.class);
+        Mockito.when(agent.getEventLoopGroup()).thenReturn(clientGroup);
+        Mockito.when(agent.getNettyServerAddress()).thenReturn("127.0.0.1");
+        Mockito.when(agent.getNettyServerPort()).thenReturn(port);
+        return agent;
+    }
+
+    /**
+     * Start a server that either acknowledges binary frames, or only knows java serialization like older servers.
+     */
+    private int startServer(boolean binary) throws InterruptedException {
+        Channel serverChannel = new ServerBootstrap()
+                .group(serverGroup)
+                .channel(NioServerSocketChannel.class)
+                .childHandler(new ChannelInitializer<SocketChannel>() {
+
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        if (binary) {
+                            ch.pipeline().addLast(new LengthFieldBasedFrameDecoder(1024 * 1024, 0, 4, 0, 4));
+                            ch.pipeline().addLast(new BinaryServerHandler());
+                        } else {
+                            ch.pipeline().addLast(new ObjectDecoder(Integer.MAX_VALUE, ClassResolvers.cacheDisabled(null)));
+                            ch.pipeline().addLast(new SimpleChannelInboundHandler<MessageWrapper>() {
+
+                                @Override
+                                protected void channelRead0(ChannelHandlerContext ctx, MessageWrapper msg) {
+                                    received.add(msg);
+                                }
+                            });
+                        }
+                    }
+                })
+                .bind("127.0.0.1", 0).sync().channel();
+        return ((InetSocketAddress) serverChannel.localAddress()).getPort();
+    }
+
+    private class BinaryServerHandler extends SimpleChannelInboundHandler<ByteBuf> {
+
+        private boolean acknowledged;
+
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, ByteBuf msg) throws Exception {
+            if (!acknowledged) {
+                acknowledged = true;
+                ctx.writeAndFlush(Unpooled.wrappedBuffer(RuntimeMessageCodec.ACKNOWLEDGE));
+            }
+            RuntimeMessage message = RuntimeMessageCodec.decode(msg.nioBuffer());
+            if (!message.getMessages().isEmpty()) {
+                received.add(message);
+            }
+        }
+    }
+
+    private static Message buildMessage(String groupKey) {
+        RuntimeMessage each = new RuntimeMessage();
+        each.setGroupKey(groupKey);
+        each.setPoolSize(1);
+        each.setTimestamp(System.currentTimeMillis());
+        RuntimeMessage message = new RuntimeMessage();
+        message.setMessageType(MessageTypeEnum.RUNTIME);
+        message.setMessages(Collections.singletonList(each));
+        return message;
+    }
+}
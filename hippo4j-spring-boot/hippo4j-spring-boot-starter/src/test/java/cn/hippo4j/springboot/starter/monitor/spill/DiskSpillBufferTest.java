@@ -0,0 +1,227 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.springboot.starter.monitor.spill;
+
+import cn.hippo4j.common.monitor.Message;
+import cn.hippo4j.common.monitor.MessageTypeEnum;
+import cn.hippo4j.common.monitor.RuntimeMessage;
+import cn.hippo4j.common.toolkit.Assert;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+public class DiskSpillBufferTest {
+
+    private File directory;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("hippo4j-spill").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File each : files) {
+                each.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void assertAppendAndPoll() throws Exception {
+        DiskSpillBuffer spillBuffer = new DiskSpillBuffer(directory.getPath(), 4096, 4);
+        Assert.isTrue(spillBuffer.isEmpty());
+        for (int i = 0; i < 3; i++) {
+            Assert.isTrue(spillBuffer.append(buildMessage(i)));
+        }
+        Assert.isTrue(!spillBuffer.isEmpty());
+        for (int i = 0; i < 3; i++) {
+            assertMessage(spillBuffer.poll(), i);
+        }
+        Assert.isTrue(spillBuffer.poll() == null);
+        Assert.isTrue(spillBuffer.isEmpty());
+    }
+
+    @Test
+    public void assertReplayAfterRestart() throws Exception {
+        DiskSpillBuffer spillBuffer = new DiskSpillBuffer(directory.getPath(), 4096, 4);
+        for (int i = 0; i < 3; i++) {
+            spillBuffer.append(buildMessage(i));
+        }
+        DiskSpillBuffer restarted = new DiskSpillBuffer(directory.getPath(), 4096, 4);
+        Assert.isTrue(!restarted.isEmpty());
+        for (int i = 0; i < 3; i++) {
+            assertMessage(restarted.poll(), i);
+        }
+        Assert.isTrue(restarted.poll() == null);
+    }
+
+    @Test
+    public void assertRollSegments() throws Exception {
+        DiskSpillBuffer spillBuffer = new DiskSpillBuffer(directory.getPath(), 512, 100);
+        for (int i = 0; i < 50; i++) {
+            Assert.isTrue(spillBuffer.append(buildMessage(i)));
+        }
+        Assert.isTrue(segmentCount() > 1);
+        for (int i = 0; i < 50; i++) {
+            assertMessage(spillBuffer.poll(), i);
+        }
+        Assert.isTrue(spillBuffer.poll() == null);
+        // Replayed segments are deleted, only the segment being written is kept.
+        Assert.isTrue(segmentCount() == 1);
+    }
+
+    @Test
+    public void assertDropOldestSegments() throws Exception {
+        DiskSpillBuffer spillBuffer = new DiskSpillBuffer(directory.getPath(), 512, 3);
+        for (int i = 0; i < 50; i++) {
+            Assert.isTrue(spillBuffer.append(buildMessage(i)));
+        }
+        Assert.isTrue(segmentCount() == 3);
+        List<Integer> polled = new ArrayList<>();
+        Message message;
+        while ((message = spillBuffer.poll()) != null) {
+            polled.add(sequence(message));
+        }
+        // The newest reports survive in order.
+        Assert.isTrue(!polled.isEmpty() && polled.size() < 50);
+        for (int i = 0; i < polled.size(); i++) {
+            Assert.isTrue(polled.get(i) == 50 - polled.size() + i);
+        }
+    }
+
+    @Test
+    public void assertCloseAndReopen() throws Exception {
+        DiskSpillBuffer spillBuffer = new DiskSpillBuffer(directory.getPath(), 512, 100);
+        for (int i = 0; i < 20; i++) {
+            Assert.isTrue(spillBuffer.append(buildMessage(i)));
+        }
+        // Read part of the write segment, then roll it while its mapping is still being read.
+        for (int i = 0; i < 5; i++) {
+            assertMessage(spillBuffer.poll(), i);
+        }
+        for (int i = 20; i < 30; i++) {
+            Assert.isTrue(spillBuffer.append(buildMessage(i)));
+        }
+        spillBuffer.close();
+        Assert.isTrue(!spillBuffer.append(buildMessage(30)));
+        Assert.isTrue(spillBuffer.poll() == null);
+        DiskSpillBuffer restarted = new DiskSpillBuffer(directory.getPath(), 512, 100);
+        Message first = restarted.poll();
+        Assert.isTrue(first != null && sequence(first) <= 5);
+        int sequence = sequence(first);
+        Message message;
+        while ((message = restarted.poll()) != null) {
+            Assert.isTrue(sequence(message) == ++sequence);
+        }
+        Assert.isTrue(sequence == 29);
+        restarted.close();
+    }
+
+    @Test
+    public void assertIgnoreTornPayload() throws Exception {
+        DiskSpillBuffer spillBuffer = new DiskSpillBuffer(directory.getPath(), 4096, 4);
+        spillBuffer.append(buildMessage(0));
+        spillBuffer.append(buildMessage(1));
+        // Payload written, length not yet written.
+        try (RandomAccessFile file = new RandomAccessFile(onlySegment(), "rw")) {
+            file.seek(recordsEnd(file) + 4);
+            file.write(new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        }
+        DiskSpillBuffer restarted = new DiskSpillBuffer(directory.getPath(), 4096, 4);
+        assertMessage(restarted.poll(), 0);
+        assertMessage(restarted.poll(), 1);
+        Assert.isTrue(restarted.poll() == null);
+        Assert.isTrue(restarted.isEmpty());
+        Assert.isTrue(restarted.append(buildMessage(2)));
+        assertMessage(restarted.poll(), 2);
+    }
+
+    @Test
+    public void assertIgnoreTornLength() throws Exception {
+        DiskSpillBuffer spillBuffer = new DiskSpillBuffer(directory.getPath(), 4096, 4);
+        spillBuffer.append(buildMessage(0));
+        spillBuffer.append(buildMessage(1));
+        // Length pointing past the end of the segment.
+        try (RandomAccessFile file = new RandomAccessFile(onlySegment(), "rw")) {
+            file.seek(recordsEnd(file));
+            file.writeInt(1 << 20);
+        }
+        DiskSpillBuffer restarted = new DiskSpillBuffer(directory.getPath(), 4096, 4);
+        assertMessage(restarted.poll(), 0);
+        assertMessage(restarted.poll(), 1);
+        Assert.isTrue(restarted.poll() == null);
+        Assert.isTrue(segmentCount() == 0);
+    }
+
+    private long recordsEnd(RandomAccessFile file) throws Exception {
+        long position = 0L;
+        int length;
+        while ((length = file.readInt()) > 0) {
+            position += 4 + length;
+            file.seek(position);
+        }
+        return position;
+    }
+
+    private File onlySegment() {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(".seg"));
+        Assert.isTrue(files != null && files.length == 1);
+        return files[0];
+    }
+
+    private int segmentCount() {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(".seg"));
+        return files == null ? 0 : files.length;
+    }
+
+    private void assertMessage(Message message, int sequence) {
+        Assert.isTrue(message != null);
+        Assert.isTrue(Objects.equals(message.getMessageType(), MessageTypeEnum.RUNTIME));
+        Assert.isTrue(Objects.equals(message.getMessages(), buildMessage(sequence).getMessages()));
+    }
+
+    private int sequence(Message message) {
+        return ((RuntimeMessage) message.getMessages().get(0)).getCompletedTaskCount().intValue();
+    }
+
+    private RuntimeMessage buildMessage(int sequence) {
+        RuntimeMessage each = new RuntimeMessage();
+        each.setGroupKey("message-consume+dynamic-threadpool-example+prescription+127.0.0.1:8088_a1b2c3");
+        each.setPoolSize(10);
+        each.setQueueCapacity(1024);
+        each.setQueueSize(sequence % 7);
+        each.setCompletedTaskCount((long) sequence);
+        each.setTimestamp(1_600_000_000_000L + sequence * 5000L);
+        RuntimeMessage message = new RuntimeMessage();
+        message.setMessageType(MessageTypeEnum.RUNTIME);
+        message.setMessages(Collections.singletonList(each));
+        return message;
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.springboot.starter.support;
+
+import cn.hippo4j.common.api.ThreadPoolDynamicRefresh;
+import cn.hippo4j.common.config.ApplicationContextHolder;
+import cn.hippo4j.common.executor.support.BlockingQueueTypeEnum;
+import cn.hippo4j.common.executor.support.RejectedPolicyTypeEnum;
+import cn.hippo4j.common.model.ThreadPoolParameterInfo;
+import cn.hippo4j.common.toolkit.Assert;
+import cn.hippo4j.common.web.base.Results;
+import cn.hippo4j.core.executor.DynamicThreadPoolExecutor;
+import cn.hippo4j.core.executor.DynamicThreadPoolWrapper;
+import cn.hippo4j.core.executor.ThreadPoolNotifyAlarmHandler;
+import cn.hippo4j.core.executor.manage.GlobalThreadPoolManage;
+import cn.hippo4j.core.executor.support.ThreadPoolBuilder;
+import cn.hippo4j.core.executor.support.service.DynamicThreadPoolService;
+import cn.hippo4j.springboot.starter.config.BootstrapProperties;
+import cn.hippo4j.springboot.starter.core.ClientWorker;
+import cn.hippo4j.springboot.starter.core.DynamicThreadPoolSubscribeConfig;
+import cn.hippo4j.springboot.starter.core.ServerThreadPoolDynamicRefresh;
+import cn.hippo4j.springboot.starter.remote.HttpAgent;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+public class DynamicThreadPoolPostProcessorTest {
+
+    private static final long SERVER_DELAY_MILLIS = 1000L;
+
+    private final BootstrapProperties properties = new BootstrapProperties();
+
+    private final HttpAgent httpAgent = Mockito.mock(HttpAgent.class);
+
+    private final ClientWorker clientWorker = Mockito.mock(ClientWorker.class);
+
+    private final DynamicThreadPoolSubscribeConfig subscribeConfig = Mockito.mock(DynamicThreadPoolSubscribeConfig.class);
+
+    private final DynamicThreadPoolService dynamicThreadPoolService = Mockito.mock(DynamicThreadPoolService.class);
+
+    @Before
+    public void setUp() {
+        GenericApplicationContext context = new GenericApplicationContext();
+        context.getBeanFactory().registerSingleton("threadPoolDynamicRefresh",
+                new ServerThreadPoolDynamicRefresh(Mockito.mock(ThreadPoolNotifyAlarmHandler.class)));
+        context.getBeanFactory().registerSingleton("dynamicThreadPoolService", dynamicThreadPoolService);
+        context.refresh();
+        new ApplicationContextHolder().setApplicationContext(context);
+        properties.setNamespace("prescription");
+        properties.setItemId("dynamic-threadpool-example");
+    }
+
+    @Test
+    public void assertAsyncFillPoolAndRegister() {
+        properties.setAsyncRegister(true);
+        Map<String, ThreadPoolParameterInfo> serverConfigMap = new HashMap<>();
+        serverConfigMap.put("async-pool-1", serverParameter("async-pool-1", 4, 8, 256));
+        serverConfigMap.put("async-pool-2", serverParameter("async-pool-2", 2, 6, 128));
+        Mockito.when(clientWorker.prefetchServerConfigs(properties.getNamespace(), properties.getItemId())).thenReturn(serverConfigMap);
+        DynamicThreadPoolPostProcessor postProcessor = new DynamicThreadPoolPostProcessor(properties, httpAgent, subscribeConfig, clientWorker);
+        ThreadPoolExecutor executor1 = localExecutor("async-pool-1");
+        ThreadPoolExecutor executor2 = localExecutor("async-pool-2");
+        postProcessor.registerAndSubscribe(new DynamicThreadPoolWrapper("async-pool-1", executor1));
+        postProcessor.registerAndSubscribe(new DynamicThreadPoolWrapper("async-pool-2", executor2));
+        // Registered with the local parameters before the server config arrives.
+        Assert.isTrue(GlobalThreadPoolManage.getExecutorService("async-pool-1").getExecutor() == executor1);
+        Assert.isTrue(GlobalThreadPoolManage.getExecutorService("async-pool-2").getExecutor() == executor2);
+        Mockito.verify(subscribeConfig, Mockito.timeout(3000L)).subscribeConfig("async-pool-1");
+        Mockito.verify(subscribeConfig, Mockito.timeout(3000L)).subscribeConfig("async-pool-2");
+        assertServerParameterApplied(executor1, 4, 8, 256);
+        assertServerParameterApplied(executor2, 2, 6, 128);
+        Assert.isTrue(GlobalThreadPoolManage.getPoolParameter("async-pool-1").getCoreSize() == 4);
+        Assert.isTrue(GlobalThreadPoolManage.getPoolParameter("async-pool-2").getCoreSize() == 2);
+        Mockito.verifyNoInteractions(httpAgent);
+    }
+
+    @Test
+    public void assertAsyncRegisterNotBlockedByServer() {
+        Mockito.when(clientWorker.prefetchServerConfigs(properties.getNamespace(), properties.getItemId())).thenAnswer(invocation -> {
+            Thread.sleep(SERVER_DELAY_MILLIS);
+            Map<String, ThreadPoolParameterInfo> serverConfigMap = new HashMap<>();
+            serverConfigMap.put("slow-pool-sync", serverParameter("slow-pool-sync", 3, 5, 64));
+            serverConfigMap.put("slow-pool-async", serverParameter("slow-pool-async", 3, 5, 64));
+            return serverConfigMap;
+        });
+        properties.setAsyncRegister(false);
+        long syncElapsed = registerElapsedMillis("slow-pool-sync");
+        properties.setAsyncRegister(true);
+        long asyncElapsed = registerElapsedMillis("slow-pool-async");
+        Assert.isTrue(syncElapsed >= SERVER_DELAY_MILLIS, "sync register elapsed: " + syncElapsed);
+        Assert.isTrue(asyncElapsed < SERVER_DELAY_MILLIS / 2, "async register elapsed: " + asyncElapsed);
+        Mockito.verify(subscribeConfig, Mockito.timeout(3000L)).subscribeConfig("slow-pool-async");
+        assertServerParameterApplied(GlobalThreadPoolManage.getExecutor("slow-pool-async"), 3, 5, 64);
+    }
+
+    @Test
+    public void assertSnapshotPoolStartsWithSnapshotParameters() {
+        Map<String, ThreadPoolParameterInfo> snapshotMap = new HashMap<>();
+        snapshotMap.put("snapshot-pool", serverParameter("snapshot-pool", 4, 8, 256));
+        Mockito.when(clientWorker.prefetchServerConfigs(properties.getNamespace(), properties.getItemId())).thenReturn(snapshotMap);
+        Mockito.when(clientWorker.isPrefetchFromSnapshot()).thenReturn(true);
+        DynamicThreadPoolPostProcessor postProcessor = new DynamicThreadPoolPostProcessor(properties, httpAgent, subscribeConfig, clientWorker);
+        postProcessor.registerAndSubscribe(new DynamicThreadPoolWrapper("snapshot-pool", localExecutor("snapshot-pool")));
+        assertServerParameterApplied(GlobalThreadPoolManage.getExecutor("snapshot-pool"), 4, 8, 256);
+        Mockito.verify(subscribeConfig).subscribeConfig("snapshot-pool");
+        Mockito.verifyNoInteractions(httpAgent);
+    }
+
+    @Test
+    public void assertPoolMissingFromSnapshotFallsBackToLocalParameters() {
+        Map<String, ThreadPoolParameterInfo> snapshotMap = new HashMap<>();
+        snapshotMap.put("snapshot-pool", serverParameter("snapshot-pool", 4, 8, 256));
+        Mockito.when(clientWorker.prefetchServerConfigs(properties.getNamespace(), properties.getItemId())).thenReturn(snapshotMap);
+        Mockito.when(clientWorker.isPrefetchFromSnapshot()).thenReturn(true);
+        Mockito.when(httpAgent.httpGetByConfig(Mockito.anyString(), Mockito.any(), Mockito.anyMap(), Mockito.anyLong()))
+                .thenThrow(new RuntimeException("Connection refused"))
+                .thenReturn(Results.failure());
+        DynamicThreadPoolPostProcessor postProcessor = new DynamicThreadPoolPostProcessor(properties, httpAgent, subscribeConfig, clientWorker);
+        ThreadPoolExecutor unreachableExecutor = localExecutor("unreachable-pool");
+        ThreadPoolExecutor failedExecutor = localExecutor("failed-pool");
+        postProcessor.registerAndSubscribe(new DynamicThreadPoolWrapper("unreachable-pool", unreachableExecutor));
+        postProcessor.registerAndSubscribe(new DynamicThreadPoolWrapper("failed-pool", failedExecutor));
+        Mockito.verify(httpAgent, Mockito.timeout(3000L).times(2)).httpGetByConfig(Mockito.anyString(), Mockito.any(), Mockito.anyMap(), Mockito.anyLong());
+        // The server is down, the thread pools keep the local parameters and are not registered as undefined.
+        Mockito.verify(dynamicThreadPoolService, Mockito.after(300L).never()).registerDynamicThreadPool(Mockito.any());
+        Mockito.verify(subscribeConfig, Mockito.never()).subscribeConfig(Mockito.anyString());
+        Assert.isTrue(GlobalThreadPoolManage.getExecutor("unreachable-pool") == unreachableExecutor);
+        Assert.isTrue(GlobalThreadPoolManage.getExecutor("failed-pool") == failedExecutor);
+        Assert.isTrue(unreachableExecutor.getCorePoolSize() == 1 && failedExecutor.getCorePoolSize() == 1);
+        Assert.isTrue(GlobalThreadPoolManage.getPoolParameter("unreachable-pool").getCoreSize() == 1);
+        Assert.isTrue(GlobalThreadPoolManage.getPoolParameter("failed-pool").getCapacity() == 16);
+    }
+
+    private long registerElapsedMillis(String threadPoolId) {
+        DynamicThreadPoolPostProcessor postProcessor = new DynamicThreadPoolPostProcessor(properties, httpAgent, subscribeConfig, clientWorker);
+        long start = System.currentTimeMillis();
+        postProcessor.registerAndSubscribe(new DynamicThreadPoolWrapper(threadPoolId, localExecutor(threadPoolId)));
+        return System.currentTimeMillis() - start;
+    }
+
+    private static void assertServerParameterApplied(ThreadPoolExecutor executor, int coreSize, int maxSize, int capacity) {
+        Assert.isTrue(executor.getCorePoolSize() == coreSize);
+        Assert.isTrue(executor.getMaximumPoolSize() == maxSize);
+        Assert.isTrue(executor.getQueue().remainingCapacity() + executor.getQueue().size() == capacity);
+        Assert.isTrue(executor.getKeepAliveTime(TimeUnit.SECONDS) == 30L);
+    }
+
+    private static ThreadPoolExecutor localExecutor(String threadPoolId) {
+        return ThreadPoolBuilder.builder()
+                .dynamicPool()
+                .threadPoolId(threadPoolId)
+                .threadFactory(threadPoolId)
+                .poolThreadSize(1, 1)
+                .keepAliveTime(60L, TimeUnit.SECONDS)
+                .workQueue(BlockingQueueTypeEnum.RESIZABLE_LINKED_BLOCKING_QUEUE, 16)
+                .rejected(new ThreadPoolExecutor.AbortPolicy())
+                .build();
+    }
+
+    private static ThreadPoolParameterInfo serverParameter(String threadPoolId, int coreSize, int maxSize, int capacity) {
+        ThreadPoolParameterInfo parameterInfo = new ThreadPoolParameterInfo();
+        parameterInfo.setTpId(threadPoolId)
+                .setCoreSize(coreSize)
+                .setMaxSize(maxSize)
+                .setQueueType(BlockingQueueTypeEnum.RESIZABLE_LINKED_BLOCKING_QUEUE.getType())
+                .setCapacity(capacity)
+                .setKeepAliveTime(30)
+                .setRejectedType(RejectedPolicyTypeEnum.CALLER_RUNS_POLICY.getType())
+                .setAllowCoreThreadTimeOut(0)
+                .setIsAlarm(0)
+                .setCapacityAlarm(80)
+                .setLivenessAlarm(80);
+        return parameterInfo;
+    }
+}